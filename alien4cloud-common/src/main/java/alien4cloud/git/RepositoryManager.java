@@ -23,6 +23,7 @@ import org.eclipse.jgit.api.TransportCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryState;
@@ -76,14 +77,10 @@ public class RepositoryManager {
      * @return true if the directory is a git repository, false if not.
      */
     public static boolean isGitRepository(Path targetDirectory) {
-        Git repository = null;
         try {
-            repository = Git.open(targetDirectory.toFile());
-            return true;
-        } catch (IOException e) {
+            return RepositoryPool.doWithGit(targetDirectory, repository -> true);
+        } catch (IOException | GitAPIException e) {
             return false;
-        } finally {
-            close(repository);
         }
     }
 
@@ -95,42 +92,39 @@ public class RepositoryManager {
      * @return true if the directory is a git repository, false if not.
      */
     public static boolean isGitRepository(Path targetDirectory, String remoteGitUrl) {
-        Git repository = null;
         try {
-            repository = Git.open(targetDirectory.toFile());
-            String originUrl = repository.getRepository().getConfig().getString("remote", "origin", "url");
-            return remoteGitUrl.equals(originUrl);
-        } catch (IOException e) {
+            return RepositoryPool.doWithGit(targetDirectory, repository -> {
+                String originUrl = repository.getRepository().getConfig().getString("remote", "origin", "url");
+                return remoteGitUrl.equals(originUrl);
+            });
+        } catch (IOException | GitAPIException e) {
             return false;
-        } finally {
-            close(repository);
         }
     }
 
     public static void deleteBranch(Path targetDirectory, String branch, boolean deleteRemoteBranch){
-        Git repository = null;
         try {
-            repository = Git.open(targetDirectory.toFile());
-            //delete locally
-            if (branchExistsLocally(repository, branch)) {
-                // is current branch?
-                if(repository.getRepository().getBranch().equals(branch)){
-                    checkoutExistingBranchOrCreateOrphan(repository, true, null,null, "tmp");
+            RepositoryPool.doWithGit(targetDirectory, repository -> {
+                //delete locally
+                if (branchExistsLocally(repository, branch)) {
+                    // is current branch?
+                    if(repository.getRepository().getBranch().equals(branch)){
+                        checkoutExistingBranchOrCreateOrphan(repository, true, null,null, "tmp");
+                    }
+                    repository.branchDelete().setForce(true).setBranchNames("refs/heads/" + branch).call();
                 }
-                repository.branchDelete().setForce(true).setBranchNames("refs/heads/" + branch).call();
-            }
 
-            // delete remote branch
-            if(deleteRemoteBranch){
-                RefSpec refSpec = new RefSpec()
-                        .setSource(null)
-                        .setDestination("refs/heads/" + branch);
-                repository.push().setRefSpecs(refSpec).setRemote("origin").call();
-            }
+                // delete remote branch
+                if(deleteRemoteBranch){
+                    RefSpec refSpec = new RefSpec()
+                            .setSource(null)
+                            .setDestination("refs/heads/" + branch);
+                    repository.push().setRefSpecs(refSpec).setRemote("origin").call();
+                }
+                return null;
+            });
         } catch (IOException | GitAPIException e) {
             throw new GitException("Error while deleting branch <" + branch + ">", e);
-        } finally {
-            close(repository);
         }
     }
 
@@ -143,6 +137,8 @@ public class RepositoryManager {
     public static void create(Path targetDirectory, String readmeContentIfEmpty) {
         Git repository = null;
         try {
+            // the directory may have been deleted and re-created, a pooled repository is outdated.
+            RepositoryPool.invalidate(targetDirectory);
             repository = Git.init().setDirectory(targetDirectory.toFile()).call();
             if (readmeContentIfEmpty != null) {
                 Path readmePath = targetDirectory.resolve("readme.txt");
@@ -165,17 +161,15 @@ public class RepositoryManager {
      * @param targetDirectory The target directory.
      */
     public static void commitAll(Path targetDirectory, String userName, String userEmail, String commitMessage) {
-        Git repository = null;
         try {
-            repository = Git.open(targetDirectory.toFile());
-            repository.add().addFilepattern(".").call();
-            String name = defaultUsernameIfNull(userName);
-            String email = defaultEmailIfNull(name, userEmail);
-            repository.commit().setCommitter(name, email).setMessage(commitMessage).call();
+            RepositoryPool.doWithGit(targetDirectory, repository -> {
+                repository.add().addFilepattern(".").call();
+                String name = defaultUsernameIfNull(userName);
+                String email = defaultEmailIfNull(name, userEmail);
+                return repository.commit().setCommitter(name, email).setMessage(commitMessage).call();
+            });
         } catch (GitAPIException | IOException e) {
             throw new GitException("Unable to commit to the git repository", e);
-        } finally {
-            close(repository);
         }
     }
 
@@ -208,6 +202,8 @@ public class RepositoryManager {
         try {
             Files.createDirectories(targetDirectory);
             Path targetPath = targetDirectory.resolve(localDirectory);
+            // the repository may be re-cloned, a pooled repository would be outdated.
+            RepositoryPool.invalidate(targetPath);
             Git repository;
             if (Files.exists(targetPath)) {
                 try {
@@ -265,69 +261,64 @@ public class RepositoryManager {
     }
 
     public static void stash(Path repositoryDirectory, String stashId) {
-        Git git = null;
         try {
             log.debug("Stashing change from <" + repositoryDirectory + "> to stash <" + stashId + ">");
-            git = Git.open(repositoryDirectory.toFile());
-
-            Collection<RevCommit> stashes = git.stashList().call();
-            int stashIndex = 0;
-            for (RevCommit stash : stashes) {
-                if (stash.getFullMessage().equals(stashId)) {
-                    git.stashDrop().setStashRef(stashIndex).call();
-                    log.warn("Stash <" + stashId + "> was already existing in <" + repositoryDirectory + ">. It has been deleted.");
-                    break;
+            RepositoryPool.doWithGit(repositoryDirectory, git -> {
+                Collection<RevCommit> stashes = git.stashList().call();
+                int stashIndex = 0;
+                for (RevCommit stash : stashes) {
+                    if (stash.getFullMessage().equals(stashId)) {
+                        git.stashDrop().setStashRef(stashIndex).call();
+                        log.warn("Stash <" + stashId + "> was already existing in <" + repositoryDirectory + ">. It has been deleted.");
+                        break;
+                    }
+                    stashIndex++;
                 }
-                stashIndex++;
-            }
 
-            git.stashCreate().setIncludeUntracked(true).setWorkingDirectoryMessage(stashId).call();
+                return git.stashCreate().setIncludeUntracked(true).setWorkingDirectoryMessage(stashId).call();
+            });
         } catch (IOException | GitAPIException e) {
             throw new GitException("Failed to stash data", e);
-        } finally {
-            close(git);
         }
     }
 
     public static void dropStash(Path repositoryDirectory, String stashId){
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            int stashIndex = 0;
-            Collection<RevCommit> stashes = git.stashList().call();
-            for (RevCommit stash : stashes) {
-                if (stash.getFullMessage().equals(stashId)) {
-                    git.stashDrop().setStashRef(stashIndex).call();
-                    log.debug("Stash <" + stashId + ">  has been dropped on <" + repositoryDirectory + ">");
+            RepositoryPool.doWithGit(repositoryDirectory, git -> {
+                int stashIndex = 0;
+                Collection<RevCommit> stashes = git.stashList().call();
+                for (RevCommit stash : stashes) {
+                    if (stash.getFullMessage().equals(stashId)) {
+                        git.stashDrop().setStashRef(stashIndex).call();
+                        log.debug("Stash <" + stashId + ">  has been dropped on <" + repositoryDirectory + ">");
+                    }
+                    stashIndex++;
                 }
-                stashIndex++;
-            }
+                return null;
+            });
         } catch (IOException | GitAPIException e) {
             throw new GitException("Failed to apply then drop stash", e);
-        } finally {
-            close(git);
         }
     }
 
     public static void applyStashThenDrop(Path repositoryDirectory, String stashId) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            int stashIndex = 0;
-            Collection<RevCommit> stashes = git.stashList().call();
-            for (RevCommit stash : stashes) {
-                if (stash.getFullMessage().equals(stashId)) {
-                    git.stashApply().setStashRef(stash.getName()).call();
-                    git.stashDrop().setStashRef(stashIndex).call();
-                    log.debug("Stash <" + stashId + ">  applied/dropped on <" + repositoryDirectory + ">");
-                    break;
+            RepositoryPool.doWithGit(repositoryDirectory, git -> {
+                int stashIndex = 0;
+                Collection<RevCommit> stashes = git.stashList().call();
+                for (RevCommit stash : stashes) {
+                    if (stash.getFullMessage().equals(stashId)) {
+                        git.stashApply().setStashRef(stash.getName()).call();
+                        git.stashDrop().setStashRef(stashIndex).call();
+                        log.debug("Stash <" + stashId + ">  applied/dropped on <" + repositoryDirectory + ">");
+                        break;
+                    }
+                    stashIndex++;
                 }
-                stashIndex++;
-            }
+                return null;
+            });
         } catch (IOException | GitAPIException e) {
             throw new GitException("Failed to apply then drop stash", e);
-        } finally {
-            close(git);
         }
     }
 
@@ -364,14 +355,13 @@ public class RepositoryManager {
     }
 
     public static void checkoutExistingBranchOrCreateOrphan(Path repositoryDirectory, boolean isLocalOnly, String username, String password, String branch) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            checkoutExistingBranchOrCreateOrphan(git, isLocalOnly, username, password, branch);
+            RepositoryPool.doWithGit(repositoryDirectory, git -> {
+                checkoutExistingBranchOrCreateOrphan(git, isLocalOnly, username, password, branch);
+                return null;
+            });
         } catch (IOException | GitAPIException e) {
             throw new GitException("Git repository related issue", e);
-        } finally {
-            close(git);
         }
     }
 
@@ -486,26 +476,52 @@ public class RepositoryManager {
      * @return A list of simplified history entries.
      */
     public static List<SimpleGitHistoryEntry> getHistory(Path repositoryDirectory, int from, int count) {
-        Git repository = null;
         try {
-            repository = Git.open(repositoryDirectory.toFile());
-            Iterable<RevCommit> commits = repository.log().setSkip(from).setMaxCount(count).call();
-            List<SimpleGitHistoryEntry> historyEntries = Lists.newArrayList();
-            for (RevCommit commit : commits) {
-                historyEntries.add(new SimpleGitHistoryEntry(commit.getId().getName(), commit.getAuthorIdent().getName(),
-                        commit.getAuthorIdent().getEmailAddress(), commit.getFullMessage(), new Date(commit.getCommitTime() * 1000L)));
-            }
-            return historyEntries;
+            return RepositoryPool.doWithGit(repositoryDirectory, repository -> toHistoryEntries(repository.log().setSkip(from).setMaxCount(count).call()));
         } catch (NoHeadException e) {
             log.debug("Your repository has no head, you need to save your topology before using the git history.");
             return Lists.newArrayList();
         } catch (GitAPIException | IOException e) {
             throw new GitException("Unable to get history from the git repository", e);
-        } finally {
-            close(repository);
         }
     }
 
+    /**
+     * Return a simplified git commit history list starting just before a given commit. Unlike {@link #getHistory(Path, int, int)} the history is walked
+     * from the given commit and not from HEAD, so paging backward in a long history only walks the requested entries.
+     *
+     * @param repositoryDirectory The directory in which the git repo exists.
+     * @param beforeCommitId The id of the commit after which to get history (usually the last entry of the previous page), null to start from HEAD.
+     * @param count The number of history entries to retrieve.
+     * @return A list of simplified history entries.
+     */
+    public static List<SimpleGitHistoryEntry> getHistory(Path repositoryDirectory, String beforeCommitId, int count) {
+        if (beforeCommitId == null) {
+            return getHistory(repositoryDirectory, 0, count);
+        }
+        try {
+            return RepositoryPool.doWithGit(repositoryDirectory, repository -> {
+                ObjectId beforeCommit = repository.getRepository().resolve(beforeCommitId);
+                if (beforeCommit == null) {
+                    throw new GitException("Commit <" + beforeCommitId + "> cannot be found in the git repository");
+                }
+                // the walk starts with the given commit that is part of the previous page.
+                return toHistoryEntries(repository.log().add(beforeCommit).setSkip(1).setMaxCount(count).call());
+            });
+        } catch (GitAPIException | IOException e) {
+            throw new GitException("Unable to get history from the git repository", e);
+        }
+    }
+
+    private static List<SimpleGitHistoryEntry> toHistoryEntries(Iterable<RevCommit> commits) {
+        List<SimpleGitHistoryEntry> historyEntries = Lists.newArrayList();
+        for (RevCommit commit : commits) {
+            historyEntries.add(new SimpleGitHistoryEntry(commit.getId().getName(), commit.getAuthorIdent().getName(),
+                    commit.getAuthorIdent().getEmailAddress(), commit.getFullMessage(), new Date(commit.getCommitTime() * 1000L)));
+        }
+        return historyEntries;
+    }
+
     /**
      * Set a remote repository path.
      *
@@ -514,20 +530,24 @@ public class RepositoryManager {
      * @param remoteUrl The url of the repository.
      */
     public static void setRemote(Path repositoryDirectory, String remoteName, String remoteUrl) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            StoredConfig config = git.getRepository().getConfig();
-            config.unsetSection("remote", remoteName);
-            RemoteConfig remoteConfig = new RemoteConfig(config, remoteName);
-            remoteConfig.addURI(new URIish(remoteUrl));
-            remoteConfig.addFetchRefSpec(new RefSpec("+refs/heads/*:refs/remotes/" + remoteName + "/*"));
-            remoteConfig.update(config);
-            config.save();
-        } catch (URISyntaxException | IOException e) {
+            RepositoryPool.doWithGit(repositoryDirectory, git -> {
+                StoredConfig config = git.getRepository().getConfig();
+                config.unsetSection("remote", remoteName);
+                RemoteConfig remoteConfig;
+                try {
+                    remoteConfig = new RemoteConfig(config, remoteName);
+                    remoteConfig.addURI(new URIish(remoteUrl));
+                } catch (URISyntaxException e) {
+                    throw new GitException("Unable to set the remote repository", e);
+                }
+                remoteConfig.addFetchRefSpec(new RefSpec("+refs/heads/*:refs/remotes/" + remoteName + "/*"));
+                remoteConfig.update(config);
+                config.save();
+                return null;
+            });
+        } catch (IOException | GitAPIException e) {
             throw new GitException("Unable to set the remote repository", e);
-        } finally {
-            close(git);
         }
     }
 
@@ -539,56 +559,43 @@ public class RepositoryManager {
      * @return The url of the git remote.
      */
     public static String getRemoteUrl(Path repositoryDirectory, String remoteName) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            return git.getRepository().getConfig().getString("remote", remoteName, "url");
-        } catch (IOException e) {
+            return RepositoryPool.doWithGit(repositoryDirectory, git -> git.getRepository().getConfig().getString("remote", remoteName, "url"));
+        } catch (IOException | GitAPIException e) {
             throw new GitException("Unable to open the git repository", e);
-        } finally {
-            close(git);
         }
     }
 
     public static String getCurrentBranchName(Path repositoryDirectory) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            return git.getRepository().getBranch();
-        } catch (IOException e) {
+            return RepositoryPool.doWithGit(repositoryDirectory, git -> git.getRepository().getBranch());
+        } catch (IOException | GitAPIException e) {
             throw new GitException("Unable to open the git repository", e);
-        } finally {
-            close(git);
         }
     }
 
     public static boolean isOnBranch(Path repositoryDirectory, String branchName) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            return branchName.equals(git.getRepository().getBranch());
-        } catch (IOException e) {
+            return RepositoryPool.doWithGit(repositoryDirectory, git -> branchName.equals(git.getRepository().getBranch()));
+        } catch (IOException | GitAPIException e) {
             throw new GitException("Unable to open the git repository", e);
-        } finally {
-            close(git);
         }
     }
 
     public static void renameBranches(Path repositoryDirectory, Map<String, String> branchOldNameToNewName) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            for (Map.Entry<String, String> entry : branchOldNameToNewName.entrySet()) {
-                String oldBranchName = entry.getKey();
-                String newBranchName = entry.getValue();
-                if (branchExistsLocally(git, oldBranchName)) {
-                    git.branchRename().setOldName(oldBranchName).setNewName(newBranchName).call();
+            RepositoryPool.doWithGit(repositoryDirectory, git -> {
+                for (Map.Entry<String, String> entry : branchOldNameToNewName.entrySet()) {
+                    String oldBranchName = entry.getKey();
+                    String newBranchName = entry.getValue();
+                    if (branchExistsLocally(git, oldBranchName)) {
+                        git.branchRename().setOldName(oldBranchName).setNewName(newBranchName).call();
+                    }
                 }
-            }
+                return null;
+            });
         } catch (IOException | GitAPIException e) {
             throw new GitException("Unable to rename all branches", e);
-        } finally {
-            close(git);
         }
     }
 
@@ -614,41 +621,41 @@ public class RepositoryManager {
      * @return <code>true</code> pushed, <code>false</code> otherwise.
      */
     public static boolean push(Path repositoryDirectory, String username, String password, String remoteBranch) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.toFile());
-            checkRepositoryState(git.getRepository().getRepositoryState(), "Git push operation failed.");
-            Repository repository = git.getRepository();
-
-            // If no given remoteBranch, use the default one (i.e. master).
-            String targetRemoteBranch = remoteBranch == null ? repository.getBranch() : remoteBranch;
-            boolean isPushed = push(git, username, password, repository.getBranch(), targetRemoteBranch);
-            if (!isPushed) {
-                // If not pushed, then we have a conflict.
-                // Push the current commit into a new alien branch.
-                // Then rebranch to the current branch.
-                String remoteName = repository.getRemoteNames().iterator().next(); // Only handle one remote (default: 'origin')
-                log.debug(String.format("Couldn't push git repository=%s to remote=%s on the branch=%s", git.getRepository().getDirectory(), remoteName,
-                        repository.getBranch()));
-                fetch(git, username, password);
-                String conflictBranchName = generateConflictBranchName(repository, remoteName);
-                isPushed = push(git, username, password, repository.getBranch(), conflictBranchName);
-                if (isPushed) {
-                    log.debug(String.format("Pushed git repository=%s on branch=%s", git.getRepository().getDirectory(), conflictBranchName));
-                    rebranch(git, repository.getBranch(), targetRemoteBranch);
-                }
-                throw new GitConflictException(remoteName, repository.getBranch(), conflictBranchName);
-            } else {
-                log.debug(String.format("Pushed git repository=%s on branch=%s", git.getRepository().getDirectory(), targetRemoteBranch));
-            }
-            return isPushed;
-        } catch (IOException e) {
+            return RepositoryPool.doWithGit(repositoryDirectory, git -> push(git, username, password, remoteBranch));
+        } catch (IOException | GitAPIException e) {
             throw new GitException("Unable to open the remote repository", e);
-        } finally {
-            close(git);
         }
     }
 
+    private static boolean push(Git git, String username, String password, String remoteBranch) throws IOException {
+        checkRepositoryState(git.getRepository().getRepositoryState(), "Git push operation failed.");
+        Repository repository = git.getRepository();
+
+        // If no given remoteBranch, use the default one (i.e. master).
+        String targetRemoteBranch = remoteBranch == null ? repository.getBranch() : remoteBranch;
+        boolean isPushed = push(git, username, password, repository.getBranch(), targetRemoteBranch);
+        if (!isPushed) {
+            // If not pushed, then we have a conflict.
+            // Push the current commit into a new alien branch.
+            // Then rebranch to the current branch.
+            String remoteName = repository.getRemoteNames().iterator().next(); // Only handle one remote (default: 'origin')
+            log.debug(String.format("Couldn't push git repository=%s to remote=%s on the branch=%s", git.getRepository().getDirectory(), remoteName,
+                    repository.getBranch()));
+            fetch(git, username, password);
+            String conflictBranchName = generateConflictBranchName(repository, remoteName);
+            isPushed = push(git, username, password, repository.getBranch(), conflictBranchName);
+            if (isPushed) {
+                log.debug(String.format("Pushed git repository=%s on branch=%s", git.getRepository().getDirectory(), conflictBranchName));
+                rebranch(git, repository.getBranch(), targetRemoteBranch);
+            }
+            throw new GitConflictException(remoteName, repository.getBranch(), conflictBranchName);
+        } else {
+            log.debug(String.format("Pushed git repository=%s on branch=%s", git.getRepository().getDirectory(), targetRemoteBranch));
+        }
+        return isPushed;
+    }
+
     /**
      * Generate the conflict branch name to push to.
      */
@@ -772,27 +779,26 @@ public class RepositoryManager {
      * @param remoteBranch The name of the remote branch to pull from.
      */
     public static void pull(Path repositoryDirectory, String username, String password, String remoteBranch) {
-        Git git = null;
         try {
-            git = Git.open(repositoryDirectory.resolve(".git").toFile());
-            if (git.getRepository().getRemoteNames().isEmpty()) {
-                throw new GitException("No remote found for the repository");
-            }
-            checkRepositoryState(git.getRepository().getRepositoryState(), "Git pull operation failed");
-            PullCommand pullCommand = git.pull();
-            setCredentials(pullCommand, username, password);
-            pullCommand.setRemoteBranchName(remoteBranch);
-            PullResult call = pullCommand.call();
-            if (call.getMergeResult() != null && call.getMergeResult().getConflicts() != null && !call.getMergeResult().getConflicts().isEmpty()) {
-                throw new GitConflictException(git.getRepository().getBranch());
-            }
-            log.debug(String.format("Successfully pulled from %s", call.getFetchedFrom()));
+            RepositoryPool.doWithGit(repositoryDirectory.resolve(".git"), git -> {
+                if (git.getRepository().getRemoteNames().isEmpty()) {
+                    throw new GitException("No remote found for the repository");
+                }
+                checkRepositoryState(git.getRepository().getRepositoryState(), "Git pull operation failed");
+                PullCommand pullCommand = git.pull();
+                setCredentials(pullCommand, username, password);
+                pullCommand.setRemoteBranchName(remoteBranch);
+                PullResult call = pullCommand.call();
+                if (call.getMergeResult() != null && call.getMergeResult().getConflicts() != null && !call.getMergeResult().getConflicts().isEmpty()) {
+                    throw new GitConflictException(git.getRepository().getBranch());
+                }
+                log.debug(String.format("Successfully pulled from %s", call.getFetchedFrom()));
+                return null;
+            });
         } catch (IOException e) {
             throw new GitException("Unable to open the git repository", e);
         } catch (GitAPIException e) {
             throw new GitException("Unable to pull the git repository", e);
-        } finally {
-            close(git);
         }
     }
 
@@ -802,18 +808,16 @@ public class RepositoryManager {
      * @param repositoryDirectory
      */
     public static void clean(Path repositoryDirectory) {
-        Git repository = null;
         try {
-            repository = Git.open(repositoryDirectory.resolve(".git").toFile());
-            CleanCommand cleanCommand = repository.clean();
-            cleanCommand.setIgnore(true);
-            cleanCommand.call();
+            RepositoryPool.doWithGit(repositoryDirectory.resolve(".git"), repository -> {
+                CleanCommand cleanCommand = repository.clean();
+                cleanCommand.setIgnore(true);
+                return cleanCommand.call();
+            });
         } catch (IOException e) {
             throw new GitException("Unable to open the git repository", e);
         } catch (GitAPIException e) {
             throw new GitException("Unable to clean the git repository", e);
-        } finally {
-            close(repository);
         }
     }
 
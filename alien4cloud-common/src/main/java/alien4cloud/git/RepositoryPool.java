@@ -0,0 +1,122 @@
+package alien4cloud.git;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.Striped;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded pool of opened git repositories used by the {@link RepositoryManager} operations.
+ *
+ * Opening a repository reads its configuration, refs and pack indexes, the least recently used repositories are kept opened so operations do not pay it
+ * every time. Operations on a repository are serialized by a per-repository lock as jgit commands are not safe to run concurrently on a working directory.
+ * Repositories are reference counted so a repository evicted while in use is closed only once released.
+ */
+@Slf4j
+public final class RepositoryPool {
+    /** Maximum number of repositories kept opened. */
+    private static final int MAX_OPEN_REPOSITORIES = 64;
+    private static final int LOCK_STRIPES = 256;
+    /** Memory used by jgit to cache pack files content, shared by all repositories (jgit default is 10 MiB). */
+    private static final int PACKED_GIT_LIMIT = 64 * WindowCacheConfig.MB;
+    /** Maximum number of pack files opened at the same time, shared by all repositories. */
+    private static final int PACKED_GIT_OPEN_FILES = 256;
+
+    private static final Cache<Path, Repository> repositories = CacheBuilder.newBuilder().maximumSize(MAX_OPEN_REPOSITORIES)
+            .removalListener((RemovalListener<Path, Repository>) notification -> notification.getValue().close()).build();
+    private static final Striped<Lock> repositoryLocks = Striped.lazyWeakLock(LOCK_STRIPES);
+
+    static {
+        WindowCacheConfig windowCacheConfig = new WindowCacheConfig();
+        windowCacheConfig.setPackedGitLimit(PACKED_GIT_LIMIT);
+        windowCacheConfig.setPackedGitOpenFiles(PACKED_GIT_OPEN_FILES);
+        windowCacheConfig.install();
+    }
+
+    private RepositoryPool() {
+    }
+
+    /**
+     * An operation to perform on a git repository.
+     *
+     * @param <T> The type of the operation result.
+     */
+    @FunctionalInterface
+    public interface GitAction<T> {
+        T doWithGit(Git git) throws IOException, GitAPIException;
+    }
+
+    /**
+     * Execute an operation on a pooled repository while holding the lock of the repository.
+     *
+     * @param repositoryDirectory The working directory (or the .git directory) of the repository.
+     * @param action The operation to execute, the given git instance must not be used once the operation returns.
+     * @param <T> The type of the operation result.
+     * @return The result of the operation.
+     * @throws IOException In case the repository cannot be opened or if the operation fails.
+     * @throws GitAPIException In case the operation fails.
+     */
+    public static <T> T doWithGit(Path repositoryDirectory, GitAction<T> action) throws IOException, GitAPIException {
+        Path key = getKey(repositoryDirectory);
+        Lock lock = repositoryLocks.get(key);
+        lock.lock();
+        try {
+            Repository repository = borrow(key);
+            try {
+                return action.doWithGit(Git.wrap(repository));
+            } finally {
+                // release the reference taken by borrow, the pool still holds its own one.
+                repository.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a repository from the pool, this must be called when the repository directory is deleted or re-created.
+     *
+     * @param repositoryDirectory The working directory (or the .git directory) of the repository.
+     */
+    public static synchronized void invalidate(Path repositoryDirectory) {
+        repositories.invalidate(getKey(repositoryDirectory));
+    }
+
+    /**
+     * Get a repository from the pool or open it. The returned repository must be closed once used.
+     */
+    private static synchronized Repository borrow(Path key) throws IOException {
+        Repository repository = repositories.getIfPresent(key);
+        if (repository != null && !repository.getDirectory().isDirectory()) {
+            log.debug("Git repository <{}> has been deleted, opening it again.", key);
+            repositories.invalidate(key);
+            repository = null;
+        }
+        if (repository == null) {
+            repository = Git.open(key.toFile()).getRepository();
+            repositories.put(key, repository);
+        }
+        repository.incrementOpen();
+        return repository;
+    }
+
+    private static Path getKey(Path repositoryDirectory) {
+        Path directory = repositoryDirectory.toAbsolutePath().normalize();
+        if (directory.getFileName() != null && Constants.DOT_GIT.equals(directory.getFileName().toString())) {
+            return directory.getParent();
+        }
+        return directory;
+    }
+}
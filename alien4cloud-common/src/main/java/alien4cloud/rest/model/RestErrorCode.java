@@ -74,6 +74,7 @@ public enum RestErrorCode {
     INVALID_NAME(618),
     RUNTIME_WORKFLOW_ERROR(619),
     RENAME_DEPLOYED_ERROR(620),
+    DEPLOYMENT_LOCK_TIMEOUT(621),
 
     // PaaS errors : code 650+
     COMPUTE_CONFLICT_NAME(650),
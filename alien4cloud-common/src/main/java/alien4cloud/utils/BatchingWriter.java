@@ -0,0 +1,182 @@
+package alien4cloud.utils;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue of elements written by batches from a background thread.
+ *
+ * A batch is written when it is full or when the flush interval is reached after its first element has been queued. Producers decide what to do when the
+ * queue is full through the result of {@link #offer(Object)}, or wait for some room with {@link #offer(Object, long, TimeUnit)} or {@link #put(Object)}.
+ * Elements that cannot be written (writer failure or elements still queued when the writer is stopped) are given to the unwritten elements handler.
+ *
+ * @param <T> The type of elements to write.
+ */
+@Slf4j
+public class BatchingWriter<T> {
+    /** Maximum duration the writer thread waits for a first element before checking if it has been stopped. */
+    private static final long IDLE_POLL_TIMEOUT_MS = 500;
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Consumer<List<T>> batchWriter;
+    private final Consumer<List<T>> unwrittenHandler;
+
+    private volatile boolean running = false;
+    private Thread writerThread;
+
+    /**
+     * Create a new batching writer, the writer thread is started by {@link #start()}.
+     *
+     * @param name The name of the writer thread.
+     * @param capacity The maximum number of elements waiting to be written.
+     * @param batchSize The maximum number of elements written together.
+     * @param flushIntervalMs The maximum duration an element waits for the batch to be full, 0 to write the available elements as soon as possible.
+     * @param batchWriter Write a batch of elements, an exception means that none of the elements has been written.
+     * @param unwrittenHandler Process the elements that cannot be written.
+     */
+    public BatchingWriter(String name, int capacity, int batchSize, long flushIntervalMs, Consumer<List<T>> batchWriter, Consumer<List<T>> unwrittenHandler) {
+        this.name = name;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchWriter = batchWriter;
+        this.unwrittenHandler = unwrittenHandler;
+    }
+
+    /**
+     * Start the writer thread.
+     */
+    public synchronized void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, name);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer, queued elements are written before the method returns unless the timeout is reached. Elements that are still queued after the
+     * timeout are given to the unwritten elements handler.
+     *
+     * @param timeoutMs The maximum duration to wait for the queued elements to be written.
+     */
+    public synchronized void stop(long timeoutMs) {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        List<T> remaining = Lists.newArrayList();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Writer {} stopped with {} elements not written.", name, remaining.size());
+            unwrittenHandler.accept(remaining);
+        }
+    }
+
+    /**
+     * @return true if the writer thread is started and accepts elements.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return The number of elements waiting to be written.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Queue an element if there is some room in the queue.
+     *
+     * @param element The element to write.
+     * @return true if the element has been queued, false if the queue is full or the writer is not running.
+     */
+    public boolean offer(T element) {
+        return running && queue.offer(element);
+    }
+
+    /**
+     * Queue an element, waiting for some room in the queue if necessary.
+     *
+     * @param element The element to write.
+     * @param timeout The maximum duration to wait for some room in the queue.
+     * @param unit The unit of the timeout.
+     * @return true if the element has been queued, false if the timeout has been reached or the writer is not running.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean offer(T element, long timeout, TimeUnit unit) throws InterruptedException {
+        return running && queue.offer(element, timeout, unit);
+    }
+
+    /**
+     * Queue an element, waiting for some room in the queue as long as necessary.
+     *
+     * @param element The element to write.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void put(T element) throws InterruptedException {
+        queue.put(element);
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            List<T> batch = Lists.newArrayListWithCapacity(batchSize);
+            try {
+                T first = queue.poll(flushIntervalMs > 0 ? flushIntervalMs : IDLE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unwrittenHandler.accept(batch);
+                return;
+            }
+            write(batch);
+        }
+    }
+
+    /** Wait for the batch to be full or the flush interval to be reached. */
+    private void fillBatch(List<T> batch) throws InterruptedException {
+        long flushDeadline = System.currentTimeMillis() + flushIntervalMs;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = flushDeadline - System.currentTimeMillis();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            T next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<T> batch) {
+        try {
+            batchWriter.accept(batch);
+        } catch (RuntimeException e) {
+            log.error("Writer {} failed to write {} elements.", name, batch.size(), e);
+            unwrittenHandler.accept(batch);
+        }
+    }
+}
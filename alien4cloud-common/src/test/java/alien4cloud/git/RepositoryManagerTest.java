@@ -2,8 +2,10 @@ package alien4cloud.git;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -64,4 +66,22 @@ public class RepositoryManagerTest {
         assertThat(RepositoryManager.isOnBranch(localGitPath, "tmp")).isTrue();
     }
 
+    @Test
+    public void pageHistoryBeforeCommit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Files.write(localGitPath.resolve("file.txt"), ("content " + i).getBytes());
+            RepositoryManager.commitAll(localGitPath, "user", "user@alien4cloud.org", "commit " + i);
+        }
+
+        List<SimpleGitHistoryEntry> firstPage = RepositoryManager.getHistory(localGitPath, null, 2);
+        assertThat(firstPage).extracting("commitMessage").containsExactly("commit 4", "commit 3");
+
+        List<SimpleGitHistoryEntry> secondPage = RepositoryManager.getHistory(localGitPath, firstPage.get(1).getId(), 2);
+        assertThat(secondPage).extracting("commitMessage").containsExactly("commit 2", "commit 1");
+        // paging from a commit returns the same entries than skipping from HEAD.
+        List<SimpleGitHistoryEntry> skippedPage = RepositoryManager.getHistory(localGitPath, 2, 2);
+        assertThat(secondPage.get(0).getId()).isEqualTo(skippedPage.get(0).getId());
+        assertThat(secondPage.get(1).getId()).isEqualTo(skippedPage.get(1).getId());
+    }
+
 }
\ No newline at end of file
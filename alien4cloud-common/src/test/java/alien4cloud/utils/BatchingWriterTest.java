@@ -0,0 +1,77 @@
+package alien4cloud.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class BatchingWriterTest {
+    private final List<List<Integer>> writtenBatches = Collections.synchronizedList(Lists.newArrayList());
+    private final List<Integer> unwritten = Collections.synchronizedList(Lists.newArrayList());
+
+    @Test
+    public void queuedElementsShouldBeWrittenByBatchesBeforeStop() throws InterruptedException {
+        BatchingWriter<Integer> writer = new BatchingWriter<>("test-writer", 100, 10, 50, writtenBatches::add, unwritten::addAll);
+        writer.start();
+        for (int i = 0; i < 95; i++) {
+            writer.put(i);
+        }
+        writer.stop(10000);
+
+        Assert.assertFalse(writer.isRunning());
+        Assert.assertTrue(unwritten.isEmpty());
+        List<Integer> written = Lists.newArrayList();
+        for (List<Integer> batch : writtenBatches) {
+            Assert.assertTrue(batch.size() <= 10);
+            written.addAll(batch);
+        }
+        Assert.assertEquals(95, written.size());
+        for (int i = 0; i < 95; i++) {
+            Assert.assertEquals(i, written.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void failedBatchesShouldBeGivenToTheUnwrittenHandler() throws InterruptedException {
+        BatchingWriter<Integer> writer = new BatchingWriter<>("test-writer", 100, 10, 0, batch -> {
+            throw new IllegalStateException("Write failure");
+        }, unwritten::addAll);
+        writer.start();
+        for (int i = 0; i < 25; i++) {
+            writer.put(i);
+        }
+        writer.stop(10000);
+
+        Assert.assertEquals(25, unwritten.size());
+    }
+
+    @Test
+    public void offerShouldBeRejectedWhenNotRunningOrFull() throws InterruptedException {
+        BatchingWriter<Integer> writer = new BatchingWriter<>("test-writer", 2, 10, 0, writtenBatches::add, unwritten::addAll);
+        Assert.assertFalse(writer.offer(1));
+
+        // the writer is blocked so the queue fills up
+        Object writeLock = new Object();
+        writer = new BatchingWriter<>("test-writer", 2, 1, 0, batch -> {
+            synchronized (writeLock) {
+                writtenBatches.add(batch);
+            }
+        }, unwritten::addAll);
+        synchronized (writeLock) {
+            writer.start();
+            int accepted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (writer.offer(i)) {
+                    accepted++;
+                }
+            }
+            // the queue capacity and at most the element being written by the writer thread.
+            Assert.assertTrue(accepted >= 2 && accepted <= 3);
+        }
+        writer.stop(10000);
+        Assert.assertTrue(unwritten.isEmpty());
+    }
+}
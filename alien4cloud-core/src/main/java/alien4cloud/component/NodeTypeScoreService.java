@@ -1,32 +1,70 @@
 package alien4cloud.component;
 
-import alien4cloud.dao.IGenericSearchDAO;
-import alien4cloud.dao.model.GetMultipleDataResult;
-import alien4cloud.utils.AlienConstants;
-import alien4cloud.utils.MapUtil;
-import alien4cloud.utils.version.Version;
-import com.google.common.collect.Maps;
-import lombok.extern.slf4j.Slf4j;
+import static alien4cloud.utils.AlienUtils.safe;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
 import org.alien4cloud.tosca.model.templates.Topology;
 import org.alien4cloud.tosca.model.types.NodeType;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.index.query.FilterBuilders;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.mapping.MappingBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.nested.Nested;
+import org.elasticsearch.search.aggregations.bucket.nested.ReverseNested;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.Resource;
-import java.util.Date;
-import java.util.Map;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
-import static alien4cloud.dao.FilterUtil.fromKeyValueCouples;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.utils.AlienConstants;
+import alien4cloud.utils.version.Version;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Updates the scoring of node types based on their usage, version and default capabilities.
+ *
+ * Usage counts and latest versions are computed through elasticsearch aggregations and scores that changed are written back using bulk partial updates.
+ * Between two full computations only the node types that may have been impacted since the last run (indexed archives and updated topologies) are scored
+ * again.
  */
 @Slf4j
 @Component
 public class NodeTypeScoreService implements Runnable {
+    private static final String USAGE_AGG = "types";
+    private static final String DEPENDENCIES_AGG = "dependencies";
+    private static final String DEPENDENCY_NAME_AGG = "names";
+    private static final String DEPENDENCY_VERSION_AGG = "versions";
+    private static final String TOPOLOGIES_AGG = "topologies";
+    private static final String ELEMENT_ID_AGG = "elementIds";
+    private static final String ARCHIVE_VERSION_AGG = "archiveVersions";
+    private static final String RAW_ELEMENT_ID = "rawElementId";
+    private static final int BULK_SIZE = 1000;
+
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienESDAO;
     @Resource(name = "node-type-score-scheduler")
@@ -42,6 +80,15 @@ public class NodeTypeScoreService implements Runnable {
     private long versionBoost;
     @Value("${components.search.boost.default}")
     private long defaultBoost;
+    /** Number of scheduled runs between two full computations, other runs only process the node types impacted by changes. 1 disables incremental runs. */
+    @Value("${components.search.boost.full_run_frequency:#{7}}")
+    private int fullRunFrequency = 7;
+
+    /** Element ids of the node types that must be scored again on next incremental run. */
+    private final Set<String> impactedElementIds = Sets.newConcurrentHashSet();
+    private volatile boolean fullRunRequired = true;
+    private Date lastRunDate;
+    private int runsSinceFullRun = 0;
 
     /** Refresh boost for all indexed node types in the system. */
     @PostConstruct
@@ -49,57 +96,220 @@ public class NodeTypeScoreService implements Runnable {
         long frequencyMs = frequencyH * 1000 * 60 * 60;
         Date date = new Date(System.currentTimeMillis() + frequencyMs);
         log.info("Type score is scheduled with {} ms frequency", frequencyMs);
-        scheduler.scheduleAtFixedRate(this, date, frequencyMs);
+        scheduler.scheduleAtFixedRate(this::runScheduled, date, frequencyMs);
         if (environment.acceptsProfiles("security-demo")) {
             scheduler.schedule(this, new Date());
         }
     }
 
+    @EventListener
+    public void handleArchiveIndexed(AfterArchiveIndexed event) {
+        impactedElementIds.addAll(safe(event.getArchiveRoot().getNodeTypes()).keySet());
+        if (event.getArchiveRoot().getTopology() != null) {
+            impactedElementIds.addAll(getNodeTemplateTypes(event.getArchiveRoot().getTopology()));
+        }
+    }
+
+    @EventListener
+    public void handleArchiveDeleted(BeforeArchiveDeleted event) {
+        // types of the archive and topologies that used them are gone, we can't know which type was the previous latest version.
+        fullRunRequired = true;
+    }
+
+    /**
+     * Scheduled run, performs a full computation every {@link #fullRunFrequency} runs and an incremental one otherwise.
+     */
+    public synchronized void runScheduled() {
+        if (fullRunRequired || lastRunDate == null || runsSinceFullRun + 1 >= fullRunFrequency) {
+            run();
+        } else {
+            runIncremental();
+        }
+    }
+
+    /**
+     * Compute the score of all node types.
+     */
     @Override
-    public void run() {
+    public synchronized void run() {
         log.info("Updating node type scores.");
-        // Go over all indexed node types.
-        GetMultipleDataResult<NodeType> getMultipleDataResult = alienESDAO.find(NodeType.class, null, 0, AlienConstants.DEFAULT_ES_SEARCH_SIZE);
-        int from = getMultipleDataResult.getTo() + 1;
-        processNodeTypes(getMultipleDataResult.getData());
-        while (getMultipleDataResult.getData().length > 0 && from < getMultipleDataResult.getTotalResults()) {
-            getMultipleDataResult = alienESDAO.find(NodeType.class, null, from, from + AlienConstants.DEFAULT_ES_SEARCH_SIZE);
-            from = getMultipleDataResult.getTo() + 1;
-            processNodeTypes(getMultipleDataResult.getData());
+        Date runDate = new Date();
+        fullRunRequired = false;
+        impactedElementIds.clear();
+        long updated = score(null);
+        lastRunDate = runDate;
+        runsSinceFullRun = 0;
+        log.info("Node type scores updated, {} scores changed.", updated);
+    }
+
+    /**
+     * Compute the score of the node types impacted by changes since the last run: types of the archives indexed and types used in topologies updated since
+     * then. Usage decrease caused by topology deletions is only reflected by full runs.
+     */
+    public synchronized void runIncremental() {
+        if (lastRunDate == null) {
+            run();
+            return;
+        }
+        Date runDate = new Date();
+        Set<String> elementIds = Sets.newHashSet(impactedElementIds);
+        impactedElementIds.removeAll(elementIds);
+        try (Stream<Topology> topologies = alienESDAO.stream(Topology.class, QueryBuilders.rangeQuery("lastUpdateDate").gte(lastRunDate.getTime()), null,
+                AlienConstants.DEFAULT_ES_SEARCH_SIZE)) {
+            topologies.forEach(topology -> elementIds.addAll(getNodeTemplateTypes(topology)));
+        }
+        if (!elementIds.isEmpty()) {
+            log.info("Updating scores of {} node types.", elementIds.size());
+            long updated = score(elementIds);
+            log.info("Node type scores updated, {} scores changed.", updated);
+        }
+        lastRunDate = runDate;
+        runsSinceFullRun++;
+    }
+
+    private Set<String> getNodeTemplateTypes(Topology topology) {
+        Set<String> types = Sets.newHashSet();
+        for (NodeTemplate nodeTemplate : safe(topology.getNodeTemplates()).values()) {
+            types.add(nodeTemplate.getType());
+        }
+        return types;
+    }
+
+    /**
+     * Compute and update the scores of node types.
+     *
+     * @param elementIds The element ids of the node types to score, null to score all node types.
+     * @return The number of node types which score has changed.
+     */
+    private long score(Collection<String> elementIds) {
+        Map<String, Map<String, Long>> usages = getUsages(elementIds);
+        Map<String, Version> latestVersions = getLatestVersions(elementIds);
+
+        String indexName = alienESDAO.getIndexForType(NodeType.class);
+        String typeName = MappingBuilder.indexTypeFromClass(NodeType.class);
+        QueryBuilder query = elementIds == null ? null : QueryBuilders.termsQuery(RAW_ELEMENT_ID, elementIds);
+        long updated = 0;
+        BulkRequestBuilder bulkRequestBuilder = alienESDAO.getClient().prepareBulk();
+        try (Stream<NodeType> nodeTypes = alienESDAO.stream(NodeType.class, query, null, AlienConstants.DEFAULT_ES_SEARCH_SIZE)) {
+            for (NodeType nodeType : (Iterable<NodeType>) nodeTypes::iterator) {
+                long score = computeScore(nodeType, usages, latestVersions);
+                if (score == nodeType.getAlienScore()) {
+                    continue;
+                }
+                bulkRequestBuilder.add(alienESDAO.getClient().prepareUpdate(indexName, typeName, nodeType.getId())
+                        .setDoc(Collections.singletonMap("alienScore", score)));
+                updated++;
+                if (bulkRequestBuilder.numberOfActions() >= BULK_SIZE) {
+                    executeBulk(bulkRequestBuilder);
+                    bulkRequestBuilder = alienESDAO.getClient().prepareBulk();
+                }
+            }
+        }
+        if (bulkRequestBuilder.numberOfActions() > 0) {
+            executeBulk(bulkRequestBuilder);
+        }
+        if (updated > 0) {
+            alienESDAO.getClient().admin().indices().prepareRefresh(indexName).execute().actionGet();
+        }
+        return updated;
+    }
+
+    private long computeScore(NodeType nodeType, Map<String, Map<String, Long>> usages, Map<String, Version> latestVersions) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing node score for type {}", nodeType.getId());
+        }
+        // count the applications that uses the node-type
+        Long usage = usages.getOrDefault(nodeType.getElementId(), Collections.emptyMap())
+                .get(Csar.createId(nodeType.getArchiveName(), nodeType.getArchiveVersion()));
+        long usageFactor = usage == null ? 0 : usageBoost * usage;
+        // get the version factor (latest version of a node is better than previous version, snapshot versions do not get boost)
+        Version latestVersion = latestVersions.get(nodeType.getElementId());
+        long versionFactor = latestVersion == null || new Version(nodeType.getArchiveVersion()).compareTo(latestVersion) >= 0 ? versionBoost : 0;
+        // default boost (boost node types that have a default capability)
+        long defaultFactor = nodeType.getDefaultCapabilities() == null || nodeType.getDefaultCapabilities().isEmpty() ? 0 : defaultBoost;
+        return usageFactor + defaultFactor + versionFactor;
+    }
+
+    private void executeBulk(BulkRequestBuilder bulkRequestBuilder) {
+        BulkResponse response = bulkRequestBuilder.execute().actionGet();
+        if (response.hasFailures()) {
+            log.warn("Failed to update some node type scores: {}", response.buildFailureMessage());
         }
     }
 
-    private void processNodeTypes(NodeType[] indexedNodeTypes) {
-        for (NodeType nodeType : indexedNodeTypes) {
-            if (log.isDebugEnabled()) {
-                log.debug("Processing node score for type {}", nodeType.getId());
+    /**
+     * Count the topologies that use every node type.
+     *
+     * @param elementIds The element ids of the types for which to count usages, null for all types.
+     * @return A map of node type element id to a map of archive id (see {@link Csar#createId(String, String)}) to the number of topologies that use the type
+     *         from this archive.
+     */
+    private Map<String, Map<String, Long>> getUsages(Collection<String> elementIds) {
+        // a topology uses a type if it has a node template of this type and depends on the archive that defines it.
+        SearchRequestBuilder searchRequestBuilder = prepareAggregation(Topology.class, elementIds == null ? null
+                : FilterBuilders.termsFilter("nodeTemplates.value.type", elementIds))
+                        .addAggregation(AggregationBuilders.terms(USAGE_AGG).field("nodeTemplates.value.type").size(0)
+                                .subAggregation(AggregationBuilders.nested(DEPENDENCIES_AGG).path("dependencies")
+                                        .subAggregation(AggregationBuilders.terms(DEPENDENCY_NAME_AGG).field("dependencies.name").size(0)
+                                                .subAggregation(AggregationBuilders.terms(DEPENDENCY_VERSION_AGG).field("dependencies.version").size(0)
+                                                        .subAggregation(AggregationBuilders.reverseNested(TOPOLOGIES_AGG))))));
+        Terms types = searchRequestBuilder.execute().actionGet().getAggregations().get(USAGE_AGG);
+
+        Map<String, Map<String, Long>> usages = Maps.newHashMap();
+        for (Terms.Bucket typeBucket : types.getBuckets()) {
+            if (elementIds != null && !elementIds.contains(typeBucket.getKey())) {
+                // other types used by the same topologies
+                continue;
+            }
+            Map<String, Long> archiveUsages = Maps.newHashMap();
+            Nested dependencies = typeBucket.getAggregations().get(DEPENDENCIES_AGG);
+            Terms names = dependencies.getAggregations().get(DEPENDENCY_NAME_AGG);
+            for (Terms.Bucket nameBucket : names.getBuckets()) {
+                Terms versions = nameBucket.getAggregations().get(DEPENDENCY_VERSION_AGG);
+                for (Terms.Bucket versionBucket : versions.getBuckets()) {
+                    ReverseNested topologies = versionBucket.getAggregations().get(TOPOLOGIES_AGG);
+                    archiveUsages.put(Csar.createId(nameBucket.getKey(), versionBucket.getKey()), topologies.getDocCount());
+                }
             }
-            Map<String, String[]> usedNodeFiler = Maps.newHashMap();
-            usedNodeFiler.put("nodeTemplates.value.type", new String[] { nodeType.getElementId() });
-            // count the applications that uses the node-type
-            long usageFactor = usageBoost * alienESDAO.buildQuery(Topology.class).setFilters(fromKeyValueCouples("nodeTemplates.value.type",
-                    nodeType.getElementId(), "dependencies.name", nodeType.getArchiveName(), "dependencies.version", nodeType.getArchiveVersion())).count();
-            // get the version factor (latest version of a node is better than previous version, snapshot versions do not get boost)
-            long versionFactor = isLatestVersion(nodeType) ? versionBoost : 0;
-            // default boost (boost node types that have a default capability)
-            long defaultFactor = nodeType.getDefaultCapabilities() == null || nodeType.getDefaultCapabilities().isEmpty() ? 0 : defaultBoost;
-            // update the score for the node type.
-            nodeType.setAlienScore(usageFactor + defaultFactor + versionFactor);
-            alienESDAO.save(nodeType);
+            usages.put(typeBucket.getKey(), archiveUsages);
         }
+        return usages;
     }
 
-    private boolean isLatestVersion(NodeType nodeType) {
-        Map<String, String[]> filters = MapUtil.newHashMap(new String[] { "elementId" }, new String[][] { new String[] { nodeType.getElementId() } });
-        // TODO get a single element and order by version.
-        Version nodeVersion = new Version(((NodeType) nodeType).getArchiveVersion());
+    /**
+     * Get the latest version of every node type.
+     *
+     * @param elementIds The element ids of the types for which to get the latest version, null for all types.
+     * @return A map of node type element id to the latest version of the type.
+     */
+    private Map<String, Version> getLatestVersions(Collection<String> elementIds) {
+        SearchRequestBuilder searchRequestBuilder = prepareAggregation(NodeType.class,
+                elementIds == null ? null : FilterBuilders.termsFilter(RAW_ELEMENT_ID, elementIds)).addAggregation(AggregationBuilders
+                        .terms(ELEMENT_ID_AGG).field(RAW_ELEMENT_ID).size(0)
+                        .subAggregation(AggregationBuilders.terms(ARCHIVE_VERSION_AGG).field("archiveVersion").size(0)));
+        Terms types = searchRequestBuilder.execute().actionGet().getAggregations().get(ELEMENT_ID_AGG);
 
-        for (Object otherVersionNodeType : alienESDAO.find(NodeType.class, filters, AlienConstants.DEFAULT_ES_SEARCH_SIZE).getData()) {
-            Version otherVersion = new Version(((NodeType) otherVersionNodeType).getArchiveVersion());
-            if (nodeVersion.compareTo(otherVersion) < 0) {
-                return false;
+        Map<String, Version> latestVersions = Maps.newHashMap();
+        for (Terms.Bucket typeBucket : types.getBuckets()) {
+            Terms versions = typeBucket.getAggregations().get(ARCHIVE_VERSION_AGG);
+            Version latestVersion = null;
+            for (Terms.Bucket versionBucket : versions.getBuckets()) {
+                Version version = new Version(versionBucket.getKey());
+                if (latestVersion == null || latestVersion.compareTo(version) < 0) {
+                    latestVersion = version;
+                }
             }
+            latestVersions.put(typeBucket.getKey(), latestVersion);
+        }
+        return latestVersions;
+    }
+
+    private SearchRequestBuilder prepareAggregation(Class<?> clazz, FilterBuilder filter) {
+        SearchRequestBuilder searchRequestBuilder = alienESDAO.getClient().prepareSearch(alienESDAO.getIndexForType(clazz))
+                .setTypes(MappingBuilder.indexTypeFromClass(clazz)).setSearchType(SearchType.COUNT);
+        if (filter != null) {
+            searchRequestBuilder.setQuery(QueryBuilders.filteredQuery(QueryBuilders.matchAllQuery(), filter));
         }
-        return true;
+        return searchRequestBuilder;
     }
 }
@@ -1,32 +1,80 @@
 package alien4cloud.deployment;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
 
-import lombok.SneakyThrows;
+import alien4cloud.deployment.exceptions.DeploymentLockTimeoutException;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class DeploymentLockService {
+    /** Maximum number of deployments for which contention is reported. */
+    private static final int MAX_CONTENDED_DEPLOYMENTS = 1000;
+
+    /** Maximum time a read waits for a deployment lock before failing the request, writes wait until they get the lock. */
+    @Setter
+    @Value("${deployment.lock.timeout_seconds:#{300}}")
+    private long lockTimeoutSeconds = 300;
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     /**
-     * This means that if a plugin deploy and then hold the lock more than 1 day, access to the deployment will not be protected anymore
-     * as the new thread which arrive will take a new lock (old lock entry has expired). But a good plugin should not hold a thread for 1 day, the bad ones will
-     * consume all the thread pool of the system.
+     * A lock per deployment, a lock is referenced by the threads that hold it or wait for it so it cannot be collected while in use and unused locks are
+     * released by the garbage collector.
      */
-    private LoadingCache<String, ReadWriteLock> lockMap = CacheBuilder.newBuilder().expireAfterAccess(1, TimeUnit.DAYS)
+    private final LoadingCache<String, ReadWriteLock> locks = CacheBuilder.newBuilder().weakValues()
             .build(CacheLoader.from(input -> new ReentrantReadWriteLock()));
+    /** Number of times a thread had to wait for the lock of a deployment. */
+    private final Cache<String, AtomicLong> contentionByDeployment = CacheBuilder.newBuilder().maximumSize(MAX_CONTENDED_DEPLOYMENTS)
+            .expireAfterAccess(1, TimeUnit.DAYS).build();
+
+    private Timer readWaitTimer;
+    private Timer writeWaitTimer;
+    private Timer readHoldTimer;
+    private Timer writeHoldTimer;
+    private Meter contentions;
+    private Meter timeouts;
 
     public interface ActionWithLock<T> {
         T doAction();
     }
 
+    @PostConstruct
+    public void init() {
+        String prefix = MetricRegistry.name(DeploymentLockService.class);
+        readWaitTimer = metricRegistry.timer(MetricRegistry.name(prefix, "read", "wait"));
+        writeWaitTimer = metricRegistry.timer(MetricRegistry.name(prefix, "write", "wait"));
+        readHoldTimer = metricRegistry.timer(MetricRegistry.name(prefix, "read", "hold"));
+        writeHoldTimer = metricRegistry.timer(MetricRegistry.name(prefix, "write", "hold"));
+        contentions = metricRegistry.meter(MetricRegistry.name(prefix, "contentions"));
+        timeouts = metricRegistry.meter(MetricRegistry.name(prefix, "timeouts"));
+        String contentionGaugeName = MetricRegistry.name(prefix, "contentions-by-deployment");
+        metricRegistry.remove(contentionGaugeName);
+        metricRegistry.register(contentionGaugeName, (Gauge<Map<String, Long>>) this::getContentionByDeployment);
+    }
+
     /**
      * Obtain a write lock on the given deployment and then do action, release the write lock at the end
      * 
@@ -35,14 +83,8 @@ public class DeploymentLockService {
      * @param <T> the return type of the action
      * @return the result of the action
      */
-    @SneakyThrows
     public <T> T doWithDeploymentWriteLock(String deploymentId, ActionWithLock<T> runnable) {
-        try {
-            lockMap.get(deploymentId).writeLock().lock();
-            return runnable.doAction();
-        } finally {
-            lockMap.get(deploymentId).writeLock().unlock();
-        }
+        return doWithLock(deploymentId, locks.getUnchecked(deploymentId), true, writeWaitTimer, writeHoldTimer, runnable);
     }
 
     /**
@@ -53,13 +95,64 @@ public class DeploymentLockService {
      * @param <T> the return type of the action
      * @return the result of the action
      */
-    @SneakyThrows
     public <T> T doWithDeploymentReadLock(String deploymentId, ActionWithLock<T> runnable) {
+        return doWithLock(deploymentId, locks.getUnchecked(deploymentId), false, readWaitTimer, readHoldTimer, runnable);
+    }
+
+    /**
+     * Get the number of times threads had to wait for the lock of the most recently contended deployments.
+     *
+     * @return A map of deployment id to number of contentions.
+     */
+    public Map<String, Long> getContentionByDeployment() {
+        Map<String, Long> contentionCounts = Maps.newHashMap();
+        contentionByDeployment.asMap().forEach((deploymentId, count) -> contentionCounts.put(deploymentId, count.get()));
+        return contentionCounts;
+    }
+
+    private <T> T doWithLock(String deploymentId, ReadWriteLock readWriteLock, boolean write, Timer waitTimer, Timer holdTimer, ActionWithLock<T> runnable) {
+        // the lock instance is kept so we always release the lock we acquired, it also keeps the lock strongly referenced until it is released.
+        acquire(deploymentId, write ? readWriteLock.writeLock() : readWriteLock.readLock(), !write, waitTimer);
+        Timer.Context holdContext = holdTimer.time();
         try {
-            lockMap.get(deploymentId).readLock().lock();
             return runnable.doAction();
         } finally {
-            lockMap.get(deploymentId).readLock().unlock();
+            (write ? readWriteLock.writeLock() : readWriteLock.readLock()).unlock();
+            holdContext.stop();
+        }
+    }
+
+    private void acquire(String deploymentId, Lock lock, boolean timeout, Timer waitTimer) {
+        if (lock.tryLock()) {
+            waitTimer.update(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        contentions.mark();
+        try {
+            contentionByDeployment.get(deploymentId, AtomicLong::new).incrementAndGet();
+        } catch (Exception e) {
+            // AtomicLong creation cannot fail
+        }
+        long start = System.nanoTime();
+        if (!timeout) {
+            // writes change the deployment, failing them after a timeout would leave the deployment half updated from the user point of view.
+            lock.lock();
+            waitTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(lockTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentLockTimeoutException("Interrupted while waiting for the lock of deployment <" + deploymentId + ">");
+        }
+        waitTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeouts.mark();
+            log.warn("Failed to acquire the lock of deployment <{}> in {} seconds", deploymentId, lockTimeoutSeconds);
+            throw new DeploymentLockTimeoutException(
+                    "The deployment <" + deploymentId + "> is locked by another operation, could not get the lock in " + lockTimeoutSeconds + " seconds.");
         }
     }
 }
@@ -1,30 +1,115 @@
 package alien4cloud.deployment;
 
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
 import alien4cloud.paas.model.PaaSDeploymentLog;
-import groovy.util.logging.Log4j;
+import alien4cloud.utils.BatchingWriter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service is used by some premium plugins for archive the deployments logs.
+ *
+ * Logs are queued in a bounded {@link BatchingWriter} and bulk indexed when a batch is full or when the flush interval is reached, so producers
+ * (orchestrator plugins) never wait for elasticsearch. When the queue is full the configured {@link OverflowPolicy} applies.
  */
-@Log4j
+@Slf4j
 @Service
 public class DeploymentLoggingService {
+    private static final String METRICS_PREFIX = MetricRegistry.name(DeploymentLoggingService.class);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    /** Behavior when a log is saved while the queue is full. */
+    public enum OverflowPolicy {
+        /** The log is not indexed. */
+        DROP,
+        /** The log is indexed synchronously by the thread that saves it, the producer is slowed down to the elasticsearch indexing rate. */
+        SYNCHRONOUS
+    }
+
+    @Setter
     @Resource(name = "alien-monitor-es-dao")
     private IGenericSearchDAO alienMonitorDao;
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     @Value("${logs_deployment_appender.enable}")
     private boolean isEnabled;
+    /** When false logs are indexed synchronously by the caller. */
+    @Setter
+    @Value("${logs_deployment_appender.queue.enabled:#{true}}")
+    private boolean queueEnabled = true;
+    @Setter
+    @Value("${logs_deployment_appender.queue.capacity:#{10000}}")
+    private int queueCapacity = 10000;
+    @Setter
+    @Value("${logs_deployment_appender.queue.batch_size:#{500}}")
+    private int batchSize = 500;
+    @Setter
+    @Value("${logs_deployment_appender.queue.flush_interval_ms:#{500}}")
+    private long flushIntervalMs = 500;
+    @Setter
+    @Value("${logs_deployment_appender.queue.overflow_policy:SYNCHRONOUS}")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SYNCHRONOUS;
 
     private final Logger deployments_logger = LogManager.getLogger("DEPLOYMENT_LOGS_LOGGER");
 
+    private BatchingWriter<PaaSDeploymentLog> writer;
+
+    private Timer flushTimer;
+    private Histogram batchSizes;
+    private Meter droppedLogs;
+    private Meter synchronousLogs;
+    private Meter unwrittenLogs;
+
+    @PostConstruct
+    public void init() {
+        flushTimer = metricRegistry.timer(MetricRegistry.name(METRICS_PREFIX, "flush"));
+        batchSizes = metricRegistry.histogram(MetricRegistry.name(METRICS_PREFIX, "batch-size"));
+        droppedLogs = metricRegistry.meter(MetricRegistry.name(METRICS_PREFIX, "dropped"));
+        synchronousLogs = metricRegistry.meter(MetricRegistry.name(METRICS_PREFIX, "synchronous"));
+        unwrittenLogs = metricRegistry.meter(MetricRegistry.name(METRICS_PREFIX, "unwritten"));
+        if (!queueEnabled) {
+            return;
+        }
+        writer = new BatchingWriter<>("deployment-logs-writer", queueCapacity, batchSize, flushIntervalMs, this::flush,
+                unwritten -> unwrittenLogs.mark(unwritten.size()));
+        String queueSizeName = MetricRegistry.name(METRICS_PREFIX, "queue-size");
+        metricRegistry.remove(queueSizeName);
+        metricRegistry.register(queueSizeName, (Gauge<Integer>) writer::size);
+        writer.start();
+        log.info("Deployment logs are indexed in batches of {} logs at most every {} ms, queue capacity is {} with {} overflow policy.", batchSize,
+                flushIntervalMs, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * Stop the writer, logs still in the queue are indexed before the method returns.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (writer != null) {
+            writer.stop(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
     private void logToFile(PaaSDeploymentLog deploymentLog) {
         switch (deploymentLog.getLevel()) {
             case DEBUG:
@@ -42,17 +127,17 @@ public class DeploymentLoggingService {
         }
     }
 
-    public synchronized void save(final PaaSDeploymentLog deploymentLog) {
+    public void save(final PaaSDeploymentLog deploymentLog) {
         try {
             if (isEnabled) {
                 logToFile(deploymentLog);
             }
         } finally {
-            alienMonitorDao.save(deploymentLog);
+            enqueue(deploymentLog);
         }
     }
 
-    public synchronized void save(final PaaSDeploymentLog[] deploymentLogs) {
+    public void save(final PaaSDeploymentLog[] deploymentLogs) {
         try {
             if (isEnabled) {
                 for (PaaSDeploymentLog deploymentLog : deploymentLogs) {
@@ -60,8 +145,40 @@ public class DeploymentLoggingService {
                 }
             }
         } finally {
-            alienMonitorDao.save(deploymentLogs);
+            if (writer != null && writer.isRunning()) {
+                for (PaaSDeploymentLog deploymentLog : deploymentLogs) {
+                    enqueue(deploymentLog);
+                }
+            } else {
+                alienMonitorDao.save(deploymentLogs);
+            }
         }
     }
 
-}
\ No newline at end of file
+    private void enqueue(PaaSDeploymentLog deploymentLog) {
+        if (writer == null || !writer.isRunning()) {
+            alienMonitorDao.save(deploymentLog);
+            return;
+        }
+        if (writer.offer(deploymentLog)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP:
+                droppedLogs.mark();
+                log.debug("Deployment logs queue is full, log of deployment {} is dropped.", deploymentLog.getDeploymentId());
+                break;
+            case SYNCHRONOUS:
+                synchronousLogs.mark();
+                alienMonitorDao.save(deploymentLog, WriteConsistency.NEAR_REAL_TIME);
+                break;
+        }
+    }
+
+    private void flush(List<PaaSDeploymentLog> batch) {
+        batchSizes.update(batch.size());
+        try (Timer.Context ignored = flushTimer.time()) {
+            alienMonitorDao.save(batch.toArray(new PaaSDeploymentLog[batch.size()]), WriteConsistency.NEAR_REAL_TIME);
+        }
+    }
+}
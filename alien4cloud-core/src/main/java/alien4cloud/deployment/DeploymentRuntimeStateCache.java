@@ -0,0 +1,268 @@
+package alien4cloud.deployment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import alien4cloud.events.DeploymentUndeployedEvent;
+import alien4cloud.paas.IPaaSCallback;
+import alien4cloud.paas.IPaasEventListener;
+import alien4cloud.paas.IPaasEventService;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.DeploymentStatus;
+import alien4cloud.paas.model.InstanceInformation;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+import alien4cloud.paas.model.PaaSInstanceStateMonitorEvent;
+import lombok.Setter;
+
+/**
+ * In-memory view of the runtime state (status and instances information) of the deployments.
+ *
+ * The state of a deployment is loaded from the orchestrator on first access and then kept up to date by the monitor events. It is reconciled with the
+ * orchestrator when it has not been loaded for more than the configured maximum age, so events lost or not sent by an orchestrator are eventually fixed.
+ * Cached instances information maps are never modified, events replace them with updated copies so they can be served to several readers.
+ */
+@Service
+public class DeploymentRuntimeStateCache implements IPaasEventListener<AbstractMonitorEvent> {
+    /** Maximum time in milliseconds the runtime state of a deployment is served without being reconciled with the orchestrator. */
+    @Setter
+    @Value("${deployment.runtime_state_cache.max_age_ms:#{60000}}")
+    private long maxAgeMs = 60000;
+    /** Maximum number of deployments for which the runtime state is kept in memory. */
+    @Value("${deployment.runtime_state_cache.max_size:#{10000}}")
+    private long maxSize = 10000;
+    /** Runtime state of deployments not accessed for this duration is evicted. */
+    @Value("${deployment.runtime_state_cache.expire_after_access_minutes:#{60}}")
+    private long expireAfterAccessMinutes = 60;
+    @Resource
+    private IPaasEventService paasEventService;
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
+
+    private Cache<String, RuntimeState> runtimeStates;
+    private Meter hits;
+    private Meter misses;
+
+    @PostConstruct
+    public void init() {
+        runtimeStates = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES).build();
+        String prefix = MetricRegistry.name(DeploymentRuntimeStateCache.class);
+        hits = metricRegistry.meter(MetricRegistry.name(prefix, "hits"));
+        misses = metricRegistry.meter(MetricRegistry.name(prefix, "misses"));
+        String sizeGaugeName = MetricRegistry.name(prefix, "size");
+        metricRegistry.remove(sizeGaugeName);
+        metricRegistry.register(sizeGaugeName, (Gauge<Long>) runtimeStates::size);
+        if (paasEventService != null) {
+            paasEventService.addListener(this);
+        }
+    }
+
+    /**
+     * Get the status of a deployment from memory or from the orchestrator if unknown or outdated.
+     *
+     * @param deploymentId The id of the deployment.
+     * @param callback The callback to which to send the status.
+     * @param loader Query the orchestrator for the status of the deployment.
+     */
+    public void getDeploymentStatus(String deploymentId, IPaaSCallback<DeploymentStatus> callback, Consumer<IPaaSCallback<DeploymentStatus>> loader) {
+        get(getRuntimeState(deploymentId).status, callback, loader);
+    }
+
+    /**
+     * Get the instances information of a deployment from memory or from the orchestrator if unknown or outdated.
+     *
+     * @param deploymentId The id of the deployment.
+     * @param callback The callback to which to send the map of node template's id to map of instance's id to instance information. The map must not be
+     *            modified.
+     * @param loader Query the orchestrator for the instances information of the deployment.
+     */
+    public void getInstancesInformation(String deploymentId, IPaaSCallback<Map<String, Map<String, InstanceInformation>>> callback,
+            Consumer<IPaaSCallback<Map<String, Map<String, InstanceInformation>>>> loader) {
+        get(getRuntimeState(deploymentId).instances, callback, loader);
+    }
+
+    /**
+     * Remove the runtime state of a deployment from memory, it will be loaded from the orchestrator on next access.
+     *
+     * @param deploymentId The id of the deployment.
+     */
+    public void invalidate(String deploymentId) {
+        runtimeStates.invalidate(deploymentId);
+    }
+
+    @EventListener
+    public void onDeploymentUndeployed(DeploymentUndeployedEvent event) {
+        invalidate(event.getDeploymentId());
+    }
+
+    private RuntimeState getRuntimeState(String deploymentId) {
+        return runtimeStates.asMap().computeIfAbsent(deploymentId, key -> new RuntimeState());
+    }
+
+    private <V> void get(CachedValue<V> cachedValue, IPaaSCallback<V> callback, Consumer<IPaaSCallback<V>> loader) {
+        V value = null;
+        long version = 0;
+        synchronized (cachedValue) {
+            if (cachedValue.value != null && System.currentTimeMillis() - cachedValue.reconciliationDate < maxAgeMs) {
+                value = cachedValue.value;
+            } else if (cachedValue.pendingCallbacks != null) {
+                // a query to the orchestrator is already in progress, just wait for its result.
+                cachedValue.pendingCallbacks.add(callback);
+                return;
+            } else {
+                cachedValue.pendingCallbacks = Lists.newArrayList(callback);
+                version = cachedValue.version;
+            }
+        }
+        if (value != null) {
+            hits.mark();
+            callback.onSuccess(value);
+            return;
+        }
+        misses.mark();
+        final long loadingVersion = version;
+        try {
+            loader.accept(new IPaaSCallback<V>() {
+                @Override
+                public void onSuccess(V data) {
+                    for (IPaaSCallback<V> pendingCallback : cachedValue.loaded(data, loadingVersion)) {
+                        pendingCallback.onSuccess(data);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    for (IPaaSCallback<V> pendingCallback : cachedValue.loaded(null, loadingVersion)) {
+                        pendingCallback.onFailure(throwable);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // the error is thrown to the caller, other callers waiting for the same query are notified of the failure.
+            for (IPaaSCallback<V> pendingCallback : cachedValue.loaded(null, loadingVersion)) {
+                if (pendingCallback != callback) {
+                    pendingCallback.onFailure(e);
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void eventHappened(AbstractMonitorEvent event) {
+        if (event instanceof PaaSDeploymentStatusMonitorEvent) {
+            DeploymentStatus deploymentStatus = ((PaaSDeploymentStatusMonitorEvent) event).getDeploymentStatus();
+            RuntimeState runtimeState = getRuntimeState(event.getDeploymentId());
+            // the status event is the full status of the deployment, no need to query the orchestrator.
+            runtimeState.status.update(status -> deploymentStatus, true);
+            if (DeploymentStatus.UNDEPLOYED.equals(deploymentStatus)) {
+                runtimeState.instances.update(instances -> Maps.newHashMap(), false);
+            }
+        } else {
+            RuntimeState runtimeState = runtimeStates.getIfPresent(event.getDeploymentId());
+            if (runtimeState != null) {
+                runtimeState.instances.update(instances -> applyInstanceEvent(instances, (PaaSInstanceStateMonitorEvent) event), false);
+            }
+        }
+    }
+
+    private Map<String, Map<String, InstanceInformation>> applyInstanceEvent(Map<String, Map<String, InstanceInformation>> instances,
+            PaaSInstanceStateMonitorEvent event) {
+        if (instances == null) {
+            // the instances have not been loaded from the orchestrator yet, an event cannot provide the full view.
+            return null;
+        }
+        Map<String, Map<String, InstanceInformation>> updatedInstances = Maps.newHashMap(instances);
+        Map<String, InstanceInformation> nodeInstances = instances.get(event.getNodeTemplateId());
+        Map<String, InstanceInformation> updatedNodeInstances = nodeInstances == null ? Maps.newHashMap() : Maps.newHashMap(nodeInstances);
+        if (event.getInstanceState() == null) {
+            // an event without state is sent when an instance is removed.
+            updatedNodeInstances.remove(event.getInstanceId());
+        } else {
+            InstanceInformation previous = updatedNodeInstances.get(event.getInstanceId());
+            InstanceInformation instanceInformation = new InstanceInformation();
+            instanceInformation.setState(event.getInstanceState());
+            instanceInformation.setInstanceStatus(event.getInstanceStatus());
+            instanceInformation.setAttributes(event.getAttributes());
+            instanceInformation.setRuntimeProperties(event.getRuntimeProperties());
+            instanceInformation.setOperationsOutputs(previous == null ? null : previous.getOperationsOutputs());
+            updatedNodeInstances.put(event.getInstanceId(), instanceInformation);
+        }
+        if (updatedNodeInstances.isEmpty()) {
+            updatedInstances.remove(event.getNodeTemplateId());
+        } else {
+            updatedInstances.put(event.getNodeTemplateId(), updatedNodeInstances);
+        }
+        return updatedInstances;
+    }
+
+    @Override
+    public boolean canHandle(AbstractMonitorEvent event) {
+        return event.getDeploymentId() != null && (event instanceof PaaSDeploymentStatusMonitorEvent || event instanceof PaaSInstanceStateMonitorEvent);
+    }
+
+    /**
+     * Runtime state of a deployment.
+     */
+    private static class RuntimeState {
+        private final CachedValue<DeploymentStatus> status = new CachedValue<>();
+        private final CachedValue<Map<String, Map<String, InstanceInformation>>> instances = new CachedValue<>();
+    }
+
+    /**
+     * A value loaded from the orchestrator and updated by events.
+     */
+    private static class CachedValue<V> {
+        private V value;
+        /** Last time the value was known to be in sync with the orchestrator. */
+        private long reconciliationDate;
+        /** Incremented on every event so a load can detect events received while querying the orchestrator. */
+        private long version;
+        /** Callbacks waiting for the query in progress to the orchestrator, null if no query is in progress. */
+        private List<IPaaSCallback<V>> pendingCallbacks;
+
+        private synchronized void update(UnaryOperator<V> updater, boolean reconciled) {
+            value = updater.apply(value);
+            version++;
+            if (reconciled) {
+                reconciliationDate = System.currentTimeMillis();
+            }
+        }
+
+        /**
+         * Complete the query to the orchestrator.
+         *
+         * @param data The value returned by the orchestrator or null if the query failed.
+         * @param loadingVersion The version of the value when the query started.
+         * @return The callbacks waiting for the query.
+         */
+        private synchronized List<IPaaSCallback<V>> loaded(V data, long loadingVersion) {
+            // the returned value may be older than the events received while querying, keep the events result and reconcile again later.
+            if (data != null && version == loadingVersion) {
+                value = data;
+                reconciliationDate = System.currentTimeMillis();
+            }
+            List<IPaaSCallback<V>> callbacks = pendingCallbacks;
+            pendingCallbacks = null;
+            return callbacks == null ? Lists.newArrayList() : callbacks;
+        }
+    }
+}
@@ -41,6 +41,8 @@ public class DeploymentRuntimeStateService {
     private DeploymentTopologyService deploymentTopologyService;
     @Inject
     private DeploymentLockService deploymentLockService;
+    @Inject
+    private DeploymentRuntimeStateCache runtimeStateCache;
 
     /**
      * Get the deployed (runtime) topology of an application from the environment id
@@ -111,55 +113,50 @@ public class DeploymentRuntimeStateService {
     /**
      * Get the current deployment status for a topology.
      *
+     * The status is served from memory, the orchestrator is queried only if the status of the deployment is unknown or outdated.
+     *
      * @param deployment deployment for which we want the status.
      * @param callback that will be called when status is available
      * @return The status of the topology.
      * @throws alien4cloud.paas.exception.OrchestratorDisabledException In case the cloud selected for the topology is disabled.
      */
     public void getDeploymentStatus(final Deployment deployment, final IPaaSCallback<DeploymentStatus> callback) throws OrchestratorDisabledException {
-        deploymentLockService.doWithDeploymentReadLock(deployment.getOrchestratorDeploymentId(), () -> {
-            if (deployment == null) {
-                callback.onSuccess(DeploymentStatus.UNDEPLOYED);
-                return null;
-            }
-            IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
-
-            PaaSDeploymentContext deploymentContext = new PaaSDeploymentContext(deployment, getRuntimeTopology(deployment.getId()), null);
-            IPaaSCallback<DeploymentStatus> esCallback = new IPaaSCallback<DeploymentStatus>() {
-                @Override
-                public void onSuccess(DeploymentStatus data) {
-                    callback.onSuccess(data);
-                }
-
-                @Override
-                public void onFailure(Throwable throwable) {
-                    callback.onFailure(throwable);
-                }
-            };
-            orchestratorPlugin.getStatus(deploymentContext, esCallback);
-            return null;
-        });
+        if (deployment == null) {
+            callback.onSuccess(DeploymentStatus.UNDEPLOYED);
+            return;
+        }
+        IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
+        runtimeStateCache.getDeploymentStatus(deployment.getId(), callback,
+                loaderCallback -> deploymentLockService.doWithDeploymentReadLock(deployment.getOrchestratorDeploymentId(), () -> {
+                    PaaSDeploymentContext deploymentContext = new PaaSDeploymentContext(deployment, getRuntimeTopology(deployment.getId()), null);
+                    orchestratorPlugin.getStatus(deploymentContext, loaderCallback);
+                    return null;
+                }));
     }
 
     /**
      * Get the detailed status for each instance of each node template.
      *
+     * The instances information are served from memory, the orchestrator is queried only if the instances of the deployment are unknown or outdated.
+     *
      * @param deployment The deployment for witch to get the instance informations.
-     * @param callback callback on witch to send the map of node template's id to map of instance's id to instance information.
+     * @param callback callback on witch to send the map of node template's id to map of instance's id to instance information, the map must not be
+     *            modified.
      * @throws alien4cloud.paas.exception.OrchestratorDisabledException In case the cloud selected for the topology is disabled.
      */
     public void getInstancesInformation(final Deployment deployment, IPaaSCallback<Map<String, Map<String, InstanceInformation>>> callback)
             throws OrchestratorDisabledException {
-        Map<String, Map<String, InstanceInformation>> instancesInformation = Maps.newHashMap();
         if (deployment == null) {
-            callback.onSuccess(instancesInformation);
+            callback.onSuccess(Maps.newHashMap());
             return;
         }
-        DeploymentTopology runtimeTopology = alienMonitorDao.findById(DeploymentTopology.class, deployment.getId());
-        PaaSTopologyDeploymentContext deploymentContext = deploymentContextService.buildTopologyDeploymentContext(null, deployment,
-                deploymentTopologyService.getLocations(runtimeTopology), runtimeTopology);
         IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
-        orchestratorPlugin.getInstancesInformation(deploymentContext, callback);
+        runtimeStateCache.getInstancesInformation(deployment.getId(), callback, loaderCallback -> {
+            DeploymentTopology runtimeTopology = alienMonitorDao.findById(DeploymentTopology.class, deployment.getId());
+            PaaSTopologyDeploymentContext deploymentContext = deploymentContextService.buildTopologyDeploymentContext(null, deployment,
+                    deploymentTopologyService.getLocations(runtimeTopology), runtimeTopology);
+            orchestratorPlugin.getInstancesInformation(deploymentContext, loaderCallback);
+        });
     }
 
     /**
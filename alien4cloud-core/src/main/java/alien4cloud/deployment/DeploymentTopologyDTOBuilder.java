@@ -73,6 +73,13 @@ public class DeploymentTopologyDTOBuilder implements IDeploymentTopologyBuilder
         return build(executionContext);
     }
 
+    @Override
+    @ToscaContextual
+    public DeploymentTopologyDTO getDeploymentTopology(Topology topology, Application application, ApplicationEnvironment environment) {
+        FlowExecutionContext executionContext = flowExecutor.getDeploymentFlow(topology, application, environment);
+        return build(executionContext);
+    }
+
     @Override
     @ToscaContextual
     public DeploymentTopologyDTO prepareDeployment(Topology topology, Application application, ApplicationEnvironment environment,
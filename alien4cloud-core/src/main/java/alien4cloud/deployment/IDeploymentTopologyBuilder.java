@@ -23,6 +23,18 @@ public interface IDeploymentTopologyBuilder {
      */
     DeploymentTopologyDTO prepareDeployment(Topology topology, Application application, ApplicationEnvironment environment);
 
+    /**
+     * Create a deployment topology DTO for display purpose, the result of a previous deployment flow execution may be reused if nothing changed since then.
+     *
+     * The returned DTO must not be used to perform a deployment.
+     *
+     * @param topology The topology on which to execute the deployment flow to build the deployment topology DTO.
+     * @param application The application that holds the topology.
+     * @param environment The environment related to the deployment configuration.
+     * @return A Deployment Topology DTO.
+     */
+    DeploymentTopologyDTO getDeploymentTopology(Topology topology, Application application, ApplicationEnvironment environment);
+
     /**
      * Create a deployment topology DTO after the execution of the deployment flow on the given topology.
      *
@@ -0,0 +1,13 @@
+package alien4cloud.deployment.exceptions;
+
+import alien4cloud.exception.TechnicalException;
+
+/**
+ * Thrown when the lock of a deployment could not be acquired in time, usually because an orchestrator call on the deployment is still in progress.
+ */
+public class DeploymentLockTimeoutException extends TechnicalException {
+
+    public DeploymentLockTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,8 @@ package alien4cloud.deployment.matching.plugins;
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.collect.Maps;
+
 import org.alien4cloud.tosca.model.types.NodeType;
 import alien4cloud.model.deployment.matching.MatchingConfiguration;
 import alien4cloud.model.orchestrators.locations.LocationResourceTemplate;
@@ -15,4 +17,23 @@ import org.alien4cloud.tosca.model.templates.NodeTemplate;
 public interface INodeMatcherPlugin {
     List<LocationResourceTemplate> matchNode(NodeTemplate nodeTemplate, NodeType nodeType, LocationResources locationResources,
                                              Map<String, MatchingConfiguration> matchingConfigurations);
+
+    /**
+     * Match many nodes against the same location resources.
+     *
+     * @param nodeTemplates The node templates to match by id.
+     * @param nodeTypes The node types of the node templates by type name.
+     * @param locationResources The resources configured for the location against which we are matching the nodes.
+     * @param matchingConfigurations The matching configurations of the location.
+     * @return The matching location resources by node template id.
+     */
+    default Map<String, List<LocationResourceTemplate>> matchNodes(Map<String, NodeTemplate> nodeTemplates, Map<String, NodeType> nodeTypes,
+            LocationResources locationResources, Map<String, MatchingConfiguration> matchingConfigurations) {
+        Map<String, List<LocationResourceTemplate>> matchingResult = Maps.newHashMap();
+        for (Map.Entry<String, NodeTemplate> nodeTemplateEntry : nodeTemplates.entrySet()) {
+            matchingResult.put(nodeTemplateEntry.getKey(), matchNode(nodeTemplateEntry.getValue(), nodeTypes.get(nodeTemplateEntry.getValue().getType()),
+                    locationResources, matchingConfigurations));
+        }
+        return matchingResult;
+    }
 }
\ No newline at end of file
@@ -55,6 +55,46 @@ public abstract class AbstractTemplateMatcher<R extends AbstractLocationResource
         return matchingResults;
     }
 
+    /**
+     * Build an index of the candidates to match many templates against the same candidates.
+     *
+     * @param candidates The candidate location resources.
+     * @param candidateTypes The types of the candidates.
+     * @param matchingConfigurations The matching configurations of the location.
+     * @return An index to be used with {@link #match(AbstractTemplate, AbstractInheritableToscaType, TemplateMatchingIndex, LocationResources, Map)}, it must
+     *         be built again when candidates or matching configurations are changed.
+     */
+    public TemplateMatchingIndex<R, T> buildIndex(List<R> candidates, Map<String, T> candidateTypes,
+            Map<String, MatchingConfiguration> matchingConfigurations) {
+        return new TemplateMatchingIndex<>(candidates, candidateTypes,
+                candidateType -> getMatchingConfiguration(candidateType, safe(matchingConfigurations)));
+    }
+
+    /**
+     * Match a template against indexed candidates, results are the same as
+     * {@link #match(AbstractTemplate, AbstractInheritableToscaType, List, Map, LocationResources, Map)} but only candidates of the template type and that
+     * are not excluded by an equal property constraint are validated.
+     *
+     * @param abstractTemplate The template to match.
+     * @param type The type of the template to match.
+     * @param index The index of the candidates built with the given matching configurations.
+     * @param locationResources The global location resource object that contains all location resources and types.
+     * @param matchingConfigurations The matching configurations of the location.
+     * @return The matching candidates.
+     */
+    public List<R> match(V abstractTemplate, T type, TemplateMatchingIndex<R, T> index, LocationResources locationResources,
+            Map<String, MatchingConfiguration> matchingConfigurations) {
+        List<R> matchingResults = Lists.newArrayList();
+
+        for (R candidate : index.getCandidates(abstractTemplate)) {
+            if (isValidCandidate(abstractTemplate, type, candidate, index.getCandidateType(candidate), locationResources, matchingConfigurations)) {
+                matchingResults.add(candidate);
+            }
+        }
+
+        return matchingResults;
+    }
+
     /**
      * Checks if the type of a LocationResourceTemplate is matching the expected type.
      *
@@ -15,6 +15,8 @@ import org.alien4cloud.tosca.normative.constants.NormativeCapabilityTypes;
 import org.alien4cloud.tosca.utils.ToscaTypeUtils;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Maps;
+
 import alien4cloud.deployment.matching.plugins.INodeMatcherPlugin;
 import alien4cloud.model.deployment.matching.MatchingConfiguration;
 import alien4cloud.model.deployment.matching.MatchingFilterDefinition;
@@ -41,6 +43,27 @@ public class DefaultNodeMatcher extends AbstractTemplateMatcher<LocationResource
                 matchingConfigurations);
     }
 
+    /**
+     * Match nodes against a location, location resources are indexed once for all the nodes.
+     *
+     * @param nodeTemplates The node templates to match by id.
+     * @param nodeTypes The node types of the node templates by type name.
+     * @param locationResources The resources configured for the location against which we are matching the nodes.
+     */
+    @Override
+    public Map<String, List<LocationResourceTemplate>> matchNodes(Map<String, NodeTemplate> nodeTemplates, Map<String, NodeType> nodeTypes,
+            LocationResources locationResources, Map<String, MatchingConfiguration> matchingConfigurations) {
+        TemplateMatchingIndex<LocationResourceTemplate, NodeType> index = buildIndex(locationResources.getNodeTemplates(), locationResources.getNodeTypes(),
+                matchingConfigurations);
+        Map<String, List<LocationResourceTemplate>> matchingResult = Maps.newHashMap();
+        for (Entry<String, NodeTemplate> nodeTemplateEntry : nodeTemplates.entrySet()) {
+            NodeTemplate nodeTemplate = nodeTemplateEntry.getValue();
+            matchingResult.put(nodeTemplateEntry.getKey(),
+                    super.match(nodeTemplate, nodeTypes.get(nodeTemplate.getType()), index, locationResources, matchingConfigurations));
+        }
+        return matchingResult;
+    }
+
     @Override
     protected boolean typeSpecificMatching(NodeTemplate abstractTemplate, LocationResourceTemplate candidate, NodeType candidateType,
             LocationResources locationResources, MatchingConfiguration matchingConfiguration) {
@@ -88,18 +88,19 @@ public class NodeMatcherService {
             typesManagedByLocation.add(nodeType.getElementId());
             typesManagedByLocation.addAll(nodeType.getDerivedFrom());
         }
-        INodeMatcherPlugin nodeMatcherPlugin = getNodeMatcherPlugin();
+        Map<String, NodeTemplate> nodesManagedByLocation = Maps.newHashMap();
         for (Map.Entry<String, NodeTemplate> nodeTemplateEntry : nodesToMatch.entrySet()) {
-            String nodeTemplateId = nodeTemplateEntry.getKey();
             NodeTemplate nodeTemplate = nodeTemplateEntry.getValue();
             if (typesManagedByLocation.contains(nodeTemplate.getType())) {
-                NodeType nodeTemplateType = nodesTypes.get(nodeTemplate.getType());
-                if (nodeTemplateType == null) {
+                if (nodesTypes.get(nodeTemplate.getType()) == null) {
                     throw new InvalidArgumentException("The given node types map must contain the type of the node template");
                 }
-                matchingResult.put(nodeTemplateId, nodeMatcherPlugin.matchNode(nodeTemplate, nodeTemplateType, locationResources, matchingConfigurations));
+                nodesManagedByLocation.put(nodeTemplateEntry.getKey(), nodeTemplate);
             }
         }
+        if (!nodesManagedByLocation.isEmpty()) {
+            matchingResult.putAll(getNodeMatcherPlugin().matchNodes(nodesManagedByLocation, nodesTypes, locationResources, matchingConfigurations));
+        }
         return matchingResult;
     }
 
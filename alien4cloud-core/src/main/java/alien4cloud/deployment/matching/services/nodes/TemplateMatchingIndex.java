@@ -0,0 +1,175 @@
+package alien4cloud.deployment.matching.services.nodes;
+
+import static alien4cloud.utils.AlienUtils.safe;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.alien4cloud.tosca.exceptions.InvalidPropertyValueException;
+import org.alien4cloud.tosca.model.definitions.AbstractPropertyValue;
+import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
+import org.alien4cloud.tosca.model.definitions.ScalarPropertyValue;
+import org.alien4cloud.tosca.model.definitions.constraints.IMatchPropertyConstraint;
+import org.alien4cloud.tosca.model.templates.AbstractTemplate;
+import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
+import org.alien4cloud.tosca.normative.types.IPropertyType;
+import org.alien4cloud.tosca.normative.types.ToscaTypes;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.model.deployment.matching.MatchingConfiguration;
+import alien4cloud.model.orchestrators.locations.AbstractLocationResourceTemplate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Index of the location resources used as candidates for matching, built once for all the templates matched against a location.
+ *
+ * Candidates are indexed by every type of their hierarchy, and properties that are matched using the default equal constraint (no filter configured) are
+ * bucketed by typed value. The candidates returned for a template are the candidates of its type minus the ones that cannot satisfy an equal constraint, the
+ * full matching validation still has to be performed on them.
+ *
+ * @param <R> The type of location resource template.
+ * @param <T> The type of tosca type of the location resource templates.
+ */
+public class TemplateMatchingIndex<R extends AbstractLocationResourceTemplate, T extends AbstractInheritableToscaType> {
+    private final Map<String, T> candidateTypes;
+    private final Map<String, List<R>> candidatesByType = Maps.newHashMap();
+    /** Buckets of candidates by property name and property tosca type. */
+    private final Map<String, Map<String, PropertyBucket<R>>> bucketsByProperty = Maps.newHashMap();
+
+    TemplateMatchingIndex(List<R> candidates, Map<String, T> candidateTypes, Function<T, MatchingConfiguration> matchingConfigurationLookup) {
+        this.candidateTypes = candidateTypes;
+        for (R candidate : candidates) {
+            T candidateType = candidateTypes.get(candidate.getTemplate().getType());
+            if (candidateType == null) {
+                continue;
+            }
+            candidatesByType.computeIfAbsent(candidateType.getElementId(), key -> Lists.newArrayList()).add(candidate);
+            for (String parentType : safe(candidateType.getDerivedFrom())) {
+                candidatesByType.computeIfAbsent(parentType, key -> Lists.newArrayList()).add(candidate);
+            }
+            MatchingConfiguration matchingConfiguration = matchingConfigurationLookup.apply(candidateType);
+            indexProperties(candidate, candidateType, matchingConfiguration == null ? null : matchingConfiguration.getProperties());
+        }
+    }
+
+    private void indexProperties(R candidate, T candidateType, Map<String, List<IMatchPropertyConstraint>> configuredFilters) {
+        for (Map.Entry<String, AbstractPropertyValue> propertyEntry : safe(candidate.getTemplate().getProperties()).entrySet()) {
+            // Only properties matched with the default equal constraint can be bucketed.
+            if (safe(configuredFilters).containsKey(propertyEntry.getKey()) || !(propertyEntry.getValue() instanceof ScalarPropertyValue)) {
+                continue;
+            }
+            PropertyDefinition propertyDefinition = safe(candidateType.getProperties()).get(propertyEntry.getKey());
+            String value = ((ScalarPropertyValue) propertyEntry.getValue()).getValue();
+            if (propertyDefinition == null || value == null) {
+                continue;
+            }
+            IPropertyType<?> toscaType = ToscaTypes.fromYamlTypeName(propertyDefinition.getType());
+            if (toscaType == null) {
+                continue;
+            }
+            try {
+                Object typedValue = toscaType.parse(value);
+                PropertyBucket<R> bucket = bucketsByProperty.computeIfAbsent(propertyEntry.getKey(), key -> Maps.newHashMap())
+                        .computeIfAbsent(toscaType.getTypeName(), key -> new PropertyBucket<>(toscaType));
+                bucket.members.add(candidate);
+                bucket.candidatesByValue.computeIfAbsent(typedValue, key -> newIdentitySet()).add(candidate);
+            } catch (InvalidPropertyValueException e) {
+                // an invalid value on the candidate is ignored by matching.
+            }
+        }
+    }
+
+    /**
+     * Get the type of a candidate.
+     *
+     * @param candidate The candidate.
+     * @return The type of the candidate.
+     */
+    public T getCandidateType(R candidate) {
+        return candidateTypes.get(candidate.getTemplate().getType());
+    }
+
+    /**
+     * Get the candidates that may match the given template, in the order of the indexed candidates list.
+     *
+     * @param template The template to match.
+     * @return The candidates of the type of the template that are not excluded by an equal constraint.
+     */
+    public List<R> getCandidates(AbstractTemplate template) {
+        List<R> typeCandidates = candidatesByType.get(template.getType());
+        if (typeCandidates == null) {
+            return Collections.emptyList();
+        }
+        List<Set<R>> excludedCandidates = Lists.newArrayList();
+        for (Map.Entry<String, AbstractPropertyValue> propertyEntry : safe(template.getProperties()).entrySet()) {
+            Map<String, PropertyBucket<R>> buckets = bucketsByProperty.get(propertyEntry.getKey());
+            if (buckets == null || !(propertyEntry.getValue() instanceof ScalarPropertyValue)
+                    || ((ScalarPropertyValue) propertyEntry.getValue()).getValue() == null) {
+                continue;
+            }
+            for (PropertyBucket<R> bucket : buckets.values()) {
+                bucket.addExcluded(((ScalarPropertyValue) propertyEntry.getValue()).getValue(), excludedCandidates);
+            }
+        }
+        if (excludedCandidates.isEmpty()) {
+            return typeCandidates;
+        }
+        List<R> candidates = Lists.newArrayListWithCapacity(typeCandidates.size());
+        for (R candidate : typeCandidates) {
+            if (!isExcluded(candidate, excludedCandidates)) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    private boolean isExcluded(R candidate, List<Set<R>> excludedCandidates) {
+        for (Set<R> excluded : excludedCandidates) {
+            if (excluded.contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <R> Set<R> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Candidates that define a value for a property of a given type, grouped by typed value.
+     */
+    @RequiredArgsConstructor
+    private static class PropertyBucket<R> {
+        private final IPropertyType<?> toscaType;
+        private final Set<R> members = newIdentitySet();
+        private final Map<Object, Set<R>> candidatesByValue = Maps.newHashMap();
+
+        /**
+         * Add to the excluded sets the members of the bucket that cannot match the given template value.
+         */
+        private void addExcluded(String templateValue, List<Set<R>> excludedCandidates) {
+            Object typedValue;
+            try {
+                typedValue = toscaType.parse(templateValue);
+            } catch (InvalidPropertyValueException e) {
+                // an invalid template value violates the constraint of every candidate.
+                excludedCandidates.add(members);
+                return;
+            }
+            Set<R> matching = candidatesByValue.get(typedValue);
+            if (matching == null) {
+                excludedCandidates.add(members);
+            } else if (matching.size() < members.size()) {
+                excludedCandidates.add(Sets.difference(members, matching));
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Maps;
 
+import alien4cloud.deployment.matching.services.nodes.TemplateMatchingIndex;
 import alien4cloud.model.orchestrators.locations.Location;
 import alien4cloud.model.orchestrators.locations.LocationResources;
 import alien4cloud.model.orchestrators.locations.PolicyLocationResourceTemplate;
@@ -52,10 +53,11 @@ public class PolicyMatcherService {
         // Authorization filtering of location resources
         locationResources.getPolicyTemplates().removeIf(securedResource -> !locationSecurityService.isAuthorised(securedResource, environmentId));
 
+        TemplateMatchingIndex<PolicyLocationResourceTemplate, PolicyType> index = policyMatcher.buildIndex(locationResources.getPolicyTemplates(),
+                locationResources.getPolicyTypes(), null);
         for (Entry<String, PolicyTemplate> policyTemplateEntry : policyTemplates.entrySet()) {
             PolicyType policyType = policyTypes.get(policyTemplateEntry.getValue().getType());
-            matches.put(policyTemplateEntry.getKey(), policyMatcher.match(policyTemplateEntry.getValue(), policyType, locationResources.getPolicyTemplates(),
-                    locationResources.getPolicyTypes(), locationResources, null));
+            matches.put(policyTemplateEntry.getKey(), policyMatcher.match(policyTemplateEntry.getValue(), policyType, index, locationResources, null));
         }
 
         return matches;
@@ -10,10 +10,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
 
+import org.alien4cloud.tosca.catalog.events.AfterArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
 import org.alien4cloud.tosca.catalog.index.ICsarDependencyLoader;
 import org.alien4cloud.tosca.exceptions.ConstraintValueDoNotMatchPropertyTypeException;
 import org.alien4cloud.tosca.exceptions.ConstraintViolationException;
@@ -36,10 +41,14 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -58,6 +67,7 @@ import alien4cloud.model.orchestrators.locations.LocationResourceTemplate;
 import alien4cloud.model.orchestrators.locations.LocationResourceTemplateWithDependencies;
 import alien4cloud.model.orchestrators.locations.LocationResources;
 import alien4cloud.model.orchestrators.locations.PolicyLocationResourceTemplate;
+import alien4cloud.orchestrators.locations.events.OnLocationResourceChangeEvent;
 import alien4cloud.orchestrators.plugin.ILocationConfiguratorPlugin;
 import alien4cloud.orchestrators.plugin.ILocationResourceAccessor;
 import alien4cloud.orchestrators.plugin.IOrchestratorPlugin;
@@ -67,6 +77,8 @@ import alien4cloud.tosca.container.ToscaTypeLoader;
 import alien4cloud.tosca.topology.TemplateBuilder;
 import alien4cloud.utils.ReflectionUtil;
 import alien4cloud.utils.services.PropertyService;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 /**
  * Location Resource Service provides utilities to query LocationResourceTemplate.
@@ -93,6 +105,18 @@ public class LocationResourceService implements ILocationResourceService {
     private ICsarDependencyLoader csarDependencyLoader;
     @Inject
     private PluginArchiveIndexer pluginArchiveIndexer;
+    @Value("${locations.types_snapshots.max_size:#{200}}")
+    private int typesSnapshotsMaxSize = 200;
+
+    /** Types of the location resources by location id, the templates are not part of the snapshots. */
+    private Cache<String, LocationTypesSnapshot> typesSnapshots;
+    /** Incremented when an archive is indexed or deleted as the types of any location may have changed. */
+    private final AtomicLong archivesVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        typesSnapshots = CacheBuilder.newBuilder().maximumSize(typesSnapshotsMaxSize).build();
+    }
 
     /*
      * (non-Javadoc)
@@ -101,24 +125,67 @@ public class LocationResourceService implements ILocationResourceService {
      */
     @Override
     public LocationResources getLocationResources(Location location) {
+        // Resource templates are always read as their properties and authorizations may be updated from many places.
+        List<LocationResourceTemplate> locationResourceTemplates = getResourcesTemplates(location.getId());
+        List<PolicyLocationResourceTemplate> policyLocationResourceTemplates = getPoliciesResourcesTemplates(location.getId());
+
+        LocationResources locationResources = getTypesSnapshot(location, locationResourceTemplates, policyLocationResourceTemplates).newLocationResources();
+        setLocationRessource(locationResourceTemplates, locationResources);
+        locationResources.getPolicyTemplates().addAll(policyLocationResourceTemplates);
+        return locationResources;
+    }
+
+    private LocationTypesSnapshot getTypesSnapshot(Location location, List<LocationResourceTemplate> locationResourceTemplates,
+            List<PolicyLocationResourceTemplate> policyLocationResourceTemplates) {
+        ILocationConfiguratorPlugin configuratorPlugin = null;
         Orchestrator orchestrator = orchestratorService.get(location.getOrchestratorId());
-        Optional<LocationResources> locationResourcesFromOrchestrator = Optional.empty();
-        if (orchestrator != null && orchestratorPluginService.get(orchestrator.getId()) != null) {
-            locationResourcesFromOrchestrator = Optional.ofNullable(getLocationResourcesFromOrchestrator(location));
+        if (orchestrator != null) {
+            IOrchestratorPlugin orchestratorInstance = orchestratorPluginService.get(orchestrator.getId());
+            if (orchestratorInstance != null) {
+                configuratorPlugin = orchestratorInstance.getConfigurator(location.getInfrastructureType());
+            }
+        }
+        TypesSnapshotKey key = new TypesSnapshotKey(archivesVersion.get(), Sets.newHashSet(safe(location.getDependencies())),
+                getCustomResourceTypes(locationResourceTemplates), getCustomResourceTypes(policyLocationResourceTemplates),
+                configuratorPlugin == null ? null : Lists.newArrayList(safe(configuratorPlugin.getResourcesTypes())),
+                configuratorPlugin == null ? null : Lists.newArrayList(safe(configuratorPlugin.getPoliciesTypes())));
+
+        LocationTypesSnapshot snapshot = typesSnapshots.getIfPresent(location.getId());
+        if (snapshot == null || !snapshot.key.equals(key)) {
+            snapshot = new LocationTypesSnapshot(key, buildLocationResourceTypes(location, key));
+            typesSnapshots.put(location.getId(), snapshot);
         }
+        return snapshot;
+    }
 
-        // Also get resource templates from outside of the orchestrator definition - eg custom resources
-        List<LocationResourceTemplate> locationResourceTemplates = getResourcesTemplates(location.getId());
-        LocationResources locationResources = new LocationResources(getLocationResourceTypes(locationResourceTemplates));
+    private Set<String> getCustomResourceTypes(List<? extends AbstractLocationResourceTemplate> resourceTemplates) {
+        Set<String> types = Sets.newHashSet();
+        for (AbstractLocationResourceTemplate resourceTemplate : resourceTemplates) {
+            if (!resourceTemplate.isService()) {
+                types.add(resourceTemplate.getTemplate().getType());
+            }
+        }
+        return types;
+    }
+
+    private LocationResources buildLocationResourceTypes(Location location, TypesSnapshotKey key) {
+        LocationResourceTypes customResourceTypes = new LocationResourceTypes();
+        fillLocationResourceTypes(key.customNodeTypes, customResourceTypes, location.getDependencies());
+        LocationResources locationResources = new LocationResources(customResourceTypes);
 
         // process policies types also
-        List<PolicyLocationResourceTemplate> policyLocationResourceTemplates = getPoliciesResourcesTemplates(location.getId());
-        locationResources.addFrom(getPoliciesLocationResourceTypes(policyLocationResourceTemplates));
+        LocationResourceTypes customPolicyTypes = new LocationResourceTypes();
+        fillPoliciesLocationResourceTypes(key.customPolicyTypes, customPolicyTypes, location.getDependencies());
+        locationResources.addFrom(customPolicyTypes);
         /*
          * If the orchestrator is present, take node types computed from the resources template
          * as "Custom resources types". If not, consider this is an orchestrator-free location.
          */
-        locationResourcesFromOrchestrator.ifPresent(orchestratorResources -> {
+        if (key.orchestratorResourceTypes != null) {
+            LocationResources orchestratorResources = new LocationResources();
+            fillLocationResourceTypes(key.orchestratorResourceTypes, orchestratorResources, location.getDependencies());
+            fillPoliciesLocationResourceTypes(key.orchestratorPolicyTypes, orchestratorResources, location.getDependencies());
+
             locationResources.getCapabilityTypes().putAll(orchestratorResources.getCapabilityTypes());
             locationResources.getConfigurationTypes().putAll(orchestratorResources.getConfigurationTypes());
             locationResources.getNodeTypes().putAll(orchestratorResources.getNodeTypes());
@@ -126,12 +193,23 @@ public class LocationResourceService implements ILocationResourceService {
             locationResources.getAllNodeTypes().putAll(orchestratorResources.getAllNodeTypes());
             locationResources.getOnDemandTypes().putAll(orchestratorResources.getOnDemandTypes());
             locationResources.getPolicyTypes().putAll(orchestratorResources.getPolicyTypes());
-        });
-        setLocationRessource(locationResourceTemplates, locationResources);
-        locationResources.getPolicyTemplates().addAll(policyLocationResourceTemplates);
+        }
         return locationResources;
     }
 
+    /**
+     * Types of the archives have been updated, location types snapshots have to be rebuilt.
+     */
+    @EventListener
+    public void onArchiveIndexed(AfterArchiveIndexed event) {
+        archivesVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onArchiveDeleted(AfterArchiveDeleted event) {
+        archivesVersion.incrementAndGet();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -414,6 +492,7 @@ public class LocationResourceService implements ILocationResourceService {
         alienDAO.delete(resourceTemplate.getClass(), resourceId);
         refreshDependencies(location);
         alienDAO.save(location);
+        publishResourceChangedEvent(location);
     }
 
     /*
@@ -539,6 +618,7 @@ public class LocationResourceService implements ILocationResourceService {
         Location location = locationService.getOrFail(locationId);
         alienDAO.delete(LocationResourceTemplate.class, builder);
         alienDAO.save(location);
+        publishResourceChangedEvent(location);
     }
 
     /*
@@ -551,6 +631,12 @@ public class LocationResourceService implements ILocationResourceService {
     public void saveResource(Location location, AbstractLocationResourceTemplate resourceTemplate) {
         alienDAO.save(location);
         alienDAO.save(resourceTemplate);
+        publishResourceChangedEvent(location);
+    }
+
+    /** Resources are used by the deployment flows (matching etc.), listeners must know when they are created, updated or deleted. */
+    private void publishResourceChangedEvent(Location location) {
+        applicationContext.publishEvent(new OnLocationResourceChangeEvent(this, location.getId()));
     }
 
     /*
@@ -643,4 +729,37 @@ public class LocationResourceService implements ILocationResourceService {
     private interface IResourceTypeFiller {
         void process(Collection<String> exposedTypes, Set<CSARDependency> dependencies);
     }
+
+    /**
+     * Everything the types of a location depend on, a snapshot is valid as long as its key is equal to the current one.
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class TypesSnapshotKey {
+        private final long archivesVersion;
+        private final Set<CSARDependency> dependencies;
+        private final Set<String> customNodeTypes;
+        private final Set<String> customPolicyTypes;
+        /** Types exposed by the orchestrator, null if the location has no enabled orchestrator. */
+        private final List<String> orchestratorResourceTypes;
+        private final List<String> orchestratorPolicyTypes;
+    }
+
+    /**
+     * Types of a location, never modified once built so it can be shared by concurrent deployment flows.
+     */
+    @AllArgsConstructor
+    private static class LocationTypesSnapshot {
+        private final TypesSnapshotKey key;
+        private final LocationResources locationResourceTypes;
+
+        /**
+         * @return A new location resources with the types of the snapshot and no templates, the containers can be modified but not the types.
+         */
+        private LocationResources newLocationResources() {
+            LocationResources locationResources = new LocationResources(locationResourceTypes);
+            locationResources.getProvidedTypes().addAll(locationResourceTypes.getProvidedTypes());
+            return locationResources;
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package alien4cloud.paas;
+
+import java.util.concurrent.TimeUnit;
+
+import alien4cloud.paas.model.AbstractMonitorEvent;
+
+/**
+ * Sink in which a {@link IPaaSEventsStreamProvider} publishes its monitoring events.
+ */
+public interface IPaaSEventsSink {
+    /**
+     * Publish an event. The sink is bounded, when it is full the caller is blocked until some events are processed or the timeout expires so orchestrators
+     * producing events faster than alien4cloud can process them are slowed down.
+     *
+     * @param event The event to publish.
+     * @param timeout The maximum time to wait for room in the sink.
+     * @param unit The unit of the timeout.
+     * @return True if the event has been accepted, false if the timeout expired before the event could be queued.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    boolean publish(AbstractMonitorEvent event, long timeout, TimeUnit unit) throws InterruptedException;
+}
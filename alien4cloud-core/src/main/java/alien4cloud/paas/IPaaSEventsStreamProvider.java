@@ -0,0 +1,23 @@
+package alien4cloud.paas;
+
+import java.util.Date;
+
+/**
+ * Optional interface that a {@link IPaaSProvider} may implement in order to push monitoring events to alien4cloud rather than being polled through
+ * {@link IPaaSProvider#getEventsSince(Date, int, IPaaSCallback)}.
+ */
+public interface IPaaSEventsStreamProvider {
+    /**
+     * Start to stream events to alien4cloud. This method is called once when the orchestrator is enabled and must not block.
+     *
+     * @param since Date of the last event received by alien4cloud, events that occurred after this date and that have not been streamed yet should be
+     *            published first.
+     * @param sink The sink in which to publish events.
+     */
+    void startEventsStream(Date since, IPaaSEventsSink sink);
+
+    /**
+     * Stop to stream events, called when the orchestrator is disabled. Events must not be published to the sink after this call.
+     */
+    void stopEventsStream();
+}
@@ -6,19 +6,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ScheduledFuture;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import javax.inject.Inject;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Maps;
 
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
 import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.orchestrators.plugin.IOrchestratorPlugin;
 import alien4cloud.paas.exception.OrchestratorDisabledException;
@@ -31,15 +32,27 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Component
 public class OrchestratorPluginService implements IPaasEventService {
+    private static final long STREAM_STOP_TIMEOUT_MS = 30000;
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDao;
     @Resource(name = "alien-monitor-es-dao")
     private IGenericSearchDAO alienMonitorDao;
-    @Resource(name = "paas-monitor-scheduler")
-    private TaskScheduler scheduler;
-    /** Interval in milliseconds on which to retrieve monitoring events from a PaaS provider. */
-    @Value("${paas_monitor.monitor_interval_ms}")
-    private long monitorIntervalMs = 1000 * 30;
+    @Inject
+    private PaaSPollingScheduler pollingScheduler;
+    /** Consistency used to persist monitoring events (IMMEDIATE to refresh the index on every save, NEAR_REAL_TIME to rely on periodic refresh). */
+    @Value("${paas_monitor.events_write_consistency:NEAR_REAL_TIME}")
+    private WriteConsistency eventsWriteConsistency = WriteConsistency.NEAR_REAL_TIME;
+    /** If true, orchestrators that implement {@link IPaaSEventsStreamProvider} push their events rather than being polled. */
+    @Value("${paas_monitor.events_stream.enabled:#{true}}")
+    private boolean eventsStreamEnabled = true;
+    /** Maximum number of pushed events waiting for dispatch before the orchestrator is blocked. */
+    @Value("${paas_monitor.events_stream.queue_capacity:#{10000}}")
+    private int eventsStreamQueueCapacity = 10000;
+    /** Maximum number of pushed events dispatched and bulk indexed together. */
+    @Value("${paas_monitor.events_stream.batch_size:#{500}}")
+    private int eventsStreamBatchSize = 500;
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
     @Inject
     private DeploymentStatusEventHandler deploymentStatusEventHandler;
 
@@ -79,10 +92,22 @@ public class OrchestratorPluginService implements IPaasEventService {
         if (monitorRegistrations.containsKey(orchestratorId)) {
             throw new AlreadyExistException("Cloud [" + orchestratorId + "] has already been registered");
         }
-        // create the polling monitor responsible to monitor this instance.
-        PaaSProviderPollingMonitor monitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, instance, listeners, orchestratorId);
-        ScheduledFuture<?> monitorFuture = scheduler.scheduleAtFixedRate(monitor, monitorIntervalMs);
-        Registration registration = new Registration(instance, monitorFuture);
+        Registration registration;
+        if (eventsStreamEnabled && instance instanceof IPaaSEventsStreamProvider) {
+            // the orchestrator pushes it's events
+            PaaSEventsStreamMonitor monitor = new PaaSEventsStreamMonitor(alienMonitorDao, listeners, orchestratorId, eventsStreamQueueCapacity,
+                    eventsStreamBatchSize, metricRegistry);
+            monitor.setEventsWriteConsistency(eventsWriteConsistency);
+            monitor.start();
+            ((IPaaSEventsStreamProvider) instance).startEventsStream(monitor.getLastEventDate(), monitor);
+            registration = new Registration(instance, false, monitor);
+        } else {
+            // create the polling monitor responsible to monitor this instance.
+            PaaSProviderPollingMonitor monitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, instance, listeners, orchestratorId);
+            monitor.setEventsWriteConsistency(eventsWriteConsistency);
+            pollingScheduler.register(orchestratorId, monitor);
+            registration = new Registration(instance, true, null);
+        }
         monitorRegistrations.put(orchestratorId, registration);
     }
 
@@ -95,7 +120,13 @@ public class OrchestratorPluginService implements IPaasEventService {
         log.info("Unregister provider with id {}", orchestratorId);
         Registration registration = monitorRegistrations.remove(orchestratorId);
         if (registration != null) {
-            registration.registration.cancel(false);
+            if (registration.polled) {
+                pollingScheduler.unregister(orchestratorId);
+            }
+            if (registration.streamMonitor != null) {
+                ((IPaaSEventsStreamProvider) registration.instance).stopEventsStream();
+                registration.streamMonitor.stop(STREAM_STOP_TIMEOUT_MS);
+            }
             return registration.instance;
         } else {
             return null;
@@ -148,6 +179,9 @@ public class OrchestratorPluginService implements IPaasEventService {
     @AllArgsConstructor
     private class Registration {
         private IOrchestratorPlugin instance;
-        private ScheduledFuture<?> registration;
+        /** True if the orchestrator is polled, false if it pushes it's events. */
+        private boolean polled;
+        /** Monitor of pushed events, null if the orchestrator is polled. */
+        private PaaSEventsStreamMonitor streamMonitor;
     }
 }
@@ -0,0 +1,173 @@
+package alien4cloud.paas;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.utils.BatchingWriter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Monitor for orchestrators that push their events ({@link IPaaSEventsStreamProvider}).
+ *
+ * Events published by the orchestrator are queued in a bounded dispatch {@link BatchingWriter}, its thread dispatches them by batches to the listeners and
+ * hands them over to a persistence {@link BatchingWriter} that bulk index them. When persistence is slower than event production the persistence queue
+ * fills up, then the dispatch queue and finally the orchestrator is blocked on publish.
+ */
+@Slf4j
+public class PaaSEventsStreamMonitor implements IPaaSEventsSink {
+    /** Number of batches waiting for persistence before the dispatcher is blocked. */
+    private static final int MAX_PENDING_BATCHES = 16;
+
+    private final IGenericSearchDAO monitorDAO;
+    @SuppressWarnings("rawtypes")
+    private final List<IPaasEventListener> listeners;
+    private final String orchestratorId;
+    private final BatchingWriter<AbstractMonitorEvent> dispatchWriter;
+    private final BatchingWriter<AbstractMonitorEvent> persistWriter;
+    /** Date of the last event received by alien4cloud (persisted or queued). */
+    @Getter
+    private volatile Date lastEventDate;
+
+    @Setter
+    private WriteConsistency eventsWriteConsistency = WriteConsistency.NEAR_REAL_TIME;
+
+    private final MetricRegistry metricRegistry;
+    private final String metricsPrefix;
+    private final Meter publishedEvents;
+    private final Counter blockedPublishes;
+    private final Meter rejectedEvents;
+    private final Meter unprocessedEvents;
+    private final Histogram batchSizes;
+    private final Timer dispatchTimer;
+    private final Timer persistTimer;
+
+    /**
+     * Create a new instance of the {@link PaaSEventsStreamMonitor} for an orchestrator.
+     *
+     * @param monitorDAO The dao used to persist monitoring events.
+     * @param listeners The listeners to which to dispatch events.
+     * @param orchestratorId The id of the orchestrator.
+     * @param queueCapacity The maximum number of events waiting for dispatch.
+     * @param batchSize The maximum number of events dispatched and persisted together.
+     * @param metricRegistry The registry in which to expose the monitor metrics.
+     */
+    @SuppressWarnings("rawtypes")
+    public PaaSEventsStreamMonitor(IGenericSearchDAO monitorDAO, List<IPaasEventListener> listeners, String orchestratorId, int queueCapacity, int batchSize,
+            MetricRegistry metricRegistry) {
+        this.monitorDAO = monitorDAO;
+        this.listeners = listeners;
+        this.orchestratorId = orchestratorId;
+        this.dispatchWriter = new BatchingWriter<>("paas-events-dispatcher-" + orchestratorId, queueCapacity, batchSize, 0, this::dispatch,
+                unprocessed -> unprocessed(unprocessed, "dispatched"));
+        this.persistWriter = new BatchingWriter<>("paas-events-persister-" + orchestratorId, MAX_PENDING_BATCHES * batchSize, batchSize, 0, this::persist,
+                unprocessed -> unprocessed(unprocessed, "persisted"));
+        this.lastEventDate = PaaSProviderPollingMonitor.findLastEventDate(monitorDAO, orchestratorId);
+
+        this.metricRegistry = metricRegistry;
+        this.metricsPrefix = MetricRegistry.name(PaaSEventsStreamMonitor.class, orchestratorId);
+        publishedEvents = metricRegistry.meter(MetricRegistry.name(metricsPrefix, "published"));
+        blockedPublishes = metricRegistry.counter(MetricRegistry.name(metricsPrefix, "blocked-publishes"));
+        rejectedEvents = metricRegistry.meter(MetricRegistry.name(metricsPrefix, "rejected"));
+        unprocessedEvents = metricRegistry.meter(MetricRegistry.name(metricsPrefix, "unprocessed"));
+        batchSizes = metricRegistry.histogram(MetricRegistry.name(metricsPrefix, "batch-size"));
+        dispatchTimer = metricRegistry.timer(MetricRegistry.name(metricsPrefix, "dispatch"));
+        persistTimer = metricRegistry.timer(MetricRegistry.name(metricsPrefix, "persist"));
+        registerGauge(MetricRegistry.name(metricsPrefix, "queue-size"), dispatchWriter::size);
+        registerGauge(MetricRegistry.name(metricsPrefix, "pending-persistence"), persistWriter::size);
+    }
+
+    private void registerGauge(String name, Gauge<Integer> gauge) {
+        // a previous monitor of the same orchestrator may not have been stopped properly.
+        metricRegistry.remove(name);
+        metricRegistry.register(name, gauge);
+    }
+
+    /**
+     * Start the dispatcher and persister threads.
+     */
+    public synchronized void start() {
+        persistWriter.start();
+        dispatchWriter.start();
+    }
+
+    /**
+     * Stop the monitor, events already published are dispatched and persisted before the threads stop.
+     *
+     * @param timeoutMs Maximum time to wait for the queued events to be dispatched and then for the dispatched events to be persisted.
+     */
+    public synchronized void stop(long timeoutMs) {
+        dispatchWriter.stop(timeoutMs);
+        persistWriter.stop(timeoutMs);
+        metricRegistry.removeMatching((name, metric) -> name.startsWith(metricsPrefix + "."));
+    }
+
+    @Override
+    public boolean publish(AbstractMonitorEvent event, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!dispatchWriter.isRunning()) {
+            rejectedEvents.mark();
+            log.warn("Event {} published while the events monitor of orchestrator {} is stopped, event is ignored.", event, orchestratorId);
+            return false;
+        }
+        if (!dispatchWriter.offer(event)) {
+            // the queue is full, this is where back-pressure applies to the orchestrator.
+            blockedPublishes.inc();
+            if (!dispatchWriter.offer(event, timeout, unit)) {
+                rejectedEvents.mark();
+                return false;
+            }
+        }
+        publishedEvents.mark();
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(List<AbstractMonitorEvent> batch) {
+        batchSizes.update(batch.size());
+        try (Timer.Context ignored = dispatchTimer.time()) {
+            for (AbstractMonitorEvent event : batch) {
+                // Enrich event with orchestrator id before dispatching and saving them
+                event.setOrchestratorId(orchestratorId);
+                if (event.getDate() > 0) {
+                    Date eventDate = new Date(event.getDate());
+                    lastEventDate = eventDate.after(lastEventDate) ? eventDate : lastEventDate;
+                } else {
+                    event.setDate(System.currentTimeMillis());
+                }
+                listeners.forEach(listener -> PaaSProviderPollingMonitor.dispatchEvent(listener, event));
+            }
+        }
+        try {
+            for (AbstractMonitorEvent event : batch) {
+                // blocks the dispatcher when persistence does not keep up.
+                persistWriter.put(event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while handing over dispatched events of orchestrator {} for persistence.", orchestratorId);
+        }
+    }
+
+    private void persist(List<AbstractMonitorEvent> batch) {
+        try (Timer.Context ignored = persistTimer.time()) {
+            monitorDAO.save(batch.toArray(new AbstractMonitorEvent[batch.size()]), eventsWriteConsistency);
+        }
+    }
+
+    private void unprocessed(List<AbstractMonitorEvent> events, String step) {
+        unprocessedEvents.mark(events.size());
+        log.error("{} events of orchestrator {} could not be {}.", events.size(), orchestratorId, step);
+    }
+}
@@ -0,0 +1,237 @@
+package alien4cloud.paas;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.annotation.Resource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Maps;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.events.DeploymentCreatedEvent;
+import alien4cloud.model.deployment.Deployment;
+import alien4cloud.paas.PaaSProviderPollingMonitor.PollingOutcome;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Schedules the polling of the orchestrators that do not push their events.
+ *
+ * All orchestrators are polled on the shared paas monitor thread pool. The polling rate and batch size of every orchestrator adapt to its recent events:
+ * <ul>
+ * <li>when a full batch is returned the orchestrator is polled again immediately with a larger batch (up to the maximum batch size);</li>
+ * <li>when some events are returned the orchestrator is polled at the monitor interval;</li>
+ * <li>when no events are returned, no deployment is active or polling fails the interval is doubled (up to the maximum interval).</li>
+ * </ul>
+ * Creating a deployment resets the interval of its orchestrator.
+ */
+@Slf4j
+@Component
+public class PaaSPollingScheduler {
+    @Setter
+    @Resource(name = "paas-monitor-scheduler")
+    private TaskScheduler scheduler;
+    @Resource(name = "alien-es-dao")
+    private IGenericSearchDAO alienDao;
+    /** Interval in milliseconds on which to retrieve monitoring events from an active orchestrator. */
+    @Setter
+    @Value("${paas_monitor.monitor_interval_ms}")
+    private long monitorIntervalMs = 1000 * 30;
+    /** Maximum interval in milliseconds between two pollings of an idle orchestrator. */
+    @Setter
+    @Value("${paas_monitor.polling.max_interval_ms:#{30000}}")
+    private long maxIntervalMs = 30000;
+    /** Minimum (and initial) number of events to poll at once. */
+    @Setter
+    @Value("${paas_monitor.polling.min_batch_size:#{500}}")
+    private int minBatchSize = PaaSProviderPollingMonitor.MAX_POLLED_EVENTS;
+    /** Maximum number of events to poll at once when an orchestrator is late. */
+    @Setter
+    @Value("${paas_monitor.polling.max_batch_size:#{5000}}")
+    private int maxBatchSize = 5000;
+    @Setter
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final Map<String, PollingState> pollingStates = Maps.newConcurrentMap();
+
+    /**
+     * Start polling an orchestrator.
+     *
+     * @param orchestratorId The id of the orchestrator.
+     * @param monitor The monitor that polls the orchestrator events.
+     */
+    public void register(String orchestratorId, PaaSProviderPollingMonitor monitor) {
+        // the previous state is cancelled first as it removes the metrics of the orchestrator.
+        unregister(orchestratorId);
+        PollingState state = new PollingState(orchestratorId, monitor);
+        pollingStates.put(orchestratorId, state);
+        state.schedule(0);
+    }
+
+    /**
+     * Stop polling an orchestrator, a polling in progress is not interrupted.
+     *
+     * @param orchestratorId The id of the orchestrator.
+     */
+    public void unregister(String orchestratorId) {
+        PollingState state = pollingStates.remove(orchestratorId);
+        if (state != null) {
+            state.cancel();
+        }
+    }
+
+    @EventListener
+    public void onDeploymentCreated(DeploymentCreatedEvent event) {
+        Deployment deployment = alienDao.findById(Deployment.class, event.getDeploymentId());
+        PollingState state = deployment == null ? null : pollingStates.get(deployment.getOrchestratorId());
+        if (state != null) {
+            // events of the new deployment must not wait for the back off.
+            state.wakeUp();
+        }
+    }
+
+    /**
+     * Polling state of an orchestrator.
+     */
+    private class PollingState implements PaaSProviderPollingMonitor.IPollingCallback {
+        private final String orchestratorId;
+        private final PaaSProviderPollingMonitor monitor;
+        private final String metricsPrefix;
+        private final Meter polledEvents;
+        private final Meter failures;
+        private final Timer pollTimer;
+
+        private long intervalMs = monitorIntervalMs;
+        private int batchSize = minBatchSize;
+        /** Last time the orchestrator had no more events to return, used to compute the lag. */
+        private volatile long lastCaughtUpTime = System.currentTimeMillis();
+        private Timer.Context pollTimerContext;
+        private ScheduledFuture<?> nextPolling;
+        private boolean cancelled = false;
+
+        private PollingState(String orchestratorId, PaaSProviderPollingMonitor monitor) {
+            this.orchestratorId = orchestratorId;
+            this.monitor = monitor;
+            this.metricsPrefix = MetricRegistry.name(PaaSPollingScheduler.class, orchestratorId);
+            polledEvents = metricRegistry.meter(MetricRegistry.name(metricsPrefix, "events"));
+            failures = metricRegistry.meter(MetricRegistry.name(metricsPrefix, "failures"));
+            pollTimer = metricRegistry.timer(MetricRegistry.name(metricsPrefix, "poll"));
+            registerGauge("lag-ms", () -> System.currentTimeMillis() - lastCaughtUpTime);
+            registerGauge("last-event-age-ms", () -> System.currentTimeMillis() - monitor.getLastPollingDate().getTime());
+            registerGauge("interval-ms", () -> intervalMs);
+            registerGauge("batch-size", () -> (long) batchSize);
+        }
+
+        private void registerGauge(String name, Gauge<Long> gauge) {
+            String metricName = MetricRegistry.name(metricsPrefix, name);
+            // a previous registration of the same orchestrator may still exist.
+            metricRegistry.remove(metricName);
+            metricRegistry.register(metricName, gauge);
+        }
+
+        private void poll() {
+            int pollBatchSize;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                pollBatchSize = batchSize;
+                pollTimerContext = pollTimer.time();
+            }
+            try {
+                if (!monitor.poll(pollBatchSize, this)) {
+                    // a previous asynchronous polling is not completed yet.
+                    synchronized (this) {
+                        pollTimerContext = null;
+                        schedule(intervalMs);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to poll events of orchestrator {}", orchestratorId, e);
+                onPollingDone(PollingOutcome.FAILED, 0);
+            }
+        }
+
+        @Override
+        public synchronized void onPollingDone(PollingOutcome outcome, int eventCount) {
+            if (pollTimerContext != null) {
+                pollTimerContext.stop();
+                pollTimerContext = null;
+            }
+            switch (outcome) {
+                case POLLED:
+                    polledEvents.mark(eventCount);
+                    if (eventCount >= batchSize) {
+                        // the orchestrator has more events, get them now.
+                        batchSize = Math.min(batchSize * 2, maxBatchSize);
+                        intervalMs = monitorIntervalMs;
+                        schedule(0);
+                        return;
+                    }
+                    lastCaughtUpTime = System.currentTimeMillis();
+                    if (eventCount > 0) {
+                        batchSize = Math.max(eventCount * 2 < batchSize ? batchSize / 2 : batchSize, minBatchSize);
+                        intervalMs = monitorIntervalMs;
+                    } else {
+                        backOff();
+                    }
+                    break;
+                case NO_DEPLOYMENT:
+                    lastCaughtUpTime = System.currentTimeMillis();
+                    batchSize = minBatchSize;
+                    backOff();
+                    break;
+                case FAILED:
+                    failures.mark();
+                    backOff();
+                    break;
+            }
+            schedule(intervalMs);
+        }
+
+        private void backOff() {
+            intervalMs = Math.min(intervalMs * 2, Math.max(maxIntervalMs, monitorIntervalMs));
+        }
+
+        private synchronized void wakeUp() {
+            intervalMs = monitorIntervalMs;
+            if (pollTimerContext == null) {
+                // no polling in progress, reschedule the next one now.
+                schedule(0);
+            }
+        }
+
+        private synchronized void schedule(long delayMs) {
+            if (cancelled) {
+                return;
+            }
+            if (nextPolling != null) {
+                nextPolling.cancel(false);
+            }
+            if (log.isTraceEnabled()) {
+                log.trace("Next polling of orchestrator {} in {} ms with batch size {}", orchestratorId, delayMs, batchSize);
+            }
+            nextPolling = scheduler.schedule(this::poll, new Date(System.currentTimeMillis() + delayMs));
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (nextPolling != null) {
+                nextPolling.cancel(false);
+            }
+            metricRegistry.removeMatching((name, metric) -> name.startsWith(metricsPrefix + "."));
+        }
+    }
+}
@@ -11,12 +11,14 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.model.deployment.Deployment;
 import alien4cloud.paas.model.AbstractMonitorEvent;
 import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
 import alien4cloud.utils.MapUtil;
 import alien4cloud.utils.TypeScanner;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,20 +28,26 @@ import lombok.extern.slf4j.Slf4j;
 @SuppressWarnings("unchecked")
 @Slf4j
 public class PaaSProviderPollingMonitor implements Runnable {
-    private static final int MAX_POLLED_EVENTS = 500;
+    static final int MAX_POLLED_EVENTS = 500;
     private static final int MAX_LISTENER_RETRY = 3;
     private static final long LISTENER_FAIL_RETRY_SLEEP_MS = 10;
 
     private final IGenericSearchDAO dao;
     private final IGenericSearchDAO monitorDAO;
     private final IPaaSProvider paaSProvider;
-    private Date lastPollingDate;
+    /** Updated under the monitor lock but published for lock-free reads (metrics). */
+    private volatile Date lastPollingDate;
     @SuppressWarnings("rawtypes")
     private List<IPaasEventListener> listeners;
     private PaaSEventsCallback paaSEventsCallback;
     private String orchestratorId;
     private boolean hasDeployments = false;
     private boolean getEventsInProgress = false;
+    /** Callback of the polling in progress, may be null. */
+    private IPollingCallback pollingCallback;
+    /** Consistency used to persist polled events, by default do not wait for an index refresh on every polling. */
+    @Setter
+    private WriteConsistency eventsWriteConsistency = WriteConsistency.NEAR_REAL_TIME;
 
     /**
      * Create a new instance of the {@link PaaSProviderPollingMonitor} to monitor the given paas provider.
@@ -54,6 +62,41 @@ public class PaaSProviderPollingMonitor implements Runnable {
         this.monitorDAO = monitorDAO;
         this.paaSProvider = paaSProvider;
         this.listeners = listeners;
+        this.lastPollingDate = findLastEventDate(monitorDAO, orchestratorId);
+        paaSEventsCallback = new PaaSEventsCallback();
+    }
+
+    /**
+     * Outcome of a polling cycle.
+     */
+    public enum PollingOutcome {
+        /** The orchestrator has no active deployment, events have not been polled. */
+        NO_DEPLOYMENT,
+        /** Events have been polled (the event count may be 0). */
+        POLLED,
+        /** The orchestrator failed to return events. */
+        FAILED
+    }
+
+    /**
+     * Callback notified when a polling cycle completes.
+     */
+    public interface IPollingCallback {
+        /**
+         * @param outcome The outcome of the polling.
+         * @param eventCount The number of events polled.
+         */
+        void onPollingDone(PollingOutcome outcome, int eventCount);
+    }
+
+    /**
+     * Find the date of the last monitoring event persisted for an orchestrator, this is the date from which to recover events after a restart.
+     *
+     * @param monitorDAO The dao of monitoring events.
+     * @param orchestratorId The id of the orchestrator.
+     * @return The date of the last persisted event or the current date if no events have been persisted yet.
+     */
+    static Date findLastEventDate(IGenericSearchDAO monitorDAO, String orchestratorId) {
         Set<Class<?>> eventClasses = Sets.newHashSet();
         try {
             eventClasses = TypeScanner.scanTypes("alien4cloud.paas.model", AbstractMonitorEvent.class);
@@ -67,7 +110,7 @@ public class PaaSProviderPollingMonitor implements Runnable {
             log.info("No event class derived from {} found", AbstractMonitorEvent.class.getName());
         }
         Map<String, String[]> filter = Maps.newHashMap();
-        filter.put("orchestratorId", new String[] { this.orchestratorId });
+        filter.put("orchestratorId", new String[] { orchestratorId });
 
         // sort by filed date DESC
         QueryHelper.ISearchQueryBuilderHelper searchQueryHelperBuilder = monitorDAO.getQueryHelper().buildQuery()
@@ -80,12 +123,11 @@ public class PaaSProviderPollingMonitor implements Runnable {
             AbstractMonitorEvent lastEvent = (AbstractMonitorEvent) lastestEventResult.getData()[0];
             Date lastEventDate = new Date(lastEvent.getDate());
             log.info("Recovering events from the last in elasticsearch {} of type {}", lastEventDate, lastEvent.getClass().getName());
-            this.lastPollingDate = lastEventDate;
-        } else {
-            this.lastPollingDate = new Date();
-            log.debug("No monitor events found, the last polling date will be current date {}", this.lastPollingDate);
+            return lastEventDate;
         }
-        paaSEventsCallback = new PaaSEventsCallback();
+        Date now = new Date();
+        log.debug("No monitor events found, the last polling date will be current date {}", now);
+        return now;
     }
 
     private class PaaSEventsCallback implements IPaaSCallback<AbstractMonitorEvent[]> {
@@ -117,12 +159,13 @@ public class PaaSProviderPollingMonitor implements Runnable {
                         // dispatch the event to all listeners
                         listeners.forEach( listener -> dispatchEvent(listener,event));
                     }
-                    monitorDAO.save(auditEvents);
+                    monitorDAO.save(auditEvents, eventsWriteConsistency);
                     if (lastEventDate != null) {
                         lastPollingDate = lastEventDate;
                     }
                 }
                 getEventsInProgress = false;
+                notifyPollingDone(PollingOutcome.POLLED, auditEvents == null ? 0 : auditEvents.length);
             }
         }
 
@@ -134,17 +177,26 @@ public class PaaSProviderPollingMonitor implements Runnable {
                 // If the PaaS is down, there might be a chance that the deployment has been marked as failed
                 hasDeployments = false;
                 log.error("Error happened while trying to retrieve events from PaaS provider", throwable);
+                notifyPollingDone(PollingOutcome.FAILED, 0);
             }
         }
     }
 
+    private void notifyPollingDone(PollingOutcome outcome, int eventCount) {
+        IPollingCallback callback = pollingCallback;
+        pollingCallback = null;
+        if (callback != null) {
+            callback.onPollingDone(outcome, eventCount);
+        }
+    }
+
     /**
      * Dispatch an event to the registered listener.
      *
      * @param listener The listener to which to send the event.
      * @param event The event to dispatch.
      */
-    private void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event) {
+    static void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event) {
         dispatchEvent(listener, event, 0);
     }
 
@@ -156,7 +208,7 @@ public class PaaSProviderPollingMonitor implements Runnable {
      * @param retry The current retry index (0 for first dispatch)
      */
     @SneakyThrows
-    private void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event, int retry) {
+    private static void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event, int retry) {
         try {
             if (listener.canHandle(event)) {
                 listener.eventHappened(event);
@@ -172,24 +224,55 @@ public class PaaSProviderPollingMonitor implements Runnable {
     }
 
     @Override
-    public synchronized void run() {
+    public void run() {
+        poll(MAX_POLLED_EVENTS, null);
+    }
+
+    /**
+     * Poll events from the orchestrator if it has active deployments.
+     *
+     * @param maxEvents The maximum number of events to poll.
+     * @param callback An optional callback notified when the polling completes, the orchestrator may complete the polling asynchronously.
+     * @return false if a previous polling is still in progress (the callback will not be notified), true if not.
+     */
+    public synchronized boolean poll(int maxEvents, IPollingCallback callback) {
         if (log.isTraceEnabled()) {
             log.trace("Poll scheduled");
         }
         if (getEventsInProgress) {
             // Get events since is running
-            return;
+            return false;
         }
-        getEventsInProgress = true;
-        if (hasDeployments) {
-            if (log.isDebugEnabled()) {
-                log.debug("Polling from date {}", lastPollingDate);
+        if (!hasDeployments) {
+            hasDeployments = getActiveDeployment() != null;
+            if (!hasDeployments) {
+                if (callback != null) {
+                    callback.onPollingDone(PollingOutcome.NO_DEPLOYMENT, 0);
+                }
+                return true;
             }
-            paaSProvider.getEventsSince(lastPollingDate, MAX_POLLED_EVENTS, paaSEventsCallback);
-        } else {
+        }
+        getEventsInProgress = true;
+        pollingCallback = callback;
+        if (log.isDebugEnabled()) {
+            log.debug("Polling from date {}", lastPollingDate);
+        }
+        try {
+            paaSProvider.getEventsSince(lastPollingDate, maxEvents, paaSEventsCallback);
+        } catch (RuntimeException e) {
+            // the callback will never be called, do not block next pollings.
             getEventsInProgress = false;
-            hasDeployments = getActiveDeployment() != null;
+            pollingCallback = null;
+            throw e;
         }
+        return true;
+    }
+
+    /**
+     * @return The date of the last event received from the orchestrator.
+     */
+    public Date getLastPollingDate() {
+        return lastPollingDate;
     }
 
     private Deployment getActiveDeployment() {
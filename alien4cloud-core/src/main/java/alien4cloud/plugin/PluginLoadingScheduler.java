@@ -0,0 +1,80 @@
+package alien4cloud.plugin;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import alien4cloud.utils.ClassLoaderUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load plugins on a bounded pool following their dependency graph: a plugin is submitted as soon as all its dependencies are loaded so independent plugins
+ * are loaded concurrently.
+ */
+@Slf4j
+class PluginLoadingScheduler {
+    private final int loadingThreads;
+
+    PluginLoadingScheduler(int loadingThreads) {
+        this.loadingThreads = loadingThreads;
+    }
+
+    /**
+     * Load the pending plugins. Every submitted loading is waited for, a loading that fails only impacts its own plugin (and the plugins that depends on it).
+     *
+     * @param pendingPlugins The plugins to load by id. Submitted plugins are removed from the map, the remaining ones cannot be loaded as some of their
+     *            dependencies are missing.
+     * @param dependenciesLoaded Check that all the dependencies of a plugin are loaded.
+     * @param loader Load a plugin, called from the loading threads with the context class loader of the caller.
+     * @return The results of the loader for every plugin that has been loaded without unexpected error.
+     */
+    <R> List<R> load(Map<String, Plugin> pendingPlugins, Predicate<Plugin> dependenciesLoaded, Function<Plugin, R> loader) {
+        List<R> results = Lists.newArrayList();
+        if (pendingPlugins.isEmpty()) {
+            return results;
+        }
+        // plugin class loaders use the context class loader as parent, loading threads must use the same as the caller.
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(loadingThreads, pendingPlugins.size())),
+                new ThreadFactoryBuilder().setNameFormat("plugin-loader-%d").setDaemon(true).build());
+        CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            int loadingCount = 0;
+            do {
+                for (Iterator<Plugin> pluginIterator = pendingPlugins.values().iterator(); pluginIterator.hasNext();) {
+                    Plugin plugin = pluginIterator.next();
+                    if (dependenciesLoaded.test(plugin)) {
+                        pluginIterator.remove();
+                        completionService.submit(() -> ClassLoaderUtil.getWithContextClassLoader(contextClassLoader, () -> loader.apply(plugin)));
+                        loadingCount++;
+                    }
+                }
+                if (loadingCount > 0) {
+                    // a loaded plugin may fulfill the dependencies of pending plugins.
+                    try {
+                        results.add(completionService.take().get());
+                    } catch (ExecutionException e) {
+                        log.error("Alien server Initialization: unexpected error while loading a plugin.", e.getCause());
+                    }
+                    loadingCount--;
+                }
+            } while (loadingCount > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Alien server Initialization: interrupted while loading plugins.", e);
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+}
@@ -11,6 +11,7 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,6 +53,7 @@ import alien4cloud.utils.ReflectionUtil;
 import alien4cloud.utils.SpringUtils;
 import alien4cloud.utils.YamlParserUtil;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import static alien4cloud.utils.AlienUtils.safe;
@@ -77,9 +79,13 @@ public class PluginManager {
 
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDAO;
+    @Value("${plugins.loading.threads:#{4}}")
+    private int loadingThreads = 4;
+
     @Resource
     private ApplicationContext alienContext;
-    private Map<String, ManagedPlugin> pluginContexts = Maps.newHashMap();
+    private Map<String, ManagedPlugin> pluginContexts = Maps.newConcurrentMap();
+    private final Object linkLock = new Object();
 
     private List<PluginLinker> linkers = Lists.newArrayList();
 
@@ -124,41 +130,61 @@ public class PluginManager {
         log.info("Initializing plugins");
         // Load enabled plugins in alien, query using max value as anyway we must be able to load all plugins in memory.
         GetMultipleDataResult<Plugin> results = alienDAO.find(Plugin.class, FilterUtil.fromKeyValueCouples("enabled", "true"), Integer.MAX_VALUE);
-        loadPlugins(results.getData());
+        long start = System.currentTimeMillis();
+        List<PluginLoadingReport> reports = loadPlugins(results.getData());
+        logLoadingReports(reports, System.currentTimeMillis() - start);
         log.info("{} Plugins initialized.", results.getData().length);
     }
 
     /**
-     * Load all the plugins that have their dependencies fulfilled by loaded plugin.
+     * Load the given plugins following their dependency graph: a plugin is scheduled on the loading pool as soon as all its dependencies are loaded so
+     * independent plugins are loaded concurrently. Plugins with dependencies that cannot be loaded are disabled.
      *
      * @param plugins the plugins to load.
+     * @return The loading report of every plugin that has been scheduled for loading.
      */
-    private void loadPlugins(Plugin[] plugins) {
-        List<Plugin> missingDependencyPlugins = Lists.newArrayList();
+    private List<PluginLoadingReport> loadPlugins(Plugin[] plugins) {
+        Map<String, Plugin> pendingPlugins = Maps.newLinkedHashMap();
         for (Plugin plugin : plugins) {
-            // if the plugin has no unresolved dependency, load it
-            if (getMissingDependencies(plugin).size() == 0) {
-                try {
-                    loadPlugin(plugin);
-                } catch (PluginLoadingException e) {
-                    log.error("Alien server Initialization: failed to load plugin <" + plugin.getId() + ">", e);
-                    disablePlugin(plugin.getId());
-                }
-            } else {
-                missingDependencyPlugins.add(plugin);
-            }
+            pendingPlugins.put(plugin.getId(), plugin);
         }
-        if (missingDependencyPlugins.size() == plugins.length) {
-            // No plugins have been loaded meaning that remaining plugins are not loadable because some dependencies are missing
-            for (Plugin plugin : plugins) {
-                log.error("Failed to load plugin <" + plugin.getId() + "> as some dependencies are missing <" + getMissingDependencies(plugin) + ">");
+        List<PluginLoadingReport> reports = new PluginLoadingScheduler(loadingThreads).load(pendingPlugins,
+                plugin -> getMissingDependencies(plugin).isEmpty(), this::initializePlugin);
+
+        // No plugins can be loaded anymore meaning that remaining plugins are not loadable because some dependencies are missing
+        for (Plugin plugin : pendingPlugins.values()) {
+            log.error("Failed to load plugin <" + plugin.getId() + "> as some dependencies are missing <" + getMissingDependencies(plugin) + ">");
+            disablePlugin(plugin.getId());
+        }
+        return reports;
+    }
+
+    private PluginLoadingReport initializePlugin(Plugin plugin) {
+        PluginLoadingReport report = new PluginLoadingReport(plugin.getId());
+        try {
+            loadPlugin(plugin, report);
+        } catch (Exception e) {
+            // a failure must not stop the loading of the other plugins.
+            log.error("Alien server Initialization: failed to load plugin <" + plugin.getId() + ">", e);
+            report.failed = true;
+            try {
                 disablePlugin(plugin.getId());
-            }
-        } else {
-            if (missingDependencyPlugins.size() > 0) {
-                loadPlugins(missingDependencyPlugins.toArray(new Plugin[missingDependencyPlugins.size()]));
+            } catch (Exception disableException) {
+                log.error("Alien server Initialization: failed to disable plugin <" + plugin.getId() + ">", disableException);
             }
         }
+        report.done();
+        return report;
+    }
+
+    private void logLoadingReports(List<PluginLoadingReport> reports, long duration) {
+        if (reports.isEmpty()) {
+            return;
+        }
+        StringBuilder reportBuilder = new StringBuilder();
+        reports.stream().sorted(Comparator.comparingLong(PluginLoadingReport::getTotalDuration).reversed())
+                .forEach(report -> reportBuilder.append("\n  ").append(report));
+        log.info("{} plugins loaded in {} ms with {} loading threads:{}", reports.size(), duration, loadingThreads, reportBuilder);
     }
 
     private Set<String> getMissingDependencies(Plugin plugin) {
@@ -419,6 +445,13 @@ public class PluginManager {
     }
 
     private void loadPlugin(Plugin plugin) throws PluginLoadingException {
+        PluginLoadingReport report = new PluginLoadingReport(plugin.getId());
+        loadPlugin(plugin, report);
+        report.done();
+        log.debug("Plugin loading: {}", report);
+    }
+
+    private void loadPlugin(Plugin plugin, PluginLoadingReport report) throws PluginLoadingException {
         if (pluginContexts.containsKey(plugin.getId())) {
             log.debug("Do not load plugin {} as it is already loaded.", plugin.getId());
             return;
@@ -426,7 +459,7 @@ public class PluginManager {
         try {
             Path pluginPath = getPluginPath(plugin.getPluginPathId());
             Path pluginUiPath = getPluginUiPath(plugin.getPluginPathId());
-            loadPlugin(plugin, pluginPath, pluginUiPath);
+            loadPlugin(plugin, pluginPath, pluginUiPath, report);
             plugin.setConfigurable(isPluginConfigurable(plugin.getId()));
             alienDAO.save(plugin);
         } catch (Exception e) {
@@ -466,24 +499,30 @@ public class PluginManager {
      * @param plugin The plugin the load and link.
      * @param pluginPath The path to the directory that contains the un-zipped plugin.
      * @param pluginUiPath The path in which the ui files are located.
+     * @param report The report in which to record the loading durations.
      * @throws IOException In case there is an IO issue with the file.
      * @throws ClassNotFoundException If we cannot load the class
      */
-    private void loadPlugin(Plugin plugin, Path pluginPath, Path pluginUiPath) throws IOException, ClassNotFoundException {
-        // get the plugin spring context, start it
+    private void loadPlugin(Plugin plugin, Path pluginPath, Path pluginUiPath, PluginLoadingReport report) throws IOException, ClassNotFoundException {
+        // get the plugin spring context, start it. Contexts of independent plugins may be created concurrently.
         AnnotationConfigApplicationContext pluginContext = getPluginContext(plugin, pluginPath, pluginUiPath);
+        report.contextLoaded();
 
         ManagedPlugin managedPlugin = (ManagedPlugin) pluginContext.getBean("alien-plugin-context");
 
         Map<String, PluginComponentDescriptor> componentDescriptors = getPluginComponentDescriptorAsMap(plugin);
 
-        // expose plugin elements so they are available to plugins that depends from them.
-        expose(managedPlugin, componentDescriptors);
-        // register plugin elements in Alien
-        link(plugin, managedPlugin, componentDescriptors);
+        // linkers and loading callbacks are not expected to be thread-safe.
+        synchronized (linkLock) {
+            // expose plugin elements so they are available to plugins that depends from them.
+            expose(managedPlugin, componentDescriptors);
+            // register plugin elements in Alien
+            link(plugin, managedPlugin, componentDescriptors);
 
-        // install static resources to be available for the application.
-        pluginContexts.put(plugin.getId(), managedPlugin);
+            // install static resources to be available for the application.
+            pluginContexts.put(plugin.getId(), managedPlugin);
+        }
+        report.linked();
     }
 
     private AnnotationConfigApplicationContext getPluginContext(Plugin plugin, Path pluginPath, Path pluginUiPath) throws IOException, ClassNotFoundException {
@@ -716,4 +755,44 @@ public class PluginManager {
         private IPluginLinker<T> linker;
         private Class<T> linkedType;
     }
+
+    /**
+     * Durations of the loading steps of a plugin.
+     */
+    private static final class PluginLoadingReport {
+        private final String pluginId;
+        private final long start = System.currentTimeMillis();
+        private long contextDuration = -1;
+        private long linkDuration = -1;
+        private boolean failed = false;
+        @Getter
+        private long totalDuration;
+
+        private PluginLoadingReport(String pluginId) {
+            this.pluginId = pluginId;
+        }
+
+        private void contextLoaded() {
+            contextDuration = System.currentTimeMillis() - start;
+        }
+
+        private void linked() {
+            linkDuration = System.currentTimeMillis() - start - contextDuration;
+        }
+
+        private void done() {
+            totalDuration = System.currentTimeMillis() - start;
+        }
+
+        @Override
+        public String toString() {
+            if (failed) {
+                return pluginId + ": failed after " + totalDuration + " ms";
+            }
+            if (linkDuration < 0) {
+                return pluginId + ": already loaded";
+            }
+            return pluginId + ": " + totalDuration + " ms (context " + contextDuration + " ms, link " + linkDuration + " ms)";
+        }
+    }
 }
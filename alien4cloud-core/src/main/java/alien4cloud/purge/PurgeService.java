@@ -21,8 +21,6 @@ import org.apache.commons.collections4.MultiValuedMap;
 import org.apache.commons.collections4.multimap.HashSetValuedHashMap;
 import org.apache.lucene.util.NamedThreadFactory;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
-import org.elasticsearch.action.search.SearchRequestBuilder;
-import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.mapping.MappingBuilder;
 import org.springframework.beans.factory.annotation.Value;
@@ -40,6 +38,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
@@ -237,27 +236,9 @@ public class PurgeService {
     private <T> void purge(PurgeContext context, String id, Class<T> clazz) {
         ESGenericSearchDAO dao = getDaoFor(clazz);
 
-        String indexName = dao.getIndexForType(clazz);
-
-        // Get Id of documents owned by our deployment
-        SearchRequestBuilder searchRequestBuilder = dao.getClient()
-                .prepareSearch(indexName)
-                .setTypes(dao.getTypesFromClass(clazz))
-                .setQuery(QueryBuilders.termQuery("deploymentId",id))
-                .setFetchSource(false)
-                .setFrom(0).setSize(batch);
-
-        for (;;) {
-            SearchResponse response = searchRequestBuilder.execute().actionGet();
-
-            if (response.getHits() == null || response.getHits().getHits() == null) break;
-
-            for (int i = 0; i < response.getHits().getHits().length; i++) {
-                context.add(clazz, response.getHits().getHits()[i].getId());
-            }
-
-            // Redo the query if we hit the batch
-            if (response.getHits().getHits().length < batch) break;
+        // Scroll over the ids of documents owned by our deployment
+        try (Stream<String> ids = dao.streamIds(clazz, QueryBuilders.termQuery("deploymentId", id), batch)) {
+            ids.forEach(documentId -> context.add(clazz, documentId));
         }
     }
 
@@ -0,0 +1,61 @@
+package alien4cloud.topology;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.PolicyTemplate;
+import org.alien4cloud.tosca.model.workflow.Workflow;
+import org.alien4cloud.tosca.model.types.CapabilityType;
+import org.alien4cloud.tosca.model.types.DataType;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.alien4cloud.tosca.model.types.PolicyType;
+import org.alien4cloud.tosca.model.types.RelationshipType;
+
+import alien4cloud.utils.TreeNode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Changes applied to a topology under edition by an operation.
+ *
+ * The version of the topology is identified by the id of the last operation applied and by the last operation index. A client can apply the delta if the
+ * last operation it knows is the base operation of the delta, otherwise it has to get the full topology DTO again.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TopologyDeltaDTO {
+    /** Id of the last operation applied to the topology before the changes, null if no operations were applied. */
+    private String baseOperationId;
+    /** Id of the last operation applied to the topology after the changes. */
+    private String operationId;
+    private int lastOperationIndex;
+    /** The operation that has been applied. */
+    private AbstractEditorOperation operation;
+
+    /** Added or updated node templates (relationships are part of the node template). */
+    private Map<String, NodeTemplate> nodeTemplates;
+    private Set<String> removedNodeTemplates;
+    private Map<String, PolicyTemplate> policies;
+    private Set<String> removedPolicies;
+    private Map<String, Workflow> workflows;
+    private Set<String> removedWorkflows;
+    /** Updated topology level sections (inputs, outputs, dependencies, substitution etc.) by topology field name. */
+    private Map<String, Object> sections;
+
+    /** Types used by the added or updated templates. */
+    private Map<String, NodeType> nodeTypes;
+    private Map<String, RelationshipType> relationshipTypes;
+    private Map<String, CapabilityType> capabilityTypes;
+    private Map<String, DataType> dataTypes;
+    private Map<String, PolicyType> policyTypes;
+
+    /** The archive content tree, only set if the operation changed the archive files. */
+    private TreeNode archiveContentTree;
+    /** Dependency conflicts, only set if the dependencies changed. */
+    private List<DependencyConflictDTO> dependencyConflicts;
+}
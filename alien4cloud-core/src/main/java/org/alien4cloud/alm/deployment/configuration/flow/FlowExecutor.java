@@ -1,6 +1,12 @@
 package org.alien4cloud.alm.deployment.configuration.flow;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -29,15 +35,31 @@ import org.alien4cloud.alm.deployment.configuration.flow.modifiers.matching.Poli
 import org.alien4cloud.alm.deployment.configuration.flow.modifiers.matching.PolicyMatchingConfigAutoSelectModifier;
 import org.alien4cloud.alm.deployment.configuration.flow.modifiers.matching.PolicyMatchingConfigCleanupModifier;
 import org.alien4cloud.alm.deployment.configuration.flow.modifiers.matching.PolicyMatchingReplaceModifier;
+import org.alien4cloud.alm.deployment.configuration.model.AbstractDeploymentConfig;
+import org.alien4cloud.alm.deployment.configuration.model.DeploymentInputs;
+import org.alien4cloud.alm.deployment.configuration.model.DeploymentMatchingConfiguration;
+import org.alien4cloud.alm.deployment.configuration.model.OrchestratorDeploymentProperties;
 import org.alien4cloud.alm.deployment.configuration.services.DeploymentConfigurationDao;
 import org.alien4cloud.tosca.model.templates.Topology;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
+import alien4cloud.events.AlienEvent;
 import alien4cloud.model.application.Application;
 import alien4cloud.model.application.ApplicationEnvironment;
+import alien4cloud.security.AuthorizationUtil;
+import alien4cloud.security.model.User;
+import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.tosca.context.ToscaContextual;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -64,6 +86,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Component
 public class FlowExecutor {
+    /** Deployment configurations that are part of the key of a memoized flow. */
+    private static final List<Class<? extends AbstractDeploymentConfig>> MEMOIZED_FLOW_CONFIGURATIONS = Arrays.asList(DeploymentInputs.class,
+            DeploymentMatchingConfiguration.class, OrchestratorDeploymentProperties.class);
 
     @Inject
     private BackupNodesModifier backupNodesModifier;
@@ -121,9 +146,28 @@ public class FlowExecutor {
 
     private List<ITopologyModifier> topologyModifiers;
 
+    /** Registry of the per modifier timing and allocation metrics, a local registry is used when metrics are not configured. */
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
+
+    /** If true the result of deployment flows used for display are kept in memory until a change impacts them. */
+    @Value("${deployment_flow.memoize.enabled:#{false}}")
+    private boolean memoizeEnabled = false;
+    @Value("${deployment_flow.memoize.ttl_seconds:#{60}}")
+    private long memoizeTtlSeconds = 60;
+    @Value("${deployment_flow.memoize.max_entries:#{200}}")
+    private long memoizeMaxEntries = 200;
+
+    private Cache<FlowCacheKey, FlowExecutionContext> memoizedFlows;
+    /** Incremented on every alien event so in flight executions cannot memoize a result computed before the event. */
+    private final AtomicLong flowsGeneration = new AtomicLong();
+
     @PostConstruct
     private void initModifiers() {
         topologyModifiers = getDefaultFlowModifiers();
+        if (memoizeEnabled) {
+            memoizedFlows = CacheBuilder.newBuilder().expireAfterWrite(memoizeTtlSeconds, TimeUnit.SECONDS).maximumSize(memoizeMaxEntries).build();
+        }
     }
 
     /**
@@ -216,6 +260,58 @@ public class FlowExecutor {
         return executionContext;
     }
 
+    /**
+     * Execute deployment modifier flow in the context of an environment or get the result of a previous execution if memoization is enabled and nothing
+     * changed since then (topology, deployment configurations, alien events).
+     *
+     * The returned context may be shared with other requests and must be considered as read-only, it should only be used to display the deployment
+     * topology and never to perform a deployment.
+     *
+     * @param topology The topology that will be impacted by the flow.
+     * @param application The application that owns the topology.
+     * @param environment The environment for which to execute deployment flow.
+     * @return The context of execution that contains the updated topology as well as logs and cached elements from the modifiers.
+     */
+    @ToscaContextual
+    public FlowExecutionContext getDeploymentFlow(Topology topology, Application application, ApplicationEnvironment environment) {
+        if (!memoizeEnabled) {
+            return executeDeploymentFlow(topology, application, environment);
+        }
+        FlowCacheKey key = flowCacheKey(topology, environment);
+        FlowExecutionContext executionContext = memoizedFlows.getIfPresent(key);
+        if (executionContext == null) {
+            executionContext = executeDeploymentFlow(topology, application, environment);
+            memoizedFlows.put(key, executionContext);
+        } else {
+            log.debug("Using memoized deployment flow for environment <{}>", environment.getId());
+            // dependencies (from location or substitution) are added to the TOSCA context while executing the flow.
+            ToscaContext.get().resetDependencies(executionContext.getTopology().getDependencies());
+        }
+        return executionContext;
+    }
+
+    /**
+     * Any alien event (location resource, archive, service, permission, orchestrator changes etc.) may impact the flow result, so we drop memoized flows.
+     */
+    @EventListener
+    public void onAlienEvent(AlienEvent event) {
+        flowsGeneration.incrementAndGet();
+        if (memoizedFlows != null) {
+            memoizedFlows.invalidateAll();
+        }
+    }
+
+    private FlowCacheKey flowCacheKey(Topology topology, ApplicationEnvironment environment) {
+        String configId = AbstractDeploymentConfig.generateId(environment.getTopologyVersion(), environment.getId());
+        List<Long> configurationUpdates = Lists.newArrayList();
+        for (Class<? extends AbstractDeploymentConfig> configurationClass : MEMOIZED_FLOW_CONFIGURATIONS) {
+            configurationUpdates.add(deploymentConfigurationDao.getLastModified(configurationClass, configId));
+        }
+        User user = AuthorizationUtil.getCurrentUser();
+        return new FlowCacheKey(flowsGeneration.get(), environment.getId(), configId, topology.getId(), topology.getLastUpdateDate(),
+                user == null ? null : user.getUsername(), configurationUpdates);
+    }
+
     @ToscaContextual
     public void execute(Topology topology, List<ITopologyModifier> modifiers, FlowExecutionContext context) {
         execute(modifiers, context);
@@ -223,13 +319,57 @@ public class FlowExecutor {
 
     private void execute(List<ITopologyModifier> modifiers, FlowExecutionContext context) {
         for (int i = 0; i < modifiers.size(); i++) {
-            long start = System.currentTimeMillis();
-            modifiers.get(i).process(context.getTopology(), context);
-            log.debug("Processed <" + modifiers.get(i).getClass().getSimpleName() + "> in " + (System.currentTimeMillis() - start) + " ms");
+            ITopologyModifier modifier = modifiers.get(i);
+            String modifierName = getModifierName(modifier);
+            long allocatedBefore = getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            modifier.process(context.getTopology(), context);
+            long duration = System.nanoTime() - start;
+            metricRegistry.timer(MetricRegistry.name(FlowExecutor.class, "modifiers", modifierName, "time")).update(duration, TimeUnit.NANOSECONDS);
+            if (allocatedBefore >= 0) {
+                metricRegistry.histogram(MetricRegistry.name(FlowExecutor.class, "modifiers", modifierName, "allocated-bytes"))
+                        .update(getCurrentThreadAllocatedBytes() - allocatedBefore);
+            }
+            log.debug("Processed <" + modifierName + "> in " + TimeUnit.NANOSECONDS.toMillis(duration) + " ms");
             if (!context.log().isValid()) {
                 // In case of errors we don't process the flow further.
                 return;
             }
         }
     }
-}
\ No newline at end of file
+
+    private static String getModifierName(ITopologyModifier modifier) {
+        if (modifier instanceof FlowPhaseModifiersExecutor) {
+            return FlowPhaseModifiersExecutor.class.getSimpleName() + "." + ((FlowPhaseModifiersExecutor) modifier).getPhase();
+        }
+        return modifier.getClass().getSimpleName();
+    }
+
+    /**
+     * Get the number of bytes allocated by the current thread if supported by the JVM.
+     *
+     * @return The number of bytes allocated by the current thread or -1 if not supported.
+     */
+    private static long getCurrentThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class FlowCacheKey {
+        private final long generation;
+        private final String environmentId;
+        private final String configurationId;
+        private final String topologyId;
+        private final Date topologyLastUpdateDate;
+        private final String username;
+        private final List<Long> configurationUpdates;
+    }
+}
@@ -60,14 +60,13 @@ public class PreconfiguredInputsModifier implements ITopologyModifier {
         }
         alienContextVariables.setApplication(environmentContext.getApplication());
 
-        // TODO: avoid reloading every time - find a way to know the last update on files (git hash ?)
-        Properties appVarProps = quickFileStorageService.loadApplicationVariables(environmentContext.getApplication().getId());
-        Properties envTypeVarProps = quickFileStorageService.loadEnvironmentTypeVariables(topology.getId(), environment.getEnvironmentType());
-        Properties envVarProps = quickFileStorageService.loadEnvironmentVariables(topology.getId(), environment.getId());
+        // variable files are parsed and merged only when they change.
+        Properties variables = quickFileStorageService.loadMergedVariables(environmentContext.getApplication().getId(), topology.getId(),
+                environment.getEnvironmentType(), environment.getId());
         Map<String, Object> inputsMappingsMap = quickFileStorageService.loadInputsMappingFile(topology.getId());
 
         InputsMappingFileVariableResolver.InputsResolvingResult inputsResolvingResult = InputsMappingFileVariableResolver
-                    .configure(appVarProps, envTypeVarProps, envVarProps, alienContextVariables)
+                    .configure(variables, alienContextVariables)
                     .resolve(inputsMappingsMap, topology.getInputs());
 
         if (CollectionUtils.isNotEmpty(inputsResolvingResult.getMissingVariables())) {
@@ -61,6 +61,22 @@ public class DeploymentConfigurationDao {
         return config;
     }
 
+    /**
+     * Get the last modification time of a deployment configuration without loading it.
+     *
+     * @param clazz The class of the deployment configuration.
+     * @param id The id of the deployment configuration.
+     * @return The last modification time of the configuration file in milliseconds or 0 if the configuration doesn't exist.
+     */
+    @SneakyThrows
+    public <T extends AbstractDeploymentConfig> long getLastModified(Class<T> clazz, String id) {
+        Path path = localGitRepositoryPathResolver.resolve(clazz, id);
+        if (Files.exists(path)) {
+            return Files.getLastModifiedTime(path).toMillis();
+        }
+        return 0;
+    }
+
     @SneakyThrows
     public <T extends AbstractDeploymentConfig> void save(T deploymentInputs) {
         Date now = new Date();
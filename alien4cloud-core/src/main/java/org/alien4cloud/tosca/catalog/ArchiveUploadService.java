@@ -7,6 +7,7 @@ import java.util.Set;
 
 import javax.inject.Inject;
 
+import org.alien4cloud.tosca.catalog.ParsedArchiveCache.ParsedArchive;
 import org.alien4cloud.tosca.catalog.index.ArchiveIndexer;
 import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.Csar;
@@ -36,6 +37,8 @@ public class ArchiveUploadService {
     private ArchiveIndexer archiveIndexer;
     @Inject
     private SuggestionService suggestionService;
+    @Inject
+    private ParsedArchiveCache parsedArchiveCache;
 
     /**
      * Upload a TOSCA archive and index its components.
@@ -49,6 +52,13 @@ public class ArchiveUploadService {
     @ToscaContextual
     public ParsingResult<Csar> upload(Path path, CSARSource csarSource, String workspace)
             throws ParsingException, CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
+        // if the same content has already been imported and is still indexed there is nothing to parse nor to import.
+        String contentHash = parsedArchiveCache.getContentHash(path);
+        ParsingResult<Csar> alreadyIndexedResult = getAlreadyIndexedResult(path, contentHash, workspace);
+        if (alreadyIndexedResult != null) {
+            return alreadyIndexedResult;
+        }
+
         // parse the archive.
         ParsingResult<ArchiveRoot> parsingResult = parser.parseWithExistingContext(path, workspace);
 
@@ -61,6 +71,7 @@ public class ArchiveUploadService {
         }
 
         archiveIndexer.importArchive(archiveRoot, csarSource, path, parsingResult.getContext().getParsingErrors());
+        parsedArchiveCache.put(contentHash, archiveRoot);
         try {
             suggestionService.postProcessSuggestionFromArchive(parsingResult);
             suggestionService.setAllSuggestionIdOnPropertyDefinition();
@@ -71,6 +82,23 @@ public class ArchiveUploadService {
         return ArchiveParserUtil.toSimpleResult(parsingResult);
     }
 
+    private ParsingResult<Csar> getAlreadyIndexedResult(Path path, String contentHash, String workspace) {
+        ParsedArchive parsedArchive = parsedArchiveCache.get(contentHash);
+        if (parsedArchive == null) {
+            return null;
+        }
+        Csar indexedArchive = archiveIndexer.getIdenticalIndexedArchive(parsedArchive.getArchiveName(), parsedArchive.getArchiveVersion(), workspace,
+                parsedArchive.getHash());
+        if (indexedArchive == null) {
+            return null;
+        }
+        archiveIndexer.checkAuthorization(indexedArchive);
+        log.debug("Archive <{}> has the same content as indexed archive <{}>, skipping parsing and import.", path, indexedArchive.getId());
+        ParsingContext context = new ParsingContext(path.getFileName().toString());
+        context.getParsingErrors().add(ArchiveIndexer.alreadyIndexedError(indexedArchive.getName()));
+        return new ParsingResult<>(indexedArchive, context);
+    }
+
     @ToscaContextual
     public Map<CSARDependency, CsarDependenciesBean> preParsing(Set<Path> paths, List<ParsingResult<Csar>> parsingResults) {
         Map<CSARDependency, CsarDependenciesBean> csarDependenciesBeans = Maps.newHashMap();
@@ -0,0 +1,260 @@
+package org.alien4cloud.tosca.catalog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.xml.bind.DatatypeConverter;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveDeleted;
+import org.alien4cloud.tosca.model.Csar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+
+import alien4cloud.tosca.model.ArchiveRoot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local disk cache of the archives that have been parsed and imported, keyed by the SHA-256 of the archive content.
+ *
+ * An entry is a summary of the parsed archive (name, version, content hash and kind of elements). When the same content is uploaded again and the indexed
+ * archive still has the same hash the upload is a no-op, the cache allows to detect it without parsing the archive. Entries are never invalid as they are
+ * only used after checking the indexed archive, an outdated entry just results in a full parsing.
+ *
+ * The entries of an archive are removed when the archive is deleted and the least recently used entries are evicted when there are more than
+ * parsed_archive_cache.max_entries entries.
+ */
+@Slf4j
+@Component
+public class ParsedArchiveCache {
+    private static final String ENTRY_EXTENSION = ".json";
+
+    @Value("${directories.alien}/${directories.parsed_archives:parsed_archives}")
+    private String cacheDirectory;
+    @Setter
+    @Value("${parsed_archive_cache.enabled:#{true}}")
+    private boolean enabled = true;
+    @Value("${parsed_archive_cache.max_entries:#{1000}}")
+    private int maxEntries = 1000;
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path cachePath;
+    private Meter hits;
+    private Meter misses;
+
+    @PostConstruct
+    public void init() throws IOException {
+        cachePath = Paths.get(cacheDirectory);
+        if (enabled) {
+            Files.createDirectories(cachePath);
+        }
+        String prefix = MetricRegistry.name(ParsedArchiveCache.class);
+        hits = metricRegistry.meter(MetricRegistry.name(prefix, "hits"));
+        misses = metricRegistry.meter(MetricRegistry.name(prefix, "misses"));
+    }
+
+    /**
+     * Compute the key of an archive in the cache.
+     *
+     * @param archivePath The path of the archive, a zip file or a directory.
+     * @return The SHA-256 of the archive content or null if the cache is disabled.
+     */
+    public String getContentHash(Path archivePath) {
+        if (!enabled) {
+            return null;
+        }
+        return Files.isDirectory(archivePath) ? computeDirectoryHash(archivePath) : computeFileHash(archivePath);
+    }
+
+    /**
+     * Get the summary of an archive already parsed.
+     *
+     * @param contentHash The SHA-256 of the archive content.
+     * @return The summary of the parsed archive or null if the archive content has never been imported.
+     */
+    public ParsedArchive get(String contentHash) {
+        if (contentHash == null) {
+            return null;
+        }
+        Path entryPath = cachePath.resolve(contentHash + ENTRY_EXTENSION);
+        if (Files.isRegularFile(entryPath)) {
+            try {
+                ParsedArchive parsedArchive = objectMapper.readValue(entryPath.toFile(), ParsedArchive.class);
+                // the modification time of an entry is its last access time for eviction.
+                Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+                hits.mark();
+                return parsedArchive;
+            } catch (IOException e) {
+                log.warn("Unable to read parsed archive cache entry <" + entryPath + ">, archive will be parsed.", e);
+            }
+        }
+        misses.mark();
+        return null;
+    }
+
+    /**
+     * Register an archive that has been parsed and imported.
+     *
+     * @param contentHash The SHA-256 of the archive content.
+     * @param archiveRoot The parsed archive.
+     */
+    public void put(String contentHash, ArchiveRoot archiveRoot) {
+        if (contentHash == null) {
+            return;
+        }
+        ParsedArchive parsedArchive = new ParsedArchive(archiveRoot.getArchive().getName(), archiveRoot.getArchive().getVersion(),
+                archiveRoot.getArchive().getHash(), archiveRoot.getArchive().getToscaDefinitionsVersion());
+        try {
+            // write to a temporary file first so concurrent readers never see a partial entry.
+            Path tempPath = Files.createTempFile(cachePath, contentHash, ".tmp");
+            objectMapper.writeValue(tempPath.toFile(), parsedArchive);
+            Files.move(tempPath, cachePath.resolve(contentHash + ENTRY_EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to write parsed archive cache entry for archive <" + parsedArchive.getArchiveName() + ":" + parsedArchive.getArchiveVersion()
+                    + ">", e);
+        }
+        evictLeastRecentlyUsedEntries();
+    }
+
+    /**
+     * Remove the entries of an archive deleted from the catalog.
+     */
+    @EventListener
+    public void onArchiveDeleted(AfterArchiveDeleted event) {
+        if (!enabled) {
+            return;
+        }
+        for (Path entryPath : listEntries()) {
+            try {
+                ParsedArchive parsedArchive = objectMapper.readValue(entryPath.toFile(), ParsedArchive.class);
+                if (event.getArchiveId().equals(Csar.createId(parsedArchive.getArchiveName(), parsedArchive.getArchiveVersion()))) {
+                    Files.deleteIfExists(entryPath);
+                }
+            } catch (IOException e) {
+                log.warn("Unable to check parsed archive cache entry <" + entryPath + ">, removing it.", e);
+                deleteEntry(entryPath);
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsedEntries() {
+        List<Path> entries = listEntries();
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.sort(Comparator.comparing(ParsedArchiveCache::getLastModifiedTime));
+        entries.subList(0, entries.size() - maxEntries).forEach(ParsedArchiveCache::deleteEntry);
+    }
+
+    private List<Path> listEntries() {
+        try (Stream<Path> paths = Files.list(cachePath)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION)).collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Unable to list parsed archive cache entries.", e);
+            return Lists.newArrayList();
+        }
+    }
+
+    private static FileTime getLastModifiedTime(Path entryPath) {
+        try {
+            return Files.getLastModifiedTime(entryPath);
+        } catch (IOException e) {
+            // the entry has been removed concurrently.
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteEntry(Path entryPath) {
+        try {
+            Files.deleteIfExists(entryPath);
+        } catch (IOException e) {
+            log.warn("Unable to remove parsed archive cache entry <" + entryPath + ">", e);
+        }
+    }
+
+    @SneakyThrows({ IOException.class, NoSuchAlgorithmException.class })
+    private static String computeFileHash(Path archivePath) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        addFileToDigest(digest, archivePath);
+        return DatatypeConverter.printHexBinary(digest.digest());
+    }
+
+    @SneakyThrows({ IOException.class, NoSuchAlgorithmException.class })
+    private static String computeDirectoryHash(Path archivePath) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(archivePath)) {
+            files = paths.filter(Files::isRegularFile).filter(path -> !isHidden(archivePath, path)).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            // the relative path is part of the content as moving a file changes the archive.
+            digest.update(archivePath.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            addFileToDigest(digest, file);
+        }
+        return DatatypeConverter.printHexBinary(digest.digest());
+    }
+
+    private static void addFileToDigest(MessageDigest digest, Path path) throws IOException {
+        try (InputStream digestInputStream = new DigestInputStream(Files.newInputStream(path), digest)) {
+            ByteStreams.copy(digestInputStream, ByteStreams.nullOutputStream());
+        }
+    }
+
+    /** A file is hidden if itself or one of its parent directories in the archive is hidden (for example the files of a .git directory). */
+    @SneakyThrows({ IOException.class })
+    private static boolean isHidden(Path archivePath, Path path) {
+        Path relativePath = archivePath.relativize(path);
+        for (int i = 1; i <= relativePath.getNameCount(); i++) {
+            if (Files.isHidden(archivePath.resolve(relativePath.subpath(0, i)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Summary of a parsed archive.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ParsedArchive {
+        private String archiveName;
+        private String archiveVersion;
+        /** SHA-1 of the archive content as computed by the archive post processor and stored in the indexed archive. */
+        private String hash;
+        private String toscaDefinitionsVersion;
+    }
+}
@@ -1,5 +1,6 @@
 package org.alien4cloud.tosca.catalog.index;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.List;
@@ -20,12 +21,14 @@ import alien4cloud.tosca.model.ArchiveRoot;
 import alien4cloud.tosca.parser.ParsingError;
 import alien4cloud.tosca.parser.ParsingErrorLevel;
 import alien4cloud.tosca.parser.impl.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
 
 import static alien4cloud.utils.AlienUtils.safe;
 
 /**
  * Import images from CloudServiceArchive to ElasticSearch
  */
+@Slf4j
 @Component
 public class ArchiveImageLoader {
     private static final String ALIEN_ICON_TAG = "icon";
@@ -42,47 +45,44 @@ public class ArchiveImageLoader {
      * @param parsingErrors The list of parsing error in which to add errors in case there are (format error, file not found etc.)
      */
     public void importImages(Path archiveFile, ArchiveRoot archiveRoot, List<ParsingError> parsingErrors) {
-        // Import archive icons
-        importImages(archiveFile, archiveRoot.getNodeTypes(), parsingErrors);
-        importImages(archiveFile, archiveRoot.getRelationshipTypes(), parsingErrors);
-        importImages(archiveFile, archiveRoot.getCapabilityTypes(), parsingErrors);
-        importImages(archiveFile, archiveRoot.getArtifactTypes(), parsingErrors);
-        importImages(archiveFile, archiveRoot.getPolicyTypes(), parsingErrors);
-        // Import topology icon
-        importImages(archiveFile, archiveRoot.getArchive().getTags(), parsingErrors);
-        if (archiveRoot.getArchive().isHasTopology()) {
-            importImages(archiveFile, archiveRoot.getTopology().getTags(), parsingErrors);
+        // the archive is opened once for all the icons and only if there is an icon to import.
+        try (ArchiveReader archiveReader = new ArchiveReader(archiveFile)) {
+            // Import archive icons
+            importImages(archiveReader, archiveRoot.getNodeTypes(), parsingErrors);
+            importImages(archiveReader, archiveRoot.getRelationshipTypes(), parsingErrors);
+            importImages(archiveReader, archiveRoot.getCapabilityTypes(), parsingErrors);
+            importImages(archiveReader, archiveRoot.getArtifactTypes(), parsingErrors);
+            importImages(archiveReader, archiveRoot.getPolicyTypes(), parsingErrors);
+            // Import topology icon
+            importImages(archiveReader, archiveRoot.getArchive().getTags(), parsingErrors);
+            if (archiveRoot.getArchive().isHasTopology()) {
+                importImages(archiveReader, archiveRoot.getTopology().getTags(), parsingErrors);
+            }
         }
     }
 
-    private void importImages(Path archiveFile, Map<String, ? extends AbstractInheritableToscaType> toscaInheritableElement, List<ParsingError> parsingErrors) {
+    private void importImages(ArchiveReader archiveReader, Map<String, ? extends AbstractInheritableToscaType> toscaInheritableElement,
+            List<ParsingError> parsingErrors) {
         for (Map.Entry<String, ? extends AbstractInheritableToscaType> element : safe(toscaInheritableElement).entrySet()) {
-            importImages(archiveFile, element.getValue().getTags(), parsingErrors);
+            importImages(archiveReader, element.getValue().getTags(), parsingErrors);
         }
     }
 
-    private void importImages(Path archiveFile, List<Tag> tags, List<ParsingError> parsingErrors) {
+    private void importImages(ArchiveReader archiveReader, List<Tag> tags, List<ParsingError> parsingErrors) {
         if (tags == null) {
             return;
         }
         Tag iconTag = ArchiveImageLoader.getIconTag(tags);
         if (iconTag != null && !UUID_PATTERN.matcher(iconTag.getValue()).matches()) {
-            importImage(archiveFile, parsingErrors, iconTag);
+            importImage(archiveReader, parsingErrors, iconTag);
         }
     }
 
-    private void importImage(Path archiveFile, List<ParsingError> parsingErrors, Tag iconTag) {
-        FileSystem csarFS = null;
+    private void importImage(ArchiveReader archiveReader, List<ParsingError> parsingErrors, Tag iconTag) {
         Path iconPath = null;
 
         try {
-            if ( Files.isDirectory(archiveFile) ) {
-                csarFS = FileSystems.getDefault();
-                iconPath = csarFS.getPath(archiveFile.toString(), iconTag.getValue());
-            } else {
-                csarFS = FileSystems.newFileSystem(archiveFile, null);
-                iconPath = csarFS.getPath(iconTag.getValue());
-            }
+            iconPath = archiveReader.getPath(iconTag.getValue());
             if (!Files.isDirectory(iconPath)) {
                 String iconId = UUID.randomUUID().toString();
                 // Saving the image
@@ -128,4 +128,37 @@ public class ArchiveImageLoader {
         }
         return tags.get(iconTagIndex);
     }
+
+    /**
+     * Resolves files of an archive directory or zip file, the zip file system is opened on first access and closed with the reader.
+     */
+    private static final class ArchiveReader implements Closeable {
+        private final Path archiveFile;
+        private FileSystem csarFS;
+
+        private ArchiveReader(Path archiveFile) {
+            this.archiveFile = archiveFile;
+        }
+
+        private Path getPath(String path) throws IOException {
+            if (Files.isDirectory(archiveFile)) {
+                return FileSystems.getDefault().getPath(archiveFile.toString(), path);
+            }
+            if (csarFS == null) {
+                csarFS = FileSystems.newFileSystem(archiveFile, null);
+            }
+            return csarFS.getPath(path);
+        }
+
+        @Override
+        public void close() {
+            if (csarFS != null) {
+                try {
+                    csarFS.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close archive file system of {}", archiveFile, e);
+                }
+            }
+        }
+    }
 }
@@ -27,6 +27,7 @@ import alien4cloud.utils.services.ConstraintPropertyService;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
@@ -41,7 +42,12 @@ import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
 import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
 import org.alien4cloud.tosca.model.types.AbstractToscaType;
+import org.alien4cloud.tosca.model.types.ArtifactType;
+import org.alien4cloud.tosca.model.types.CapabilityType;
+import org.alien4cloud.tosca.model.types.DataType;
 import org.alien4cloud.tosca.model.types.NodeType;
+import org.alien4cloud.tosca.model.types.PolicyType;
+import org.alien4cloud.tosca.model.types.RelationshipType;
 import org.alien4cloud.tosca.utils.MetaPropertyFeeder;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
@@ -54,6 +60,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
 
 import static alien4cloud.utils.AlienUtils.safe;
 
@@ -68,6 +75,9 @@ import static alien4cloud.utils.AlienUtils.safe;
  * The archive indexer is also responsible for storing or initializing the file repository for the archive and eventually (if the archive is a SNAPSHOT) the
  * local git for editor purpose.
  * </p>
+ * <p>
+ * Imports are serialized per archive name and version, imports of different archives can run concurrently unless they define the same types.
+ * </p>
  */
 @Slf4j
 @Component
@@ -98,6 +108,8 @@ public class ArchiveIndexer {
     @Inject
     private IArchiveIndexerAuthorizationFilter archiveIndexerAuthorizationFilter;
     @Inject
+    private IToscaTypeSearchService toscaTypeSearchService;
+    @Inject
     private MetaPropertiesService metaPropertiesService;
     @Inject
     private MetaPropertyFeeder metaFeeder;
@@ -105,6 +117,10 @@ public class ArchiveIndexer {
     @Value("${features.archive_indexer_lock_used_archive:#{true}}")
     private boolean lockUsedArchive;
 
+    private final Striped<Lock> archiveLocks = Striped.lazyWeakLock(256);
+    /** Locks on the ids of the imported types, held from the check of types defined in other archives to the indexing of the types. */
+    private final Striped<Lock> typeLocks = Striped.lazyWeakLock(4096);
+
     /**
      * Check that a CSAR name/version does not already exists in the repository and eventually throw an AlreadyExistException.
      *
@@ -131,8 +147,18 @@ public class ArchiveIndexer {
      * @param topology The topology to be part of the topology.
      * @param topologyPath if the new topology must be created inside this directory to have all its artifacts
      */
+    public void importNewArchive(Csar csar, Topology topology, Path topologyPath) {
+        Lock lock = archiveLocks.get(csar.getId());
+        lock.lock();
+        try {
+            doImportNewArchive(csar, topology, topologyPath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @SneakyThrows
-    public synchronized void importNewArchive(Csar csar, Topology topology, Path topologyPath) {
+    private void doImportNewArchive(Csar csar, Topology topology, Path topologyPath) {
         ArchiveRoot archiveRoot = new ArchiveRoot();
         archiveRoot.setArchive(csar);
         archiveRoot.setTopology(topology);
@@ -169,6 +195,67 @@ public class ArchiveIndexer {
         publisher.publishEvent(new AfterArchiveIndexed(this, archiveRoot));
     }
 
+    /**
+     * Get the indexed archive if it has the given content hash in the given workspace, importing it again would then not change anything.
+     *
+     * @param archiveName The name of the archive.
+     * @param archiveVersion The version of the archive.
+     * @param workspace The workspace in which the archive is imported.
+     * @param hash The SHA-1 of the archive content.
+     * @return The indexed archive or null if the archive is not indexed with the same content in the same workspace.
+     */
+    public Csar getIdenticalIndexedArchive(String archiveName, String archiveVersion, String workspace, String hash) {
+        Csar currentIndexedArchive = csarService.get(archiveName, archiveVersion);
+        if (currentIndexedArchive != null && Objects.equals(currentIndexedArchive.getWorkspace(), workspace) && currentIndexedArchive.getHash() != null
+                && currentIndexedArchive.getHash().equals(hash)) {
+            return currentIndexedArchive;
+        }
+        return null;
+    }
+
+    /**
+     * Check the authorization to import again an archive that is already indexed with the same content. As the archive is not parsed again, the
+     * authorization filter gets an archive root rebuilt from the indexed archive, topology and types.
+     *
+     * @param indexedArchive The indexed archive.
+     */
+    public void checkAuthorization(Csar indexedArchive) {
+        ArchiveRoot archiveRoot = new ArchiveRoot();
+        archiveRoot.setArchive(indexedArchive);
+        if (indexedArchive.isHasTopology()) {
+            archiveRoot.setTopology(topologyServiceCore.getOrFail(indexedArchive.getId()));
+        }
+        AbstractToscaType[] toscaTypes = toscaTypeSearchService.getArchiveTypes(indexedArchive.getName(), indexedArchive.getVersion());
+        for (AbstractToscaType toscaType : toscaTypes == null ? new AbstractToscaType[0] : toscaTypes) {
+            if (toscaType instanceof NodeType) {
+                archiveRoot.getNodeTypes().put(toscaType.getElementId(), (NodeType) toscaType);
+            } else if (toscaType instanceof RelationshipType) {
+                archiveRoot.getRelationshipTypes().put(toscaType.getElementId(), (RelationshipType) toscaType);
+            } else if (toscaType instanceof CapabilityType) {
+                archiveRoot.getCapabilityTypes().put(toscaType.getElementId(), (CapabilityType) toscaType);
+            } else if (toscaType instanceof ArtifactType) {
+                archiveRoot.getArtifactTypes().put(toscaType.getElementId(), (ArtifactType) toscaType);
+            } else if (toscaType instanceof PolicyType) {
+                archiveRoot.getPolicyTypes().put(toscaType.getElementId(), (PolicyType) toscaType);
+            } else if (toscaType instanceof DataType) {
+                archiveRoot.getDataTypes().put(toscaType.getElementId(), (DataType) toscaType);
+            }
+        }
+        archiveIndexerAuthorizationFilter.checkAuthorization(archiveRoot);
+    }
+
+    /**
+     * Create the info message reported when an archive is imported again with an identical content.
+     *
+     * @param archiveName The name of the archive.
+     * @return The parsing error (INFO level) to add to the import result.
+     */
+    public static ParsingError alreadyIndexedError(String archiveName) {
+        return new ParsingError(ParsingErrorLevel.INFO, ErrorCode.CSAR_ALREADY_INDEXED, "", null,
+                "The archive already exists in alien4cloud with an identical content (SHA-1 on archive content excluding hidden files is identical).", null,
+                archiveName);
+    }
+
     /**
      * Import a pre-parsed archive to alien 4 cloud indexed catalog.
      *
@@ -178,7 +265,18 @@ public class ArchiveIndexer {
      * @param parsingErrors The non-null list of parsing errors in which to add errors.
      * @throws CSARUsedInActiveDeployment
      */
-    public synchronized void importArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors)
+    public void importArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors)
+            throws CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
+        Lock lock = archiveLocks.get(archiveRoot.getArchive().getId());
+        lock.lock();
+        try {
+            doImportArchive(archiveRoot, source, archivePath, parsingErrors);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doImportArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors)
             throws CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
         archiveIndexerAuthorizationFilter.checkAuthorization(archiveRoot);
         String archiveName = archiveRoot.getArchive().getName();
@@ -189,14 +287,7 @@ public class ArchiveIndexer {
             if (Objects.equals(currentIndexedArchive.getWorkspace(), archiveRoot.getArchive().getWorkspace())) {
                 if (currentIndexedArchive.getHash() != null && currentIndexedArchive.getHash().equals(archiveRoot.getArchive().getHash())) {
                     // if the archive has not changed do nothing.
-                    parsingErrors
-                            .add(new ParsingError(
-                                    ParsingErrorLevel.INFO,
-                                    ErrorCode.CSAR_ALREADY_INDEXED,
-                                    "",
-                                    null,
-                                    "The archive already exists in alien4cloud with an identical content (SHA-1 on archive content excluding hidden files is identical).",
-                                    null, archiveName));
+                    parsingErrors.add(alreadyIndexedError(archiveName));
                     return;
                 }
             } else {
@@ -220,6 +311,20 @@ public class ArchiveIndexer {
         // FIXME If the archive already exists but can be indexed we should actually call an editor operation to keep git tracking, or should we just prevent
         // that ?
 
+        // two different archives that define the same type must not be checked and indexed concurrently.
+        List<Lock> locks = Lists.newArrayList(typeLocks.bulkGet(getToscaTypeIds(archiveRoot)));
+        locks.forEach(Lock::lock);
+        try {
+            indexArchive(archiveRoot, source, archivePath, parsingErrors, currentIndexedArchive);
+        } finally {
+            Lists.reverse(locks).forEach(Lock::unlock);
+        }
+    }
+
+    private void indexArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors,
+            Csar currentIndexedArchive) throws ToscaTypeAlreadyDefinedInOtherCSAR {
+        String archiveName = archiveRoot.getArchive().getName();
+        String archiveVersion = archiveRoot.getArchive().getVersion();
         checkIfToscaTypesAreDefinedInOtherArchive(archiveRoot);
 
         // save the archive (before we index and save other data so we can cleanup if anything goes wrong).
@@ -261,6 +366,16 @@ public class ArchiveIndexer {
         failIfOneToscaTypesIsDefinedInOtherArchive(archiveRoot.getDataTypes());
     }
 
+    private Set<String> getToscaTypeIds(final ArchiveRoot archiveRoot) {
+        Set<String> typeIds = Sets.newHashSet();
+        typeIds.addAll(safe(archiveRoot.getNodeTypes()).keySet());
+        typeIds.addAll(safe(archiveRoot.getRelationshipTypes()).keySet());
+        typeIds.addAll(safe(archiveRoot.getCapabilityTypes()).keySet());
+        typeIds.addAll(safe(archiveRoot.getArtifactTypes()).keySet());
+        typeIds.addAll(safe(archiveRoot.getDataTypes()).keySet());
+        return typeIds;
+    }
+
     private void failIfOneToscaTypesIsDefinedInOtherArchive(Map<String, ? extends AbstractToscaType> toscaTypes) throws ToscaTypeAlreadyDefinedInOtherCSAR {
         if (toscaTypes == null) {
             return;
@@ -426,19 +541,26 @@ public class ArchiveIndexer {
     }
 
     private void performIndexing(ArchiveRoot root, Map<String, MetaPropConfiguration> metapropsNames) {
-        indexerService.indexInheritableElements(root.getArtifactTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getCapabilityTypes(), root.getArchive().getDependencies());
+        // all types of the archive and of its local imports are indexed with bulk requests and a single refresh.
+        List<AbstractInheritableToscaType> elements = Lists.newArrayList();
+        collectElementsToIndex(root, metapropsNames, elements);
+        indexerService.indexInheritableElements(elements);
+    }
+
+    private void collectElementsToIndex(ArchiveRoot root, Map<String, MetaPropConfiguration> metapropsNames, List<AbstractInheritableToscaType> elements) {
+        elements.addAll(safe(root.getArtifactTypes()).values());
+        elements.addAll(safe(root.getCapabilityTypes()).values());
         root.getNodeTypes().forEach((id, nodeType) -> {
             metaFeeder.feed(nodeType, nodeType.getTags(), metapropsNames); }
         );
-        indexerService.indexInheritableElements(root.getNodeTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getRelationshipTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getDataTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getPolicyTypes(), root.getArchive().getDependencies());
+        elements.addAll(safe(root.getNodeTypes()).values());
+        elements.addAll(safe(root.getRelationshipTypes()).values());
+        elements.addAll(safe(root.getDataTypes()).values());
+        elements.addAll(safe(root.getPolicyTypes()).values());
 
         if (root.getLocalImports() != null) {
             for (ArchiveRoot child : root.getLocalImports()) {
-                performIndexing(child, metapropsNames);
+                collectElementsToIndex(child, metapropsNames, elements);
             }
         }
     }
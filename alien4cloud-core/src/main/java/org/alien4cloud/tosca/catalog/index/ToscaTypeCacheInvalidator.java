@@ -0,0 +1,44 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import javax.inject.Inject;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchivePromoted;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import alien4cloud.tosca.context.ToscaTypeCache;
+
+/**
+ * Evict the types of an archive from the shared {@link ToscaTypeCache} when the archive content changes in the catalog.
+ */
+@Component
+public class ToscaTypeCacheInvalidator {
+    @Inject
+    private ToscaTypeCache toscaTypeCache;
+
+    @EventListener
+    public void handleArchiveRemoved(BeforeArchiveDeleted event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchivePromoted(BeforeArchivePromoted event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchiveUpdated(BeforeArchiveIndexed event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveRoot().getArchive().getId());
+    }
+
+    /**
+     * Types may have been loaded again from the previous archive content while the new one was being indexed.
+     */
+    @EventListener
+    public void handleArchiveIndexed(AfterArchiveIndexed event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveRoot().getArchive().getId());
+    }
+}
@@ -4,7 +4,9 @@ import static alien4cloud.dao.FilterUtil.fromKeyValueCouples;
 import static alien4cloud.utils.AlienUtils.safe;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -13,14 +15,17 @@ import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
 import org.alien4cloud.tosca.model.types.AbstractToscaType;
 import org.apache.commons.collections4.CollectionUtils;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.mapping.ElasticSearchClient;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import alien4cloud.dao.ElasticSearchDAO;
 import alien4cloud.dao.IGenericSearchDAO;
-import alien4cloud.dao.model.FetchContext;
+import alien4cloud.dao.WriteConsistency;
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.images.IImageDAO;
 import alien4cloud.model.common.Tag;
@@ -34,6 +39,9 @@ import org.alien4cloud.tosca.normative.types.ToscaTypes;
  */
 @Service
 public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
+    /** Maximum number of elements in a bulk request. */
+    private static final int BULK_SIZE = 1000;
+
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDAO;
     @Inject
@@ -68,26 +76,57 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
 
     @Override
     public void deleteElements(String name, String version) {
-        GetMultipleDataResult<AbstractToscaType> result = alienDAO.buildQuery(AbstractToscaType.class)
-                .setFilters(fromKeyValueCouples("archiveName", name, "archiveVersion", version)).prepareSearch().setFetchContext(FetchContext.SUMMARY)
-                .search(0, Integer.MAX_VALUE);
+        // collect icons of the archive elements to remove them once no more used
+        Map<String, String> iconTagNamesByIconId = Maps.newHashMap();
+        QueryBuilder archiveQuery = QueryBuilders.boolQuery().must(QueryBuilders.termQuery("archiveName", name))
+                .must(QueryBuilders.termQuery("archiveVersion", version));
+        try (Stream<AbstractToscaType> elements = alienDAO.stream(AbstractToscaType.class, archiveQuery, null, BULK_SIZE)) {
+            elements.forEach(element -> {
+                Tag iconTag = ArchiveImageLoader.getIconTag(element.getTags());
+                if (iconTag != null) {
+                    iconTagNamesByIconId.put(iconTag.getValue(), iconTag.getName());
+                }
+            });
+        }
 
-        AbstractToscaType[] elements = result.getData();
+        // single query driven bulk delete refreshed once
+        alienDAO.delete(AbstractToscaType.class, archiveQuery);
 
-        // we need to delete each element
-        for (AbstractToscaType element : elements) {
-            deleteElement(element);
+        for (Map.Entry<String, String> iconTag : iconTagNamesByIconId.entrySet()) {
+            if (!hasElementWithTag(AbstractToscaType.class, iconTag.getValue(), iconTag.getKey())) {
+                imageDAO.deleteAll(iconTag.getKey());
+            }
         }
     }
 
     @Override
     public void indexInheritableElements(Map<String, ? extends AbstractInheritableToscaType> archiveElements, Collection<CSARDependency> dependencies) {
-        for (AbstractInheritableToscaType element : safe(archiveElements).values()) {
-            alienDAO.save(element);
+        indexInheritableElements(safe(archiveElements).values());
+    }
+
+    @Override
+    public void indexInheritableElements(Collection<? extends AbstractInheritableToscaType> elements) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        List<AbstractInheritableToscaType> batch = Lists.newArrayListWithCapacity(Math.min(elements.size(), BULK_SIZE));
+        for (AbstractInheritableToscaType element : elements) {
+            batch.add(element);
+            if (batch.size() == BULK_SIZE) {
+                saveBatch(batch);
+            }
         }
+        saveBatch(batch);
         refreshIndexForSearching();
     }
 
+    private void saveBatch(List<AbstractInheritableToscaType> batch) {
+        if (!batch.isEmpty()) {
+            alienDAO.save(batch.toArray(new AbstractInheritableToscaType[batch.size()]), WriteConsistency.NEAR_REAL_TIME);
+            batch.clear();
+        }
+    }
+
     @Override
     @ToscaContextual
     public void indexInheritableElement(String archiveName, String archiveVersion, AbstractInheritableToscaType element,
@@ -108,24 +147,16 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
         refreshIndexForSearching();
     }
 
-    private void deleteElement(AbstractToscaType element) {
-        Tag iconTag = ArchiveImageLoader.getIconTag(element.getTags());
-        alienDAO.delete(element.getClass(), element.getId());
-        if (iconTag != null) {
-            if (!hasElementWithTag(element.getClass(), iconTag.getName(), iconTag.getValue())) {
-                imageDAO.deleteAll(iconTag.getValue());
-            }
-        }
-    }
-
     private boolean hasElementWithTag(Class<? extends AbstractToscaType> typeClass, String tagKey, String tagValue) {
         return alienDAO.buildQuery(typeClass).setFilters(fromKeyValueCouples("tags.name", tagKey, "tags.value", tagValue)).count() > 0;
     }
 
     @Override
     public void deleteElements(Collection<AbstractToscaType> elements) {
-        for (AbstractToscaType element : elements) {
-            alienDAO.delete(element.getClass(), element.getId());
+        if (elements.isEmpty()) {
+            return;
         }
+        alienDAO.delete(AbstractToscaType.class,
+                QueryBuilders.idsQuery().ids(elements.stream().map(AbstractToscaType::getId).toArray(String[]::new)));
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.locks.Lock;
 
 import org.alien4cloud.tosca.editor.EditionContextManager;
 import org.alien4cloud.tosca.model.Csar;
@@ -15,6 +16,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.FileSystemUtils;
 
+import com.google.common.util.concurrent.Striped;
+
 import alien4cloud.component.repository.exception.CSARDirectoryCreationFailureException;
 import alien4cloud.component.repository.exception.CSARStorageFailureException;
 import alien4cloud.exception.NotFoundException;
@@ -27,7 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * CSAR Repository implementation<br/>
  *
- * Implements {@link ICsarRepositry}
+ * Implements {@link ICsarRepositry}, storage of an archive is serialized per archive name and version.
  *
  * @author 'Igor Ngouagna'
  */
@@ -39,6 +42,7 @@ public class CsarFileRepository implements ICsarRepositry {
     public static final String CSAR_EXTENSION = "csar";
     private static final String EXPANDED = "expanded";
     private Path rootPath;
+    private final Striped<Lock> archiveLocks = Striped.lazyWeakLock(256);
 
     @Required
     @Value("${directories.alien}/${directories.csar_repository}")
@@ -59,7 +63,17 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     @Override
-    public synchronized void storeCSAR(Csar csar, String yaml) {
+    public void storeCSAR(Csar csar, String yaml) {
+        Lock lock = archiveLocks.get(csar.getId());
+        lock.lock();
+        try {
+            doStoreCSAR(csar, yaml);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doStoreCSAR(Csar csar, String yaml) {
         Path csarDirectoryPath = rootPath.resolve(csar.getName()).resolve(csar.getVersion());
         String realName = csar.getName().concat("-").concat(csar.getVersion()).concat("." + CSAR_EXTENSION);
         createCSARDirectory(csarDirectoryPath, realName);
@@ -79,7 +93,17 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     @Override
-    public synchronized void storeCSAR(Csar csar, Path tmpPath) {
+    public void storeCSAR(Csar csar, Path tmpPath) {
+        Lock lock = archiveLocks.get(csar.getId());
+        lock.lock();
+        try {
+            doStoreCSAR(csar, tmpPath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doStoreCSAR(Csar csar, Path tmpPath) {
         // check the tmpPath.
         if (!Files.isReadable(tmpPath)) {
             throw new CSARStorageFailureException("CSAR temp location <" + tmpPath.toString() + "> not found or not readable!");
@@ -113,7 +137,17 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     @Override
-    public synchronized void updateFromExpanded(String name, String version) {
+    public void updateFromExpanded(String name, String version) {
+        Lock lock = archiveLocks.get(Csar.createId(name, version));
+        lock.lock();
+        try {
+            doUpdateFromExpanded(name, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doUpdateFromExpanded(String name, String version) {
         Path csarDirectoryPath = rootPath.resolve(name).resolve(version);
         Path expandedPath = csarDirectoryPath.resolve("expanded");
         String realName = name.concat("-").concat(version).concat("." + CSAR_EXTENSION);
@@ -183,6 +217,16 @@ public class CsarFileRepository implements ICsarRepositry {
 
     @Override
     public void removeCSAR(String name, String version) {
+        Lock lock = archiveLocks.get(Csar.createId(name, version));
+        lock.lock();
+        try {
+            doRemoveCSAR(name, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doRemoveCSAR(String name, String version) {
         Path csarDirectoryPathOfVersion = rootPath.resolve(name).resolve(version);
         if (Files.isDirectory(csarDirectoryPathOfVersion)) {
             FileSystemUtils.deleteRecursively(csarDirectoryPathOfVersion.toFile());
@@ -6,15 +6,19 @@ import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.utils.DirectoryJSonWalker;
 import alien4cloud.utils.TreeNode;
 import com.google.common.collect.Lists;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
 import org.alien4cloud.tosca.editor.operations.RecoverTopologyOperation;
+import org.alien4cloud.tosca.topology.TopologyFingerprint;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Topology edition context is related to a specific topology that is currently under edition.
@@ -49,6 +53,16 @@ public class EditionContext {
     private TreeNode archiveContentTree;
     /** List of the operations generated to recover the topology */
     private RecoverTopologyOperation recoveryOperation;
+    /** Fingerprint of the topology after the last operation, used to compute the changes of the next operation. */
+    private TopologyFingerprint fingerprint;
+    /** Number of requests using the context, a context in use is never evicted to honor the maximum weight of the contexts cache. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicInteger usages = new AtomicInteger();
+    /** True when the context has been loaded for a request that did not claim it yet (the loading request is counted in the usages). */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicBoolean loadUsageUnclaimed = new AtomicBoolean();
 
     /**
      * Create a new instance of a topology edition context from an existing topology.
@@ -81,4 +95,34 @@ public class EditionContext {
     public void refreshContentTree() throws IOException {
         this.archiveContentTree = DirectoryJSonWalker.getDirectoryTree(this.localGitPath);
     }
-}
\ No newline at end of file
+
+    /** Count the request that loads the context as a usage, so the context is never evictable on weight between its loading and its use. */
+    void markLoaded() {
+        usages.incrementAndGet();
+        loadUsageUnclaimed.set(true);
+    }
+
+    /**
+     * Claim the usage counted when the context has been loaded.
+     *
+     * @return true if the usage counted on load has been claimed by the caller, false if the caller must count its own usage.
+     */
+    boolean claimLoadUsage() {
+        return loadUsageUnclaimed.compareAndSet(true, false);
+    }
+
+    void use() {
+        usages.incrementAndGet();
+    }
+
+    void release() {
+        usages.decrementAndGet();
+    }
+
+    /**
+     * @return true if the context is not used by any request and has no pending operations so it can be evicted when the contexts cache is full.
+     */
+    boolean isEvictable() {
+        return usages.get() == 0 && operations.isEmpty();
+    }
+}
@@ -24,14 +24,20 @@ import org.alien4cloud.tosca.editor.operations.UpdateFileOperation;
 import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.cache.*;
 
 import alien4cloud.component.repository.IFileRepository;
 import alien4cloud.topology.TopologyServiceCore;
 import alien4cloud.tosca.context.ToscaContext;
+import alien4cloud.utils.AlienUtils;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
@@ -52,15 +58,38 @@ public class EditionContextManager {
     @Inject
     private IFileRepository artifactRepository;
 
-    // TODO make cache management time a parameter
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry = new MetricRegistry();
+
+    /** Time after which an edition context that is not accessed anymore is evicted (pending operations are lost). */
+    @Value("${editor.context_cache.expire_after_access_minutes:#{30}}")
+    private long expireAfterAccessMinutes = 30;
+    /**
+     * Maximum weight of the edition contexts in memory, the weight of a context is based on the number of templates of the topology. Contexts in use or
+     * with pending operations have no weight so they are never evicted to honor the maximum weight.
+     */
+    @Setter
+    @Value("${editor.context_cache.max_weight:#{100000}}")
+    private long maxWeight = 100000;
+
     private LoadingCache<String, EditionContext> contextCache;
 
     @PostConstruct
     public void setup() {
         // initialize the cache
-        contextCache = CacheBuilder.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES).removalListener(new RemovalListener<String, EditionContext>() {
+        contextCache = CacheBuilder.newBuilder().expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES).maximumWeight(maxWeight)
+                .weigher(new Weigher<String, EditionContext>() {
+                    @Override
+                    public int weigh(String key, EditionContext value) {
+                        return value.isEvictable() ? weight(value.getTopology()) : 0;
+                    }
+                }).recordStats().removalListener(new RemovalListener<String, EditionContext>() {
             @Override
             public void onRemoval(RemovalNotification<String, EditionContext> removalNotification) {
+                if (removalNotification.getCause() == RemovalCause.REPLACED) {
+                    // the context is put again to update its weight, it is still cached.
+                    return;
+                }
                 log.debug("Topology edition context with id {} has been evicted. {} pending operations are lost.", removalNotification.getKey(),
                         removalNotification.getValue().getOperations().size());
                 for (AbstractEditorOperation operation : removalNotification.getValue().getOperations()) {
@@ -81,9 +110,42 @@ public class EditionContextManager {
                 // check if the topology git repository has been created already
                 Path topologyGitPath = repositoryService.createGitDirectory(csar);
                 log.debug("Edition context for archive {} loaded", csar);
-                return new EditionContext(csar, topology, topologyGitPath);
+                EditionContext context = new EditionContext(csar, topology, topologyGitPath);
+                // contexts are loaded by init only, the loading request is counted as a usage before the context is weighed.
+                context.markLoaded();
+                return context;
             }
         });
+
+        String prefix = MetricRegistry.name(EditionContextManager.class, "contexts");
+        registerGauge(MetricRegistry.name(prefix, "size"), (Gauge<Long>) contextCache::size);
+        registerGauge(MetricRegistry.name(prefix, "hit-count"), (Gauge<Long>) () -> contextCache.stats().hitCount());
+        registerGauge(MetricRegistry.name(prefix, "miss-count"), (Gauge<Long>) () -> contextCache.stats().missCount());
+        registerGauge(MetricRegistry.name(prefix, "eviction-count"), (Gauge<Long>) () -> contextCache.stats().evictionCount());
+        registerGauge(MetricRegistry.name(prefix, "average-load-penalty-ms"),
+                (Gauge<Double>) () -> contextCache.stats().averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private void registerGauge(String name, Gauge<?> gauge) {
+        metricRegistry.remove(name);
+        metricRegistry.register(name, gauge);
+    }
+
+    private static int weight(Topology topology) {
+        int weight = 1 + AlienUtils.safe(topology.getNodeTemplates()).size() + AlienUtils.safe(topology.getPolicies()).size();
+        if (topology.getNodeTemplates() != null) {
+            weight += topology.getNodeTemplates().values().stream().mapToInt(nodeTemplate -> AlienUtils.safe(nodeTemplate.getRelationships()).size()).sum();
+        }
+        return weight;
+    }
+
+    /**
+     * Get the statistics of the edition contexts cache.
+     *
+     * @return The hit, miss, load time and eviction statistics of the edition contexts cache.
+     */
+    public CacheStats getStats() {
+        return contextCache.stats();
     }
 
     /**
@@ -92,11 +154,32 @@ public class EditionContextManager {
      * @param topologyId The id of the topology.
      */
     @SneakyThrows
-    public synchronized void init(String topologyId) {
-        contextThreadLocal.set(contextCache.get(topologyId));
+    public void init(String topologyId) {
+        EditionContext previous = contextThreadLocal.get();
+        if (previous != null) {
+            // the thread context is replaced without destroy, the previous context is not used anymore.
+            previous.release();
+        }
+        contextThreadLocal.set(use(topologyId));
         ToscaContext.set(contextThreadLocal.get().getToscaContext());
     }
 
+    private EditionContext use(String topologyId) throws ExecutionException {
+        while (true) {
+            EditionContext context = contextCache.get(topologyId);
+            if (context.claimLoadUsage()) {
+                // loaded for this request, already counted and weighed as in use.
+                return context;
+            }
+            context.use();
+            // put the context again so it is weighed as in use, it may have been evicted since we got it.
+            if (contextCache.asMap().replace(topologyId, context, context)) {
+                return context;
+            }
+            context.release();
+        }
+    }
+
     /**
      * Reset the state of the topology context to it's initial state.
      * 
@@ -139,39 +222,44 @@ public class EditionContextManager {
      * Remove thread local contexts.
      */
     public void destroy() {
+        EditionContext context = contextThreadLocal.get();
+        if (context != null) {
+            context.release();
+            // operations may have been added or saved, put the context again (if still cached) so its weight is updated.
+            contextCache.asMap().replace(context.getCsar().getId(), context, context);
+        }
         contextThreadLocal.remove();
         ToscaContext.destroy();
     }
 
     @EventListener
-    public synchronized void handleArchiveRemoved(BeforeArchiveDeleted event) {
+    public void handleArchiveRemoved(BeforeArchiveDeleted event) {
         contextCache.invalidate(event.getArchiveId());
     }
 
     @EventListener
-    public synchronized void handleArchiveUpdated(BeforeArchiveIndexed event) {
+    public void handleArchiveUpdated(BeforeArchiveIndexed event) {
         contextCache.invalidate(event.getArchiveRoot().getArchive().getId());
     }
 
     @EventListener
-    public synchronized void handleArchivePromoted(BeforeArchivePromoted event) {
+    public void handleArchivePromoted(BeforeArchivePromoted event) {
         contextCache.invalidate(event.getArchiveId());
     }
 
-    @SneakyThrows
     @EventListener
-    public synchronized void reportArchiveUsage(ArchiveUsageRequestEvent event) {
-        for (String topologyId : contextCache.asMap().keySet()) {
-            if (isTopologyUsingArchive(event.getArchiveName(), event.getArchiveVersion(), topologyId)) {
-                event.addUsage(new Usage(contextCache.get(topologyId).getCsar().getName(), "Topology editor", topologyId,
-                        contextCache.get(topologyId).getCsar().getWorkspace()));
+    public void reportArchiveUsage(ArchiveUsageRequestEvent event) {
+        // iterate over the loaded contexts only, usage report must not trigger contexts loading.
+        for (Map.Entry<String, EditionContext> contextEntry : contextCache.asMap().entrySet()) {
+            EditionContext context = contextEntry.getValue();
+            if (isTopologyUsingArchive(event.getArchiveName(), event.getArchiveVersion(), context)) {
+                event.addUsage(new Usage(context.getCsar().getName(), "Topology editor", contextEntry.getKey(), context.getCsar().getWorkspace()));
             }
         }
     }
 
-    @SneakyThrows
-    private boolean isTopologyUsingArchive(String archiveName, String archiveVersion, String topologyId) {
-        for (CSARDependency dependency : contextCache.get(topologyId).getToscaContext().getDependencies()) {
+    private boolean isTopologyUsingArchive(String archiveName, String archiveVersion, EditionContext context) {
+        for (CSARDependency dependency : context.getToscaContext().getDependencies()) {
             if (archiveName.equals(dependency.getName()) && archiveVersion.equals(dependency.getVersion())) {
                 return true;
             }
@@ -182,7 +270,7 @@ public class EditionContextManager {
     /**
      * Invalidate all cached objects
      */
-    public synchronized void clearCache() {
+    public void clearCache() {
         contextCache.invalidateAll();
     }
 }
\ No newline at end of file
@@ -96,6 +96,19 @@ public class EditorRepositoryService {
         return RepositoryManager.getHistory(archiveGitPath, from, count);
     }
 
+    /**
+     * Get the git history for a given archive starting just before a given commit.
+     *
+     * @param csar The archive under edition.
+     * @param before The id of the last commit of the previous history page, null to start from the last commit.
+     * @param count The number of history entries to retrieve.
+     * @return A list of simplified history entries.
+     */
+    public List<SimpleGitHistoryEntry> getHistory(Csar csar, String before, int count) {
+        Path archiveGitPath = csarRepositry.getExpandedCSAR(csar.getName(), csar.getVersion());
+        return RepositoryManager.getHistory(archiveGitPath, before, count);
+    }
+
     /**
      * Set a remote repository.
      *
@@ -37,7 +37,9 @@ import org.alien4cloud.tosca.exporter.ArchiveExportService;
 import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
 import org.alien4cloud.tosca.topology.TopologyDTOBuilder;
+import org.alien4cloud.tosca.topology.TopologyFingerprint;
 import org.alien4cloud.tosca.utils.MetaPropertyFeeder;
+import org.alien4cloud.tosca.variable.service.QuickFileStorageService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -51,6 +53,7 @@ import alien4cloud.exception.NotFoundException;
 import alien4cloud.git.SimpleGitHistoryEntry;
 import alien4cloud.security.AuthorizationUtil;
 import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyDeltaDTO;
 import alien4cloud.topology.TopologyService;
 import alien4cloud.topology.TopologyServiceCore;
 import alien4cloud.topology.TopologyValidationResult;
@@ -90,6 +93,8 @@ public class EditorService {
     private CsarService csarService;
     @Inject
     private MetaPropertyFeeder metaFeeder;
+    @Inject
+    private QuickFileStorageService quickFileStorageService;
 
     @Value("${directories.alien}/${directories.upload_temp}")
     private String tempUploadDir;
@@ -160,7 +165,14 @@ public class EditorService {
      *
      * @param operation, The operation under evaluation.
      */
-    private synchronized void checkSynchronization(AbstractEditorOperation operation) {
+    private void checkSynchronization(AbstractEditorOperation operation) {
+        // synchronize on the edition context only so operations on different topologies are not blocking each others.
+        synchronized (EditionContextManager.get()) {
+            doCheckSynchronization(operation);
+        }
+    }
+
+    private void doCheckSynchronization(AbstractEditorOperation operation) {
         // there is an operation being processed so just fail (nobody could get the notification)
         if (EditionContextManager.get().getCurrentOperation() != null) {
             throw new EditionConcurrencyException();
@@ -198,6 +210,33 @@ public class EditorService {
         }
     }
 
+    /**
+     * Trigger an editor operation and get only the changes it applied to the topology rather than the full topology.
+     *
+     * @param topologyId The id of the topology under edition.
+     * @param operation The operation to process.
+     * @return The changes applied to the topology, the client must get the full topology if its last operation is not the base operation of the delta.
+     */
+    @MessageMapping("/topology-editor/{topologyId}/delta")
+    public <T extends AbstractEditorOperation> TopologyDeltaDTO executeDelta(@DestinationVariable String topologyId, T operation) {
+        try {
+            initContext(topologyId, operation);
+
+            // state of the topology as known by the client (optimistic locking ensures it's last operation is the current one).
+            TopologyFingerprint previous = dtoBuilder.getFingerprint(EditionContextManager.get());
+
+            // check for topology potential recovery
+            checkTopologyRecovery();
+
+            doExecute(operation);
+
+            return dtoBuilder.buildTopologyDeltaDTO(EditionContextManager.get(), previous, operation);
+        } finally {
+            EditionContextManager.get().setCurrentOperation(null);
+            editionContextManager.destroy();
+        }
+    }
+
     private <T extends AbstractEditorOperation> void doExecute(T operation) {
         operation.setAuthor(AuthorizationUtil.getCurrentUser().getUserId());
 
@@ -315,6 +354,8 @@ public class EditorService {
             }
             commitMessage.append(operation.getAuthor()).append(": ").append(operation.commitMessage()).append("\n");
         }
+        // variables and inputs files may have been rewritten with the same size and modification date.
+        quickFileStorageService.invalidateArchiveFiles(context.getCsar().getId());
 
         saveYamlAndZipFile();
 
@@ -373,9 +414,15 @@ public class EditorService {
         // Update the yaml in the archive
         Csar csar = EditionContextManager.getCsar();
         Path targetPath = EditionContextManager.get().getLocalGitPath().resolve(csar.getYamlFilePath());
-        String yaml = exportService.getYaml(csar, EditionContextManager.getTopology(),false,csar.getToscaDefinitionsVersion(),metaFeeder.buildContext());
-        try (BufferedWriter writer = Files.newBufferedWriter(targetPath)) {
-            writer.write(yaml);
+        // render to a temporary file of the same directory then replace the yaml so it is never left truncated if rendering fails.
+        Path tempPath = Files.createTempFile(targetPath.getParent(), "." + targetPath.getFileName(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath)) {
+                exportService.writeYaml(csar, EditionContextManager.getTopology(), false, csar.getToscaDefinitionsVersion(), metaFeeder.buildContext(), writer);
+            }
+            Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempPath);
         }
         // Update the archive zip for download
         repositoryService.updateArchiveZip(EditionContextManager.getCsar().getName(), EditionContextManager.getCsar().getVersion());
@@ -406,6 +453,7 @@ public class EditorService {
                 // Ignored
             }
             FileUtil.copy(tempPath, topologyPath);
+            quickFileStorageService.invalidateArchiveFiles(EditionContextManager.getCsar().getId());
             repositoryService.updateArchiveZip(EditionContextManager.getCsar().getName(), EditionContextManager.getCsar().getVersion());
             // and finally save and commit
 
@@ -479,15 +527,19 @@ public class EditorService {
      * 
      * @param topologyId The id of the topology.
      * @param from from which index to get history.
+     * @param before id of the commit from which to get history (excluded), when not null from is ignored.
      * @param count number of histories entry to retrieve.
      * @return a list of simplified git commit entry.
      */
-    public List<SimpleGitHistoryEntry> history(String topologyId, int from, int count) {
+    public List<SimpleGitHistoryEntry> history(String topologyId, int from, String before, int count) {
         try { // No need to check current operation, we just want to get git history.
             editionContextManager.init(topologyId);
             // check authorization to update a topology
             topologyService.checkEditionAuthorizations(EditionContextManager.getTopology());
 
+            if (before != null) {
+                return repositoryService.getHistory(EditionContextManager.getCsar(), before, count);
+            }
             return repositoryService.getHistory(EditionContextManager.getCsar(), from, count);
         } finally {
             editionContextManager.destroy();
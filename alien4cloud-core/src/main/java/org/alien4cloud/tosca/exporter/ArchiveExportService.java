@@ -1,6 +1,8 @@
 package org.alien4cloud.tosca.exporter;
 
+import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -71,6 +73,38 @@ public class ArchiveExportService {
      * @return The TOSCA yaml file that describe the topology.
      */
     public String getYaml(Csar csar, Topology topology, boolean generateWorkflow, String dslVersion, Map<String, Object> velocityCtx) {
+        velocityCtx = buildVelocityContext(csar, topology, generateWorkflow, velocityCtx);
+        try {
+            StringWriter writer = new StringWriter();
+            VelocityUtil.generate(getTemplatePath(dslVersion), writer, velocityCtx);
+            return writer.toString();
+        } catch (Exception e) {
+            log.error("Exception while templating YAML for topology " + topology.getId(), e);
+            return ExceptionUtils.getFullStackTrace(e);
+        }
+    }
+
+    /**
+     * Stream the yaml of a cloud service archive and topology to a writer, the yaml is not built in memory.
+     *
+     * @param csar             The csar that contains archive meta-data.
+     * @param topology         The topology template within the archive.
+     * @param generateWorkflow check if we generate the workflow
+     * @param dslVersion       the TOSCA DSL version to use
+     * @param velocityCtx      allows to provide some extra configuration options to velocity
+     * @param writer           The writer to which to write the TOSCA yaml file that describe the topology, closed once the yaml is written.
+     * @throws IOException In case of a failure while writing.
+     */
+    public void writeYaml(Csar csar, Topology topology, boolean generateWorkflow, String dslVersion, Map<String, Object> velocityCtx, Writer writer)
+            throws IOException {
+        VelocityUtil.generate(getTemplatePath(dslVersion), writer, buildVelocityContext(csar, topology, generateWorkflow, velocityCtx));
+    }
+
+    private String getTemplatePath(String dslVersion) {
+        return "org/alien4cloud/tosca/exporter/topology-" + dslVersion + ".yml.vm";
+    }
+
+    private Map<String, Object> buildVelocityContext(Csar csar, Topology topology, boolean generateWorkflow, Map<String, Object> velocityCtx) {
         if (velocityCtx == null) {
             velocityCtx = new HashMap<>();
         }
@@ -98,15 +132,7 @@ public class ArchiveExportService {
             Application application = applicationService.getOrFail(csar.getDelegateId());
             velocityCtx.put("topology_description", application.getDescription());
         }
-
-        try {
-            StringWriter writer = new StringWriter();
-            VelocityUtil.generate("org/alien4cloud/tosca/exporter/topology-" + dslVersion + ".yml.vm", writer, velocityCtx);
-            return writer.toString();
-        } catch (Exception e) {
-            log.error("Exception while templating YAML for topology " + topology.getId(), e);
-            return ExceptionUtils.getFullStackTrace(e);
-        }
+        return velocityCtx;
     }
 
     // check the presence of at least one custom workflow
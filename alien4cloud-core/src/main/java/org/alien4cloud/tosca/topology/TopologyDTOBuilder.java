@@ -5,11 +5,15 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.alien4cloud.tosca.editor.EditionContext;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.editor.operations.AbstractUpdateFileOperation;
+import org.alien4cloud.tosca.editor.operations.DeleteFileOperation;
 import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
 import org.alien4cloud.tosca.model.definitions.RequirementDefinition;
@@ -31,6 +35,7 @@ import com.google.common.collect.Maps;
 import alien4cloud.topology.AbstractTopologyDTO;
 import alien4cloud.topology.DependencyConflictDTO;
 import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyDeltaDTO;
 import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.tosca.context.ToscaContextual;
 
@@ -62,6 +67,93 @@ public class TopologyDTOBuilder {
         return topologyDTO;
     }
 
+    /**
+     * Get the fingerprint of the topology under edition in its current state.
+     *
+     * @param context The edition context.
+     * @return The fingerprint of the topology of the context.
+     */
+    public TopologyFingerprint getFingerprint(EditionContext context) {
+        String operationId = getLastOperationId(context);
+        TopologyFingerprint fingerprint = context.getFingerprint();
+        if (fingerprint == null || fingerprint.getTopology() != context.getTopology() || !Objects.equals(operationId, fingerprint.getOperationId())) {
+            fingerprint = TopologyFingerprint.compute(context.getTopology(), operationId);
+            context.setFingerprint(fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private String getLastOperationId(EditionContext context) {
+        return context.getLastOperationIndex() < 0 ? null : context.getOperations().get(context.getLastOperationIndex()).getId();
+    }
+
+    /**
+     * Build a topology delta dto that contains the elements of the topology (and their types) that changed since a previous state of the topology.
+     *
+     * @param context The edition context from which to build the dto.
+     * @param previous The fingerprint of the topology before the changes.
+     * @param operation The operation that has been processed.
+     * @return The delta between the previous and current state of the topology.
+     */
+    @ToscaContextual
+    public TopologyDeltaDTO buildTopologyDeltaDTO(EditionContext context, TopologyFingerprint previous, AbstractEditorOperation operation) {
+        Topology topology = context.getTopology();
+        TopologyFingerprint current = getFingerprint(context);
+
+        TopologyDeltaDTO delta = new TopologyDeltaDTO();
+        delta.setBaseOperationId(previous.getOperationId());
+        delta.setOperationId(current.getOperationId());
+        delta.setLastOperationIndex(context.getLastOperationIndex());
+        delta.setOperation(operation);
+
+        delta.setNodeTemplates(changed(topology.getNodeTemplates(), previous.getNodeTemplates(), current.getNodeTemplates()));
+        delta.setRemovedNodeTemplates(removed(previous.getNodeTemplates(), current.getNodeTemplates()));
+        delta.setPolicies(changed(topology.getPolicies(), previous.getPolicies(), current.getPolicies()));
+        delta.setRemovedPolicies(removed(previous.getPolicies(), current.getPolicies()));
+        delta.setWorkflows(changed(topology.getWorkflows(), previous.getWorkflows(), current.getWorkflows()));
+        delta.setRemovedWorkflows(removed(previous.getWorkflows(), current.getWorkflows()));
+        Map<String, Object> sections = Maps.newHashMap();
+        for (Map.Entry<String, Long> section : current.getSections().entrySet()) {
+            if (!section.getValue().equals(previous.getSections().get(section.getKey()))) {
+                sections.put(section.getKey(), TopologyFingerprint.getSection(topology, section.getKey()));
+            }
+        }
+        delta.setSections(sections);
+
+        // fetch the types of the changed templates only, the client already knows the other ones.
+        Topology changedTemplates = new Topology();
+        changedTemplates.setNodeTemplates(delta.getNodeTemplates());
+        changedTemplates.setPolicies(delta.getPolicies());
+        TopologyDTO typesDTO = initTopologyDTO(changedTemplates, new TopologyDTO());
+        delta.setNodeTypes(typesDTO.getNodeTypes());
+        delta.setRelationshipTypes(typesDTO.getRelationshipTypes());
+        delta.setCapabilityTypes(typesDTO.getCapabilityTypes());
+        delta.setDataTypes(typesDTO.getDataTypes());
+        delta.setPolicyTypes(typesDTO.getPolicyTypes());
+
+        if (operation instanceof AbstractUpdateFileOperation || operation instanceof DeleteFileOperation) {
+            delta.setArchiveContentTree(context.getArchiveContentTree());
+        }
+        if (sections.containsKey("dependencies")) {
+            delta.setDependencyConflicts(getDependencyConflictDTOs(context));
+        }
+        return delta;
+    }
+
+    private static <T> Map<String, T> changed(Map<String, T> elements, Map<String, Long> previousHashes, Map<String, Long> currentHashes) {
+        Map<String, T> changed = Maps.newHashMap();
+        for (Map.Entry<String, Long> hash : currentHashes.entrySet()) {
+            if (!hash.getValue().equals(previousHashes.get(hash.getKey()))) {
+                changed.put(hash.getKey(), elements.get(hash.getKey()));
+            }
+        }
+        return changed;
+    }
+
+    private static Set<String> removed(Map<String, Long> previousHashes, Map<String, Long> currentHashes) {
+        return previousHashes.keySet().stream().filter(key -> !currentHashes.containsKey(key)).collect(Collectors.toSet());
+    }
+
     /**
      * Compute a list of transitive dependency conflicts from the Context.
      * 
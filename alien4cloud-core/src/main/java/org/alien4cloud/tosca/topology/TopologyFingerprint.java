@@ -0,0 +1,101 @@
+package org.alien4cloud.tosca.topology;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.alien4cloud.tosca.editor.exception.EditorIOException;
+import org.alien4cloud.tosca.model.templates.Topology;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Content hashes of the elements of a topology (node templates, policies, workflows and other topology level sections). Comparing the fingerprints of a
+ * topology before and after an editor operation gives the elements impacted by the operation.
+ */
+@Getter
+@AllArgsConstructor
+public class TopologyFingerprint {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    /** Topology level sections that are tracked as a whole. */
+    private static final Map<String, Function<Topology, Object>> SECTIONS;
+
+    static {
+        Map<String, Function<Topology, Object>> sections = new LinkedHashMap<>();
+        sections.put("description", Topology::getDescription);
+        sections.put("dependencies", Topology::getDependencies);
+        sections.put("inputs", Topology::getInputs);
+        sections.put("outputProperties", Topology::getOutputProperties);
+        sections.put("outputCapabilityProperties", Topology::getOutputCapabilityProperties);
+        sections.put("outputAttributes", Topology::getOutputAttributes);
+        sections.put("inputArtifacts", Topology::getInputArtifacts);
+        sections.put("groups", Topology::getGroups);
+        sections.put("substitutionMapping", Topology::getSubstitutionMapping);
+        SECTIONS = Collections.unmodifiableMap(sections);
+    }
+
+    /** Id of the last operation applied to the topology when the fingerprint has been computed. */
+    private final String operationId;
+    /** The topology instance for which the fingerprint has been computed. */
+    private final Topology topology;
+    private final Map<String, Long> nodeTemplates;
+    private final Map<String, Long> policies;
+    private final Map<String, Long> workflows;
+    private final Map<String, Long> sections;
+
+    /**
+     * Compute the fingerprint of a topology.
+     *
+     * @param topology The topology.
+     * @param operationId The id of the last operation applied to the topology (may be null).
+     * @return The fingerprint of the topology.
+     * @throws EditorIOException If an element of the topology cannot be serialized.
+     */
+    public static TopologyFingerprint compute(Topology topology, String operationId) {
+        Map<String, Long> sectionHashes = Maps.newHashMap();
+        for (Map.Entry<String, Function<Topology, Object>> section : SECTIONS.entrySet()) {
+            sectionHashes.put(section.getKey(), hash(section.getKey(), section.getValue().apply(topology)));
+        }
+        return new TopologyFingerprint(operationId, topology, hashAll(topology.getNodeTemplates()), hashAll(topology.getPolicies()),
+                hashAll(topology.getWorkflows()), sectionHashes);
+    }
+
+    /**
+     * Get the value of a topology section.
+     *
+     * @param topology The topology.
+     * @param section The name of the section (name of the topology field).
+     * @return The value of the section.
+     */
+    public static Object getSection(Topology topology, String section) {
+        return SECTIONS.get(section).apply(topology);
+    }
+
+    private static Map<String, Long> hashAll(Map<String, ?> elements) {
+        Map<String, Long> hashes = Maps.newHashMap();
+        if (elements != null) {
+            for (Map.Entry<String, ?> element : elements.entrySet()) {
+                hashes.put(element.getKey(), hash(element.getKey(), element.getValue()));
+            }
+        }
+        return hashes;
+    }
+
+    private static long hash(String name, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Hashing.murmur3_128().hashBytes(MAPPER.writeValueAsBytes(value)).asLong();
+        } catch (JsonProcessingException e) {
+            throw new EditorIOException("Unable to serialize the topology element <" + name + "> to compute its fingerprint", e);
+        }
+    }
+}
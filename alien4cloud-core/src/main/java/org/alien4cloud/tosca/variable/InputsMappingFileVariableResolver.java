@@ -47,6 +47,17 @@ public class InputsMappingFileVariableResolver {
         return new InputsMappingFileVariableResolverConfigured(appVariables, envTypeVariables, envVariables, alienContextVariables);
     }
 
+    /**
+     * Configure the resolver with variables already merged (environment variables override environment type variables that override application variables).
+     *
+     * @param variables The merged variables.
+     * @param alienContextVariables The alien context variables.
+     * @return The configured resolver.
+     */
+    public static InputsMappingFileVariableResolverConfigured configure(Properties variables, AlienContextVariables alienContextVariables) {
+        return new InputsMappingFileVariableResolverConfigured(new Properties(), new Properties(), variables, alienContextVariables);
+    }
+
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     public static class InputsMappingFileVariableResolverConfigured {
         private final Properties appVariables;
@@ -1,29 +1,46 @@
 package org.alien4cloud.tosca.variable.service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.alien4cloud.alm.events.AfterApplicationDeleted;
 import org.alien4cloud.git.LocalGitRepositoryPathResolver;
 import org.alien4cloud.tosca.editor.EditorRepositoryService;
 import org.alien4cloud.tosca.utils.PropertiesYamlParser;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.PathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 
 import alien4cloud.model.application.EnvironmentType;
+import alien4cloud.utils.CloneUtil;
 import alien4cloud.utils.FileUtil;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.SneakyThrows;
 
+/**
+ * Load and save the variables and inputs mapping files.
+ *
+ * Parsed files are kept in memory and parsed again only when the file changes (modification date, size or file key). As a file may be rewritten with the
+ * same size within the modification date precision, the services that write the files of an archive invalidate them explicitly. A copy of the parsed
+ * content is returned as variable resolution updates the values in place.
+ */
 @Component
 public class QuickFileStorageService {
     @Inject
@@ -31,6 +48,21 @@ public class QuickFileStorageService {
     @Inject
     private LocalGitRepositoryPathResolver localGitRepositoryPathResolver;
 
+    /** Maximum number of parsed variables and inputs files kept in memory. */
+    @Value("${variables.parsed_files_cache.max_size:#{2000}}")
+    private long maxSize = 2000;
+
+    private Cache<Path, ParsedFile<Properties>> parsedPropertiesCache;
+    private Cache<Path, ParsedFile<Map<String, Object>>> parsedMapsCache;
+    private Cache<String, MergedVariables> mergedVariablesCache;
+
+    @PostConstruct
+    public void init() {
+        parsedPropertiesCache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        parsedMapsCache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        mergedVariablesCache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
     public Properties loadApplicationVariables(String applicationId) {
         Path ymlPath = getApplicationVariablesPath(applicationId);
         return loadYamlToPropertiesIfExists(ymlPath, true);
@@ -78,38 +110,82 @@ public class QuickFileStorageService {
         return loadYamlToMapIfExists(ymlPath, createIfFileNotExists);
     }
 
-    @SneakyThrows
-    private Properties loadYamlToPropertiesIfExists(Path ymlPath, boolean createFileIfNotExists) {
-        Properties props;
-        if (Files.exists(ymlPath)) {
-            Resource appVar = new PathResource(ymlPath);
-            props = PropertiesYamlParser.ToProperties.from(appVar);
-        } else {
-            if (createFileIfNotExists) {
-                Files.createDirectories(ymlPath.getParent());
-                Files.createFile(ymlPath);
-            }
-            props = new Properties();
+    /**
+     * Load the application, environment type and environment variables merged in a single properties object, environment variables override environment
+     * type variables that override application variables. The merge is kept in memory until one of the variable files changes.
+     *
+     * @param applicationId The id of the application.
+     * @param archiveId The id of the archive of the topology in which the environment variables are defined.
+     * @param environmentType The type of the environment.
+     * @param environmentId The id of the environment.
+     * @return The merged variables.
+     */
+    public Properties loadMergedVariables(String applicationId, String archiveId, EnvironmentType environmentType, String environmentId) {
+        Properties appVariables = getCachedProperties(getApplicationVariablesPath(applicationId), true);
+        Properties envTypeVariables = getCachedProperties(
+                editorRepositoryService.resolveArtifact(archiveId, getRelativeEnvironmentTypeVariablesFilePath(environmentType.toString())), true);
+        Properties envVariables = getCachedProperties(
+                editorRepositoryService.resolveArtifact(archiveId, getRelativeEnvironmentVariablesFilePath(environmentId)), true);
+
+        String key = applicationId + ":" + archiveId + ":" + environmentType + ":" + environmentId;
+        MergedVariables mergedVariables = mergedVariablesCache.getIfPresent(key);
+        // parsed files are replaced in the cache when they change so the merge is valid as long as it has been made from the current instances.
+        if (mergedVariables == null || mergedVariables.appVariables != appVariables || mergedVariables.envTypeVariables != envTypeVariables
+                || mergedVariables.envVariables != envVariables) {
+            Properties variables = new Properties();
+            variables.putAll(appVariables);
+            variables.putAll(envTypeVariables);
+            variables.putAll(envVariables);
+            mergedVariables = new MergedVariables(appVariables, envTypeVariables, envVariables, variables);
+            mergedVariablesCache.put(key, mergedVariables);
         }
+        return CloneUtil.clone(mergedVariables.variables);
+    }
 
-        return props;
+    private Properties loadYamlToPropertiesIfExists(Path ymlPath, boolean createFileIfNotExists) {
+        // variable resolution updates the values in place, never expose the cached instance.
+        return CloneUtil.clone(getCachedProperties(ymlPath, createFileIfNotExists));
     }
 
-    @SneakyThrows
     private Map<String, Object> loadYamlToMapIfExists(Path ymlPath, boolean createFileIfNotExists) {
-        Map<String, Object> map;
-        if (Files.exists(ymlPath)) {
-            Resource appVar = new PathResource(ymlPath);
-            map = PropertiesYamlParser.ToMap.from(appVar);
-        } else {
-            if (createFileIfNotExists) {
-                Files.createDirectories(ymlPath.getParent());
-                Files.createFile(ymlPath);
-            }
-            map = Maps.newHashMap();
+        return CloneUtil.clone(getCachedMap(ymlPath, createFileIfNotExists));
+    }
+
+    @SneakyThrows
+    private Properties getCachedProperties(Path ymlPath, boolean createFileIfNotExists) {
+        FileStamp fileStamp = FileStamp.of(ymlPath);
+        if (fileStamp == null) {
+            createIfRequired(ymlPath, createFileIfNotExists);
+            return new Properties();
         }
+        ParsedFile<Properties> parsedFile = parsedPropertiesCache.getIfPresent(ymlPath);
+        if (parsedFile == null || !parsedFile.fileStamp.equals(fileStamp)) {
+            parsedFile = new ParsedFile<>(fileStamp, PropertiesYamlParser.ToProperties.from(new PathResource(ymlPath)));
+            parsedPropertiesCache.put(ymlPath, parsedFile);
+        }
+        return parsedFile.content;
+    }
 
-        return map;
+    @SneakyThrows
+    private Map<String, Object> getCachedMap(Path ymlPath, boolean createFileIfNotExists) {
+        FileStamp fileStamp = FileStamp.of(ymlPath);
+        if (fileStamp == null) {
+            createIfRequired(ymlPath, createFileIfNotExists);
+            return Maps.newHashMap();
+        }
+        ParsedFile<Map<String, Object>> parsedFile = parsedMapsCache.getIfPresent(ymlPath);
+        if (parsedFile == null || !parsedFile.fileStamp.equals(fileStamp)) {
+            parsedFile = new ParsedFile<>(fileStamp, PropertiesYamlParser.ToMap.from(new PathResource(ymlPath)));
+            parsedMapsCache.put(ymlPath, parsedFile);
+        }
+        return parsedFile.content;
+    }
+
+    private void createIfRequired(Path ymlPath, boolean createFileIfNotExists) throws IOException {
+        if (createFileIfNotExists) {
+            Files.createDirectories(ymlPath.getParent());
+            Files.createFile(ymlPath);
+        }
     }
 
     /**
@@ -122,6 +198,8 @@ public class QuickFileStorageService {
     public void saveApplicationVariables(String applicationId, InputStream data) {
         Path ymlPath = getApplicationVariablesPath(applicationId);
         Files.copy(data, ymlPath, StandardCopyOption.REPLACE_EXISTING);
+        // the file may be rewritten within the modification time precision of the file system.
+        invalidate(ymlPath);
     }
 
     @SneakyThrows
@@ -143,6 +221,23 @@ public class QuickFileStorageService {
     public void afterApplicationDeletedEventListener(AfterApplicationDeleted event) {
         Path appVarGitDirectory = localGitRepositoryPathResolver.findApplicationVariableLocalPath(event.getApplicationId());
         FileUtil.delete(appVarGitDirectory);
+        invalidate(getApplicationVariablesPath(event.getApplicationId()));
+    }
+
+    /**
+     * Invalidate the parsed variables and inputs files of an archive, to be called when the files of the archive are written.
+     *
+     * @param archiveId The id of the archive.
+     */
+    public void invalidateArchiveFiles(String archiveId) {
+        Path archivePath = editorRepositoryService.resolveArtifact(archiveId, "");
+        parsedPropertiesCache.asMap().keySet().removeIf(ymlPath -> ymlPath.startsWith(archivePath));
+        parsedMapsCache.asMap().keySet().removeIf(ymlPath -> ymlPath.startsWith(archivePath));
+    }
+
+    private void invalidate(Path ymlPath) {
+        parsedPropertiesCache.invalidate(ymlPath);
+        parsedMapsCache.invalidate(ymlPath);
     }
 
     public Path getApplicationVariablesPath(String applicationId) {
@@ -164,4 +259,45 @@ public class QuickFileStorageService {
     public String getRelativeInputsFilePath() {
         return "inputs/inputs.yml";
     }
+
+    /**
+     * Identifies a version of a file, a file replaced or modified has a different stamp.
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class FileStamp {
+        private final Object fileKey;
+        private final FileTime lastModifiedTime;
+        private final long size;
+
+        /**
+         * Get the stamp of a file.
+         *
+         * @param path The path of the file.
+         * @return The stamp of the file or null if the file does not exists.
+         */
+        private static FileStamp of(Path path) throws IOException {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileStamp(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ParsedFile<T> {
+        private final FileStamp fileStamp;
+        /** The parsed content, never modified nor exposed. */
+        private final T content;
+    }
+
+    @AllArgsConstructor
+    private static class MergedVariables {
+        private final Properties appVariables;
+        private final Properties envTypeVariables;
+        private final Properties envVariables;
+        private final Properties variables;
+    }
 }
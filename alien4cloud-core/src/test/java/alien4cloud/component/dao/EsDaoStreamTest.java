@@ -0,0 +1,80 @@
+package alien4cloud.component.dao;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Resource;
+
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.utils.AlienConstants;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:application-context-test.xml")
+@DirtiesContext
+public class EsDaoStreamTest extends AbstractDAOTest {
+    private static final int NODE_TYPE_COUNT = 25;
+
+    @Resource(name = "alien-es-dao")
+    private IGenericSearchDAO dao;
+
+    private void saveNodeTypes(String archiveName) {
+        for (int i = 0; i < NODE_TYPE_COUNT; i++) {
+            NodeType nodeType = new NodeType();
+            nodeType.setElementId(archiveName + ".Type" + i);
+            nodeType.setArchiveName(archiveName);
+            nodeType.setArchiveVersion("1.0.0");
+            nodeType.setWorkspace(AlienConstants.GLOBAL_WORKSPACE_ID);
+            dao.save(nodeType);
+        }
+    }
+
+    @Test
+    public void streamShouldIterateOverAllPages() {
+        saveNodeTypes("stream-archive");
+
+        try (Stream<NodeType> nodeTypes = dao.stream(NodeType.class, QueryBuilders.termQuery("archiveName", "stream-archive"), null, 10)) {
+            List<NodeType> result = nodeTypes.collect(Collectors.toList());
+            Assert.assertEquals(NODE_TYPE_COUNT, result.size());
+            Assert.assertEquals(NODE_TYPE_COUNT, result.stream().map(NodeType::getId).distinct().count());
+        }
+    }
+
+    @Test
+    public void streamIdsShouldReturnAllIds() {
+        saveNodeTypes("stream-archive");
+
+        try (Stream<String> ids = dao.streamIds(NodeType.class, QueryBuilders.matchAllQuery(), 7)) {
+            Set<String> result = ids.collect(Collectors.toSet());
+            Assert.assertEquals(NODE_TYPE_COUNT, result.size());
+        }
+    }
+
+    @Test
+    public void customFindAllShouldReturnMoreThanOnePage() {
+        saveNodeTypes("stream-archive");
+        Assert.assertEquals(NODE_TYPE_COUNT, dao.customFindAll(NodeType.class, QueryBuilders.matchAllQuery()).size());
+        Assert.assertNull(dao.customFindAll(NodeType.class, QueryBuilders.termQuery("archiveName", "unknown")));
+    }
+
+    @Test
+    public void deleteByQueryShouldRemoveAllMatchingElements() {
+        saveNodeTypes("stream-archive");
+        saveNodeTypes("other-archive");
+
+        dao.delete(NodeType.class, QueryBuilders.termQuery("archiveName", "stream-archive"));
+
+        Assert.assertEquals(0, dao.count(NodeType.class, QueryBuilders.termQuery("archiveName", "stream-archive")));
+        Assert.assertEquals(NODE_TYPE_COUNT, dao.count(NodeType.class, QueryBuilders.termQuery("archiveName", "other-archive")));
+    }
+}
@@ -91,6 +91,23 @@ public class EsQuickSearchTest extends AbstractDAOTest {
         assertElementIn("application", searchResp.getTypes());
     }
 
+    @Test
+    public void multiSearchShouldMergeResultsOfAllSearches() {
+        String searchText = "app";
+        GetMultipleDataResult searchResp = alienDAO.multiSearch(0, 10, alienDAO.buildSearchQuery(NodeType.class, searchText).prepareSearch(),
+                alienDAO.buildSearchQuery(Application.class, searchText).prepareSearch());
+        assertEquals(2, searchResp.getTotalResults());
+        assertEquals(2, searchResp.getData().length);
+        assertElementIn("nodetype", searchResp.getTypes());
+        assertElementIn("application", searchResp.getTypes());
+
+        // the page applies to the merged results.
+        searchResp = alienDAO.multiSearch(1, 10, alienDAO.buildSearchQuery(NodeType.class, searchText).prepareSearch(),
+                alienDAO.buildSearchQuery(Application.class, searchText).prepareSearch());
+        assertEquals(2, searchResp.getTotalResults());
+        assertEquals(1, searchResp.getData().length);
+    }
+
     private void assertElementIn(Object element, Object[] elements) {
         assertTrue(Arrays.asList(elements).contains(element));
     }
@@ -5,6 +5,7 @@ import java.util.Date;
 import javax.annotation.Resource;
 
 import com.google.common.collect.Sets;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
 import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
 import org.alien4cloud.tosca.model.templates.Topology;
@@ -20,6 +21,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import alien4cloud.component.NodeTypeScoreService;
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.tosca.model.ArchiveRoot;
 import alien4cloud.utils.AlienConstants;
 import alien4cloud.utils.MapUtil;
 
@@ -108,4 +110,53 @@ public class NodeTypeScoreServiceTest {
         Assert.assertEquals(isengard100Id, ((NodeType) data.getData()[4]).getId());
         Assert.assertEquals(0, ((NodeType) data.getData()[4]).getAlienScore());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void incrementalRunShouldOnlyScoreImpactedTypes() {
+        NodeType rohan100 = saveNodeType("rohan", "1.0.0");
+        NodeType gondor100 = saveNodeType("gondor", "1.0.0");
+        NodeType rohan101 = null;
+        NodeType gondor101 = null;
+        try {
+            scoreService.run();
+            Assert.assertEquals(1000, dao.findById(NodeType.class, rohan100.getId()).getAlienScore());
+            Assert.assertEquals(1000, dao.findById(NodeType.class, gondor100.getId()).getAlienScore());
+
+            // new versions are indexed but only rohan archive indexation is notified
+            rohan101 = saveNodeType("rohan", "1.0.1");
+            gondor101 = saveNodeType("gondor", "1.0.1");
+            ArchiveRoot archiveRoot = new ArchiveRoot();
+            archiveRoot.getNodeTypes().put(rohan101.getElementId(), rohan101);
+            scoreService.handleArchiveIndexed(new AfterArchiveIndexed(this, archiveRoot));
+            scoreService.runIncremental();
+
+            Assert.assertEquals(0, dao.findById(NodeType.class, rohan100.getId()).getAlienScore());
+            Assert.assertEquals(1000, dao.findById(NodeType.class, rohan101.getId()).getAlienScore());
+            Assert.assertEquals(1000, dao.findById(NodeType.class, gondor100.getId()).getAlienScore());
+            Assert.assertEquals(0, dao.findById(NodeType.class, gondor101.getId()).getAlienScore());
+
+            scoreService.run();
+            Assert.assertEquals(0, dao.findById(NodeType.class, gondor100.getId()).getAlienScore());
+            Assert.assertEquals(1000, dao.findById(NodeType.class, gondor101.getId()).getAlienScore());
+        } finally {
+            // other tests of the class count the indexed node types
+            for (NodeType nodeType : new NodeType[] { rohan100, gondor100, rohan101, gondor101 }) {
+                if (nodeType != null) {
+                    dao.delete(NodeType.class, nodeType.getId());
+                }
+            }
+        }
+    }
+
+    private NodeType saveNodeType(String elementId, String version) {
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId(elementId);
+        nodeType.setArchiveName("middleEarth-" + elementId);
+        nodeType.setArchiveVersion(version);
+        nodeType.setWorkspace(AlienConstants.GLOBAL_WORKSPACE_ID);
+        nodeType.setCreationDate(new Date());
+        nodeType.setLastUpdateDate(new Date());
+        dao.save(nodeType);
+        return nodeType;
+    }
+}
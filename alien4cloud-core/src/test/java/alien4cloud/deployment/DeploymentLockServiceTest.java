@@ -0,0 +1,95 @@
+package alien4cloud.deployment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import alien4cloud.deployment.exceptions.DeploymentLockTimeoutException;
+
+public class DeploymentLockServiceTest {
+    private DeploymentLockService lockService;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        lockService = new DeploymentLockService();
+        lockService.setLockTimeoutSeconds(1);
+        lockService.init();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Future<?> holdWriteLock(String deploymentId, CountDownLatch locked, CountDownLatch release) {
+        return executor.submit(() -> lockService.doWithDeploymentWriteLock(deploymentId, () -> {
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+    }
+
+    @Test
+    public void lockShouldTimeoutWhenHeldByAnotherThread() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = holdWriteLock("deployment", locked, release);
+        Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+        try {
+            lockService.doWithDeploymentReadLock("deployment", () -> null);
+            Assert.fail("Lock should not be acquired while held by another thread.");
+        } catch (DeploymentLockTimeoutException e) {
+            // expected
+        } finally {
+            release.countDown();
+            holder.get();
+        }
+        Assert.assertEquals(Long.valueOf(1), lockService.getContentionByDeployment().get("deployment"));
+        // the lock has been released by the holder
+        Assert.assertEquals("done", lockService.doWithDeploymentWriteLock("deployment", () -> "done"));
+    }
+
+    @Test
+    public void lockedDeploymentShouldNotBlockOtherDeployments() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = holdWriteLock("deployment", locked, release);
+        Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+        try {
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals("done", lockService.doWithDeploymentWriteLock("other-deployment-" + i, () -> "done"));
+            }
+        } finally {
+            release.countDown();
+            holder.get();
+        }
+        Assert.assertTrue(lockService.getContentionByDeployment().isEmpty());
+    }
+
+    @Test
+    public void lockShouldBeReleasedWhenActionFails() {
+        try {
+            lockService.doWithDeploymentWriteLock("deployment", () -> {
+                throw new IllegalStateException();
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals("done", lockService.doWithDeploymentReadLock("deployment", () -> "done"));
+        Assert.assertTrue(lockService.getContentionByDeployment().isEmpty());
+    }
+}
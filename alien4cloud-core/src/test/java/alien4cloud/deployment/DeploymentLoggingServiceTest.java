@@ -0,0 +1,119 @@
+package alien4cloud.deployment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
+import alien4cloud.paas.model.PaaSDeploymentLog;
+import alien4cloud.paas.model.PaaSDeploymentLogLevel;
+
+public class DeploymentLoggingServiceTest {
+    private static final int QUEUE_CAPACITY = 5;
+
+    private IGenericSearchDAO alienMonitorDao;
+    private DeploymentLoggingService loggingService;
+    private CountDownLatch flushing;
+    private CountDownLatch elasticsearchAvailable;
+
+    @Before
+    public void setUp() {
+        alienMonitorDao = Mockito.mock(IGenericSearchDAO.class);
+        flushing = new CountDownLatch(1);
+        elasticsearchAvailable = new CountDownLatch(1);
+        loggingService = new DeploymentLoggingService();
+        loggingService.setAlienMonitorDao(alienMonitorDao);
+        loggingService.setQueueCapacity(QUEUE_CAPACITY);
+    }
+
+    @After
+    public void tearDown() {
+        elasticsearchAvailable.countDown();
+        loggingService.destroy();
+    }
+
+    /** Make the writer wait for elasticsearch in its first flush, so the queue fills up. */
+    private void blockFlushes() {
+        Mockito.doAnswer(invocation -> {
+            flushing.countDown();
+            elasticsearchAvailable.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(alienMonitorDao).save(Matchers.any(PaaSDeploymentLog[].class), Matchers.any(WriteConsistency.class));
+    }
+
+    /** Save a first log that is taken by the blocked writer then fill the queue. */
+    private void fillQueue() throws InterruptedException {
+        loggingService.save(deploymentLog());
+        Assert.assertTrue(flushing.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            loggingService.save(deploymentLog());
+        }
+    }
+
+    private PaaSDeploymentLog deploymentLog() {
+        PaaSDeploymentLog deploymentLog = new PaaSDeploymentLog();
+        deploymentLog.setDeploymentId("deployment");
+        deploymentLog.setContent("log");
+        deploymentLog.setLevel(PaaSDeploymentLogLevel.INFO);
+        return deploymentLog;
+    }
+
+    @Test
+    public void logsShouldBeIndexedInBatches() {
+        loggingService.setBatchSize(10);
+        loggingService.setFlushIntervalMs(50);
+        loggingService.init();
+        for (int i = 0; i < 25; i++) {
+            loggingService.save(deploymentLog());
+        }
+        loggingService.destroy();
+
+        // logs are never indexed one by one when the queue is not full
+        Mockito.verify(alienMonitorDao, Mockito.never()).save(Matchers.any(PaaSDeploymentLog.class), Matchers.any(WriteConsistency.class));
+        Mockito.verify(alienMonitorDao, Mockito.atLeast(3)).save(Matchers.any(PaaSDeploymentLog[].class), Matchers.any(WriteConsistency.class));
+    }
+
+    @Test
+    public void logsShouldBeIndexedByTheCallerWhenQueueIsFullWithSynchronousPolicy() throws InterruptedException {
+        blockFlushes();
+        loggingService.setBatchSize(1);
+        loggingService.setOverflowPolicy(DeploymentLoggingService.OverflowPolicy.SYNCHRONOUS);
+        loggingService.init();
+        fillQueue();
+
+        loggingService.save(deploymentLog());
+        loggingService.save(deploymentLog());
+        Mockito.verify(alienMonitorDao, Mockito.times(2)).save(Matchers.any(PaaSDeploymentLog.class), Matchers.eq(WriteConsistency.NEAR_REAL_TIME));
+
+        elasticsearchAvailable.countDown();
+        loggingService.destroy();
+        // the log held by the writer and the queued ones are indexed by the writer
+        Mockito.verify(alienMonitorDao, Mockito.times(QUEUE_CAPACITY + 1)).save(Matchers.any(PaaSDeploymentLog[].class),
+                Matchers.any(WriteConsistency.class));
+    }
+
+    @Test
+    public void logsShouldBeDroppedWhenQueueIsFullWithDropPolicy() throws InterruptedException {
+        blockFlushes();
+        loggingService.setBatchSize(1);
+        loggingService.setOverflowPolicy(DeploymentLoggingService.OverflowPolicy.DROP);
+        loggingService.init();
+        fillQueue();
+
+        loggingService.save(deploymentLog());
+        loggingService.save(deploymentLog());
+
+        elasticsearchAvailable.countDown();
+        loggingService.destroy();
+        Mockito.verify(alienMonitorDao, Mockito.never()).save(Matchers.any(PaaSDeploymentLog.class), Matchers.any(WriteConsistency.class));
+        Mockito.verify(alienMonitorDao, Mockito.times(QUEUE_CAPACITY + 1)).save(Matchers.any(PaaSDeploymentLog[].class),
+                Matchers.any(WriteConsistency.class));
+    }
+}
@@ -0,0 +1,172 @@
+package alien4cloud.deployment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import alien4cloud.paas.IPaaSCallback;
+import alien4cloud.paas.model.DeploymentStatus;
+import alien4cloud.paas.model.InstanceInformation;
+import alien4cloud.paas.model.InstanceStatus;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+import alien4cloud.paas.model.PaaSInstanceStateMonitorEvent;
+
+public class DeploymentRuntimeStateCacheTest {
+    private static final String DEPLOYMENT_ID = "deployment";
+
+    private DeploymentRuntimeStateCache runtimeStateCache;
+    private AtomicInteger orchestratorQueries;
+
+    @Before
+    public void setUp() {
+        runtimeStateCache = new DeploymentRuntimeStateCache();
+        runtimeStateCache.init();
+        orchestratorQueries = new AtomicInteger();
+    }
+
+    private <V> V get(V orchestratorValue, boolean status) {
+        List<V> results = Lists.newArrayList();
+        IPaaSCallback<V> callback = new IPaaSCallback<V>() {
+            @Override
+            public void onSuccess(V data) {
+                results.add(data);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                Assert.fail();
+            }
+        };
+        if (status) {
+            runtimeStateCache.getDeploymentStatus(DEPLOYMENT_ID, (IPaaSCallback<DeploymentStatus>) callback, loaderCallback -> {
+                orchestratorQueries.incrementAndGet();
+                loaderCallback.onSuccess((DeploymentStatus) orchestratorValue);
+            });
+        } else {
+            runtimeStateCache.getInstancesInformation(DEPLOYMENT_ID, (IPaaSCallback<Map<String, Map<String, InstanceInformation>>>) callback,
+                    loaderCallback -> {
+                        orchestratorQueries.incrementAndGet();
+                        loaderCallback.onSuccess((Map<String, Map<String, InstanceInformation>>) orchestratorValue);
+                    });
+        }
+        Assert.assertEquals(1, results.size());
+        return results.get(0);
+    }
+
+    private static Map<String, Map<String, InstanceInformation>> instances(String nodeId, String instanceId, String state) {
+        Map<String, InstanceInformation> nodeInstances = Maps.newHashMap();
+        nodeInstances.put(instanceId, new InstanceInformation(state, InstanceStatus.SUCCESS, null, null, null));
+        Map<String, Map<String, InstanceInformation>> instances = Maps.newHashMap();
+        instances.put(nodeId, nodeInstances);
+        return instances;
+    }
+
+    private static PaaSInstanceStateMonitorEvent instanceEvent(String nodeId, String instanceId, String state) {
+        PaaSInstanceStateMonitorEvent event = new PaaSInstanceStateMonitorEvent();
+        event.setDeploymentId(DEPLOYMENT_ID);
+        event.setNodeTemplateId(nodeId);
+        event.setInstanceId(instanceId);
+        event.setInstanceState(state);
+        event.setInstanceStatus(state == null ? null : InstanceStatus.PROCESSING);
+        return event;
+    }
+
+    @Test
+    public void statusShouldBeServedFromMemoryAndUpdatedByEvents() {
+        Assert.assertEquals(DeploymentStatus.DEPLOYMENT_IN_PROGRESS, get(DeploymentStatus.DEPLOYMENT_IN_PROGRESS, true));
+        Assert.assertEquals(DeploymentStatus.DEPLOYMENT_IN_PROGRESS, get(DeploymentStatus.FAILURE, true));
+        Assert.assertEquals(1, orchestratorQueries.get());
+
+        PaaSDeploymentStatusMonitorEvent event = new PaaSDeploymentStatusMonitorEvent();
+        event.setDeploymentId(DEPLOYMENT_ID);
+        event.setDeploymentStatus(DeploymentStatus.DEPLOYED);
+        Assert.assertTrue(runtimeStateCache.canHandle(event));
+        runtimeStateCache.eventHappened(event);
+        Assert.assertEquals(DeploymentStatus.DEPLOYED, get(DeploymentStatus.FAILURE, true));
+        Assert.assertEquals(1, orchestratorQueries.get());
+    }
+
+    @Test
+    public void instancesShouldBeUpdatedByEvents() {
+        Map<String, Map<String, InstanceInformation>> loaded = get(instances("Compute", "0", "starting"), false);
+        runtimeStateCache.eventHappened(instanceEvent("Compute", "0", "started"));
+        runtimeStateCache.eventHappened(instanceEvent("Compute", "1", "creating"));
+
+        Map<String, Map<String, InstanceInformation>> instances = get(null, false);
+        Assert.assertEquals(1, orchestratorQueries.get());
+        Assert.assertEquals("started", instances.get("Compute").get("0").getState());
+        Assert.assertEquals("creating", instances.get("Compute").get("1").getState());
+        // maps served before the event are not modified
+        Assert.assertEquals("starting", loaded.get("Compute").get("0").getState());
+        Assert.assertEquals(1, loaded.get("Compute").size());
+
+        runtimeStateCache.eventHappened(instanceEvent("Compute", "0", null));
+        runtimeStateCache.eventHappened(instanceEvent("Compute", "1", null));
+        Assert.assertTrue(get(null, false).isEmpty());
+        Assert.assertEquals(1, orchestratorQueries.get());
+    }
+
+    @Test
+    public void outdatedStateShouldBeReconciledWithOrchestrator() {
+        runtimeStateCache.setMaxAgeMs(0);
+        get(instances("Compute", "0", "started"), false);
+        runtimeStateCache.eventHappened(instanceEvent("Compute", "1", "started"));
+        Map<String, Map<String, InstanceInformation>> instances = get(instances("Compute", "0", "started"), false);
+        Assert.assertEquals(2, orchestratorQueries.get());
+        Assert.assertEquals(1, instances.get("Compute").size());
+    }
+
+    @Test
+    public void concurrentMissesShouldQueryOrchestratorOnce() {
+        List<IPaaSCallback<DeploymentStatus>> loaderCallbacks = Lists.newArrayList();
+        List<DeploymentStatus> results = Lists.newArrayList();
+        IPaaSCallback<DeploymentStatus> callback = new IPaaSCallback<DeploymentStatus>() {
+            @Override
+            public void onSuccess(DeploymentStatus data) {
+                results.add(data);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                Assert.fail();
+            }
+        };
+        runtimeStateCache.getDeploymentStatus(DEPLOYMENT_ID, callback, loaderCallbacks::add);
+        runtimeStateCache.getDeploymentStatus(DEPLOYMENT_ID, callback, loaderCallbacks::add);
+        Assert.assertEquals(1, loaderCallbacks.size());
+        Assert.assertTrue(results.isEmpty());
+
+        loaderCallbacks.get(0).onSuccess(DeploymentStatus.DEPLOYED);
+        Assert.assertEquals(Lists.newArrayList(DeploymentStatus.DEPLOYED, DeploymentStatus.DEPLOYED), results);
+    }
+
+    @Test
+    public void eventsReceivedWhileQueryingShouldNotBeOverridden() {
+        List<IPaaSCallback<Map<String, Map<String, InstanceInformation>>>> loaderCallbacks = Lists.newArrayList();
+        get(instances("Compute", "0", "started"), false);
+        runtimeStateCache.setMaxAgeMs(0);
+        runtimeStateCache.getInstancesInformation(DEPLOYMENT_ID, new IPaaSCallback<Map<String, Map<String, InstanceInformation>>>() {
+            @Override
+            public void onSuccess(Map<String, Map<String, InstanceInformation>> data) {
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                Assert.fail();
+            }
+        }, loaderCallbacks::add);
+        runtimeStateCache.eventHappened(instanceEvent("Compute", "0", "stopped"));
+        loaderCallbacks.get(0).onSuccess(instances("Compute", "0", "started"));
+
+        // the orchestrator view is outdated, the event state is kept until next reconciliation
+        runtimeStateCache.setMaxAgeMs(60000);
+        Assert.assertEquals("stopped", get(null, false).get("Compute").get("0").getState());
+    }
+}
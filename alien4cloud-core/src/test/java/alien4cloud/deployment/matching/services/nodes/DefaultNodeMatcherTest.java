@@ -190,6 +190,38 @@ public class DefaultNodeMatcherTest {
         assertThat(proposition.get(0).isService()).isTrue();
     }
 
+    @Test
+    public void matching_many_nodes_should_exclude_location_resources_with_different_property_values() throws Exception {
+        // Given
+        PropertyDefinition propertyDefinition = new PropertyDefinition();
+        propertyDefinition.setType("integer");
+        computeNodeType.setProperties(ImmutableMap.of("num_cpus", propertyDefinition));
+        computeNodeTemplate.setProperties(ImmutableMap.of("num_cpus", new ScalarPropertyValue("2")));
+
+        // When
+        NodeTemplate twoCpusNodeTemplate = nodeTemplate("tosca.nodes.Compute");
+        twoCpusNodeTemplate.setProperties(ImmutableMap.of("num_cpus", new ScalarPropertyValue("2")));
+        NodeTemplate fourCpusNodeTemplate = nodeTemplate("tosca.nodes.Compute");
+        fourCpusNodeTemplate.setProperties(ImmutableMap.of("num_cpus", new ScalarPropertyValue("4")));
+        NodeTemplate invalidCpusNodeTemplate = nodeTemplate("tosca.nodes.Compute");
+        invalidCpusNodeTemplate.setProperties(ImmutableMap.of("num_cpus", new ScalarPropertyValue("two")));
+
+        Map<String, NodeTemplate> wantedNodeTemplates = ImmutableMap.of("two", twoCpusNodeTemplate, "four", fourCpusNodeTemplate, "invalid",
+                invalidCpusNodeTemplate);
+        Map<String, List<LocationResourceTemplate>> propositions = nodeMatcher.matchNodes(wantedNodeTemplates,
+                ImmutableMap.of("tosca.nodes.Compute", new NodeType()), locationResources, new HashMap<>());
+
+        // Then
+        assertThat(propositions.get("two")).hasSize(1);
+        assertThat(propositions.get("four")).isEmpty();
+        assertThat(propositions.get("invalid")).isEmpty();
+        // indexed matching has the same results than matching a single node
+        for (Map.Entry<String, NodeTemplate> wantedNodeTemplate : wantedNodeTemplates.entrySet()) {
+            assertThat(propositions.get(wantedNodeTemplate.getKey()))
+                    .isEqualTo(nodeMatcher.matchNode(wantedNodeTemplate.getValue(), new NodeType(), locationResources, new HashMap<>()));
+        }
+    }
+
     private NodeType nodeType(String elementId, String... derivedTypes) {
         NodeType nodeType = new NodeType();
         nodeType.setAbstract(false);
@@ -0,0 +1,114 @@
+package alien4cloud.deployment.matching.services.nodes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.alien4cloud.tosca.model.definitions.AbstractPropertyValue;
+import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
+import org.alien4cloud.tosca.model.definitions.ScalarPropertyValue;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+import alien4cloud.model.deployment.matching.MatchingConfiguration;
+import alien4cloud.model.orchestrators.locations.LocationResourceTemplate;
+import alien4cloud.model.orchestrators.locations.LocationResources;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Match a large topology against a location with many on-demand resources, node by node and with the indexed matching, and report the durations.
+ */
+@Slf4j
+public class NodeMatchingBenchmarkTest {
+    private static final int RESOURCE_TYPES = 20;
+    private static final int RESOURCES_PER_TYPE = 100;
+    private static final int NODES = 200;
+    private static final int INSTANCE_TYPES = 10;
+    private static final int ITERATIONS = 5;
+
+    private final DefaultNodeMatcher nodeMatcher = new DefaultNodeMatcher();
+
+    @Test
+    public void matchNodes() {
+        LocationResources locationResources = generateLocationResources();
+        Map<String, NodeTemplate> nodeTemplates = generateNodeTemplates();
+        Map<String, NodeType> nodeTypes = Maps.newHashMap();
+        nodeTypes.put("tosca.nodes.Compute", new NodeType());
+        Map<String, MatchingConfiguration> matchingConfigurations = Maps.newHashMap();
+
+        long linearDuration = 0;
+        long indexedDuration = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            Map<String, List<LocationResourceTemplate>> linearResults = Maps.newHashMap();
+            for (Map.Entry<String, NodeTemplate> nodeTemplateEntry : nodeTemplates.entrySet()) {
+                linearResults.put(nodeTemplateEntry.getKey(),
+                        nodeMatcher.matchNode(nodeTemplateEntry.getValue(), new NodeType(), locationResources, matchingConfigurations));
+            }
+            linearDuration += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Map<String, List<LocationResourceTemplate>> indexedResults = nodeMatcher.matchNodes(nodeTemplates, nodeTypes, locationResources,
+                    matchingConfigurations);
+            indexedDuration += System.nanoTime() - start;
+
+            Assert.assertEquals(linearResults, indexedResults);
+        }
+
+        log.info("Matched {} nodes against {} location resources in {} ms node by node and in {} ms with the index (average of {} iterations)", NODES,
+                RESOURCE_TYPES * RESOURCES_PER_TYPE, linearDuration / ITERATIONS / 1000000, indexedDuration / ITERATIONS / 1000000, ITERATIONS);
+    }
+
+    private LocationResources generateLocationResources() {
+        LocationResources locationResources = new LocationResources();
+        PropertyDefinition instanceTypeDefinition = new PropertyDefinition();
+        instanceTypeDefinition.setType("string");
+        PropertyDefinition cpusDefinition = new PropertyDefinition();
+        cpusDefinition.setType("integer");
+        Map<String, PropertyDefinition> propertyDefinitions = Maps.newHashMap();
+        propertyDefinitions.put("instance_type", instanceTypeDefinition);
+        propertyDefinitions.put("num_cpus", cpusDefinition);
+
+        for (int typeIndex = 0; typeIndex < RESOURCE_TYPES; typeIndex++) {
+            NodeType nodeType = new NodeType();
+            nodeType.setElementId("org.alien4cloud.benchmark.Compute" + typeIndex);
+            nodeType.setDerivedFrom(Arrays.asList("tosca.nodes.Compute", "tosca.nodes.Root"));
+            nodeType.setProperties(propertyDefinitions);
+            locationResources.getNodeTypes().put(nodeType.getElementId(), nodeType);
+
+            for (int resourceIndex = 0; resourceIndex < RESOURCES_PER_TYPE; resourceIndex++) {
+                NodeTemplate nodeTemplate = new NodeTemplate();
+                nodeTemplate.setType(nodeType.getElementId());
+                Map<String, AbstractPropertyValue> properties = Maps.newHashMap();
+                properties.put("instance_type", new ScalarPropertyValue("instance_" + (resourceIndex % INSTANCE_TYPES)));
+                properties.put("num_cpus", new ScalarPropertyValue(String.valueOf(resourceIndex % 4 + 1)));
+                nodeTemplate.setProperties(properties);
+                LocationResourceTemplate locationResourceTemplate = new LocationResourceTemplate();
+                locationResourceTemplate.setId(nodeType.getElementId() + "_" + resourceIndex);
+                locationResourceTemplate.setTemplate(nodeTemplate);
+                locationResources.getNodeTemplates().add(locationResourceTemplate);
+            }
+        }
+        return locationResources;
+    }
+
+    private Map<String, NodeTemplate> generateNodeTemplates() {
+        Map<String, NodeTemplate> nodeTemplates = Maps.newHashMap();
+        for (int i = 0; i < NODES; i++) {
+            NodeTemplate nodeTemplate = new NodeTemplate();
+            nodeTemplate.setType("tosca.nodes.Compute");
+            Map<String, AbstractPropertyValue> properties = Maps.newHashMap();
+            properties.put("instance_type", new ScalarPropertyValue("instance_" + (i % INSTANCE_TYPES)));
+            if (i % 2 == 0) {
+                properties.put("num_cpus", new ScalarPropertyValue(String.valueOf(i % 4 + 1)));
+            }
+            nodeTemplate.setProperties(properties);
+            nodeTemplates.put("Compute_" + i, nodeTemplate);
+        }
+        return nodeTemplates;
+    }
+}
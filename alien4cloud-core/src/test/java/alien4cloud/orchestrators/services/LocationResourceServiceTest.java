@@ -5,11 +5,15 @@ import java.util.UUID;
 
 import javax.annotation.Resource;
 
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.types.NodeType;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -17,11 +21,14 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.model.orchestrators.locations.Location;
 import alien4cloud.model.orchestrators.locations.LocationResourceTemplate;
+import alien4cloud.model.orchestrators.locations.LocationResources;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
 import alien4cloud.orchestrators.locations.services.ILocationResourceService;
 import alien4cloud.orchestrators.plugin.ILocationResourceAccessor;
+import alien4cloud.tosca.model.ArchiveRoot;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("classpath:application-context-test.xml")
@@ -32,6 +39,8 @@ public class LocationResourceServiceTest {
     private IGenericSearchDAO alienDAO;
     @Resource(name = "location-resource-service")
     private ILocationResourceService locationResourceService;
+    @Resource
+    private ApplicationContext applicationContext;
 
     private static final String LOCATION_ID = "location";
     private static final String UNCONFIGURED_LOCATION_ID = "unconfigured-location";
@@ -39,6 +48,8 @@ public class LocationResourceServiceTest {
     private static final int TYPE_CONFIGURED_ELEMENTS = 20;
     private static final int LOCATION_CONFIGURED_ELEMENTS = 100;
     private static final String UNCONFIGURED_TYPE = "unconfigured_type";
+    private static final String TYPED_LOCATION_ID = "typed-location";
+    private static final String LOCATION_TYPE = "location.nodes.Compute";
 
     @Before
     public void init() {
@@ -109,4 +120,57 @@ public class LocationResourceServiceTest {
         List<LocationResourceTemplate> resources = accessor.getResources(CONFIGURED_TYPE);
         Assert.assertEquals(0, resources.size());
     }
+
+    @Test
+    public void locationTypesShouldBeSharedUntilArchivesChange() {
+        Location location = initTypedLocation();
+
+        LocationResources locationResources = locationResourceService.getLocationResources(location);
+        Assert.assertTrue(locationResources.getNodeTypes().containsKey(LOCATION_TYPE));
+        Assert.assertEquals(1, locationResources.getNodeTemplates().size());
+        // callers filter the resources they get, this must not impact the next calls
+        locationResources.getNodeTypes().clear();
+        locationResources.getNodeTemplates().clear();
+
+        LocationResources cachedLocationResources = locationResourceService.getLocationResources(location);
+        Assert.assertEquals(1, cachedLocationResources.getNodeTemplates().size());
+        Assert.assertEquals(LOCATION_TYPE, cachedLocationResources.getNodeTemplates().get(0).getTemplate().getType());
+        NodeType cachedType = cachedLocationResources.getNodeTypes().get(LOCATION_TYPE);
+        Assert.assertNotNull(cachedType);
+
+        Assert.assertSame(cachedType, locationResourceService.getLocationResources(location).getNodeTypes().get(LOCATION_TYPE));
+
+        applicationContext.publishEvent(new AfterArchiveIndexed(this, new ArchiveRoot()));
+        NodeType reloadedType = locationResourceService.getLocationResources(location).getNodeTypes().get(LOCATION_TYPE);
+        Assert.assertNotNull(reloadedType);
+        Assert.assertNotSame(cachedType, reloadedType);
+    }
+
+    private Location initTypedLocation() {
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId(LOCATION_TYPE);
+        nodeType.setArchiveName("location-types");
+        nodeType.setArchiveVersion("1.0");
+        alienDAO.save(nodeType);
+
+        Location location = new Location();
+        location.setId(TYPED_LOCATION_ID);
+        location.setOrchestratorId("unknown-orchestrator");
+        location.setDependencies(Sets.newHashSet(new CSARDependency("location-types", "1.0")));
+        alienDAO.save(location);
+
+        NodeTemplate template = new NodeTemplate();
+        template.setType(LOCATION_TYPE);
+        template.setName("compute");
+        LocationResourceTemplate lrt = new LocationResourceTemplate();
+        lrt.setId(UUID.randomUUID().toString());
+        lrt.setLocationId(TYPED_LOCATION_ID);
+        lrt.setGenerated(false);
+        lrt.setEnabled(true);
+        lrt.setService(false);
+        lrt.setTemplate(template);
+        lrt.setTypes(Lists.newArrayList(template.getType()));
+        alienDAO.save(lrt);
+        return location;
+    }
 }
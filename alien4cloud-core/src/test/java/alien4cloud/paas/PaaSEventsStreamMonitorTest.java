@@ -0,0 +1,111 @@
+package alien4cloud.paas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+
+import org.elasticsearch.index.query.QueryBuilders;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.PaaSMessageMonitorEvent;
+
+/**
+ * Test dispatch, persistence and back-pressure of the events pushed by orchestrators.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:application-context-test.xml")
+@DirtiesContext
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class PaaSEventsStreamMonitorTest {
+
+    @Resource(name = "alien-monitor-es-dao")
+    private IGenericSearchDAO alienMonitorDao;
+
+    @Test
+    public void testPublishedEventsAreDispatchedAndPersisted() throws InterruptedException {
+        IPaasEventListener listener = Mockito.mock(IPaasEventListener.class);
+        Mockito.when(listener.canHandle(Matchers.any(AbstractMonitorEvent.class))).thenReturn(true);
+        PaaSEventsStreamMonitor monitor = new PaaSEventsStreamMonitor(alienMonitorDao, Lists.newArrayList(listener), "stream-orchestrator", 10, 25,
+                new MetricRegistry());
+        monitor.setEventsWriteConsistency(WriteConsistency.IMMEDIATE);
+        monitor.start();
+
+        // more events than the queue capacity, publish waits for the dispatcher.
+        for (int i = 0; i < 120; i++) {
+            PaaSMessageMonitorEvent event = new PaaSMessageMonitorEvent();
+            event.setDeploymentId("deployment");
+            event.setMessage("message " + i);
+            assertTrue(monitor.publish(event, 10, TimeUnit.SECONDS));
+        }
+        monitor.stop(10000);
+
+        ArgumentCaptor<AbstractMonitorEvent> dispatched = ArgumentCaptor.forClass(AbstractMonitorEvent.class);
+        Mockito.verify(listener, Mockito.times(120)).eventHappened(dispatched.capture());
+        for (AbstractMonitorEvent event : dispatched.getAllValues()) {
+            assertEquals("stream-orchestrator", event.getOrchestratorId());
+            assertTrue(event.getDate() > 0);
+        }
+        assertEquals(120, alienMonitorDao.count(PaaSMessageMonitorEvent.class, QueryBuilders.termQuery("orchestratorId", "stream-orchestrator")));
+    }
+
+    @Test
+    public void testPublishIsRejectedAfterTimeoutWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch dispatching = new CountDownLatch(1);
+        CountDownLatch listenerAvailable = new CountDownLatch(1);
+        IPaasEventListener listener = Mockito.mock(IPaasEventListener.class);
+        Mockito.when(listener.canHandle(Matchers.any(AbstractMonitorEvent.class))).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            dispatching.countDown();
+            listenerAvailable.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(listener).eventHappened(Matchers.any(AbstractMonitorEvent.class));
+        MetricRegistry metricRegistry = new MetricRegistry();
+        PaaSEventsStreamMonitor monitor = new PaaSEventsStreamMonitor(alienMonitorDao, Lists.newArrayList(listener), "slow-orchestrator", 1, 1,
+                metricRegistry);
+        monitor.start();
+
+        try {
+            // the first event is held by the dispatcher that waits for the listener, the second one fills the queue.
+            assertTrue(monitor.publish(new PaaSMessageMonitorEvent(), 1, TimeUnit.SECONDS));
+            assertTrue(dispatching.await(10, TimeUnit.SECONDS));
+            assertTrue(monitor.publish(new PaaSMessageMonitorEvent(), 1, TimeUnit.SECONDS));
+            assertFalse(monitor.publish(new PaaSMessageMonitorEvent(), 100, TimeUnit.MILLISECONDS));
+
+            String metricsPrefix = MetricRegistry.name(PaaSEventsStreamMonitor.class, "slow-orchestrator");
+            assertEquals(1, metricRegistry.counter(MetricRegistry.name(metricsPrefix, "blocked-publishes")).getCount());
+            assertEquals(1, metricRegistry.meter(MetricRegistry.name(metricsPrefix, "rejected")).getCount());
+        } finally {
+            listenerAvailable.countDown();
+            monitor.stop(10000);
+        }
+        Mockito.verify(listener, Mockito.times(2)).eventHappened(Matchers.any(AbstractMonitorEvent.class));
+    }
+
+    @Test
+    public void testPublishIsRejectedWhenMonitorIsStopped() throws InterruptedException {
+        IPaasEventListener listener = Mockito.mock(IPaasEventListener.class);
+        PaaSEventsStreamMonitor monitor = new PaaSEventsStreamMonitor(alienMonitorDao, Lists.newArrayList(listener), "stopped-orchestrator", 10, 25,
+                new MetricRegistry());
+
+        assertFalse(monitor.publish(new PaaSMessageMonitorEvent(), 1, TimeUnit.MILLISECONDS));
+        Mockito.verifyZeroInteractions(listener);
+    }
+}
@@ -0,0 +1,100 @@
+package alien4cloud.paas;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.codahale.metrics.MetricRegistry;
+
+import alien4cloud.paas.PaaSProviderPollingMonitor.IPollingCallback;
+import alien4cloud.paas.PaaSProviderPollingMonitor.PollingOutcome;
+
+public class PaaSPollingSchedulerTest {
+    private static final long INTERVAL_MS = 1000;
+
+    private final LinkedList<Runnable> scheduledPollings = new LinkedList<>();
+    private final LinkedList<Long> scheduledDelays = new LinkedList<>();
+    private final LinkedList<Integer> polledBatchSizes = new LinkedList<>();
+    /** Number of events the mocked orchestrator returns on next pollings, -1 for no active deployment. */
+    private final LinkedList<Integer> eventCounts = new LinkedList<>();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private PaaSPollingScheduler pollingScheduler;
+
+    @Before
+    public void init() {
+        TaskScheduler taskScheduler = Mockito.mock(TaskScheduler.class);
+        Mockito.when(taskScheduler.schedule(Matchers.any(Runnable.class), Matchers.any(Date.class))).thenAnswer(invocation -> {
+            scheduledPollings.add((Runnable) invocation.getArguments()[0]);
+            // round to the closest second to ignore execution time
+            scheduledDelays.add(Math.round((((Date) invocation.getArguments()[1]).getTime() - System.currentTimeMillis()) / 1000d) * 1000);
+            return null;
+        });
+        pollingScheduler = new PaaSPollingScheduler();
+        pollingScheduler.setScheduler(taskScheduler);
+        pollingScheduler.setMonitorIntervalMs(INTERVAL_MS);
+        pollingScheduler.setMaxIntervalMs(4 * INTERVAL_MS);
+        pollingScheduler.setMinBatchSize(100);
+        pollingScheduler.setMaxBatchSize(400);
+        pollingScheduler.setMetricRegistry(metricRegistry);
+
+        PaaSProviderPollingMonitor monitor = Mockito.mock(PaaSProviderPollingMonitor.class);
+        Mockito.when(monitor.getLastPollingDate()).thenReturn(new Date());
+        Mockito.when(monitor.poll(Matchers.anyInt(), Matchers.any(IPollingCallback.class))).thenAnswer(invocation -> {
+            polledBatchSizes.add((Integer) invocation.getArguments()[0]);
+            int eventCount = eventCounts.removeFirst();
+            IPollingCallback callback = (IPollingCallback) invocation.getArguments()[1];
+            if (eventCount < 0) {
+                callback.onPollingDone(PollingOutcome.NO_DEPLOYMENT, 0);
+            } else {
+                callback.onPollingDone(PollingOutcome.POLLED, eventCount);
+            }
+            return true;
+        });
+        pollingScheduler.register("orchestrator", monitor);
+    }
+
+    private long runNextPolling(int eventCount) {
+        eventCounts.add(eventCount);
+        scheduledPollings.removeFirst().run();
+        return scheduledDelays.getLast();
+    }
+
+    @Test
+    public void idleOrchestratorShouldBeBackedOff() {
+        Assert.assertEquals(0, scheduledDelays.getFirst().longValue());
+        Assert.assertEquals(2 * INTERVAL_MS, runNextPolling(-1));
+        Assert.assertEquals(4 * INTERVAL_MS, runNextPolling(0));
+        Assert.assertEquals(4 * INTERVAL_MS, runNextPolling(0));
+        // events reset the interval
+        Assert.assertEquals(INTERVAL_MS, runNextPolling(10));
+    }
+
+    @Test
+    public void lateOrchestratorShouldBePolledImmediatelyWithLargerBatches() {
+        Assert.assertEquals(0, runNextPolling(100));
+        Assert.assertEquals(0, runNextPolling(200));
+        Assert.assertEquals(0, runNextPolling(400));
+        Assert.assertEquals(INTERVAL_MS, runNextPolling(300));
+        // batch size decreases when the orchestrator has less events
+        Assert.assertEquals(INTERVAL_MS, runNextPolling(10));
+        runNextPolling(10);
+        Assert.assertArrayEquals(new Integer[] { 100, 200, 400, 400, 400, 200 }, polledBatchSizes.toArray(new Integer[0]));
+    }
+
+    @Test
+    public void metricsShouldBeRemovedWhenOrchestratorIsUnregistered() {
+        runNextPolling(10);
+        String prefix = MetricRegistry.name(PaaSPollingScheduler.class, "orchestrator");
+        Assert.assertTrue(metricRegistry.getMeters().containsKey(MetricRegistry.name(prefix, "events")));
+        Assert.assertTrue(metricRegistry.getGauges().containsKey(MetricRegistry.name(prefix, "last-event-age-ms")));
+
+        pollingScheduler.unregister("orchestrator");
+        Assert.assertTrue(metricRegistry.getNames().stream().noneMatch(name -> name.startsWith(prefix + ".")));
+    }
+}
@@ -0,0 +1,77 @@
+package alien4cloud.plugin;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.plugin.model.PluginDescriptor;
+
+public class PluginLoadingSchedulerTest {
+    private static final String FAILING_PLUGIN = "failing";
+
+    private final Set<String> loadedPlugins = Sets.newConcurrentHashSet();
+    private final List<String> loadingOrder = Collections.synchronizedList(Lists.newArrayList());
+
+    @Test
+    public void pluginsShouldBeLoadedAfterTheirDependencies() {
+        Map<String, Plugin> pendingPlugins = pendingPlugins(plugin("a"), plugin("b", "a"), plugin("c", "b"), plugin("d", "a", "c"), plugin("e"));
+
+        List<String> results = new PluginLoadingScheduler(4).load(pendingPlugins, this::dependenciesLoaded, this::load);
+
+        Assert.assertTrue(pendingPlugins.isEmpty());
+        Assert.assertEquals(Sets.newHashSet("a", "b", "c", "d", "e"), Sets.newHashSet(results));
+        Assert.assertTrue(loadingOrder.indexOf("a") < loadingOrder.indexOf("b"));
+        Assert.assertTrue(loadingOrder.indexOf("b") < loadingOrder.indexOf("c"));
+        Assert.assertTrue(loadingOrder.indexOf("c") < loadingOrder.indexOf("d"));
+    }
+
+    @Test
+    public void failingPluginShouldNotStopTheLoadingOfOtherPlugins() {
+        Map<String, Plugin> pendingPlugins = pendingPlugins(plugin(FAILING_PLUGIN), plugin("a"), plugin("b", "a"), plugin("c", FAILING_PLUGIN),
+                plugin("d", "b"));
+
+        List<String> results = new PluginLoadingScheduler(2).load(pendingPlugins, this::dependenciesLoaded, this::load);
+
+        Assert.assertEquals(Sets.newHashSet("a", "b", "d"), Sets.newHashSet(results));
+        Assert.assertEquals(Sets.newHashSet("a", "b", "d"), loadedPlugins);
+        // the plugin that depends on the failing one is left pending
+        Assert.assertEquals(Sets.newHashSet("c"), pendingPlugins.keySet());
+    }
+
+    private boolean dependenciesLoaded(Plugin plugin) {
+        String[] dependencies = plugin.getDescriptor().getDependencies();
+        return dependencies == null || loadedPlugins.containsAll(Lists.newArrayList(dependencies));
+    }
+
+    private String load(Plugin plugin) {
+        if (FAILING_PLUGIN.equals(plugin.getId())) {
+            throw new IllegalStateException("Plugin loading failure");
+        }
+        loadingOrder.add(plugin.getId());
+        loadedPlugins.add(plugin.getId());
+        return plugin.getId();
+    }
+
+    private Map<String, Plugin> pendingPlugins(Plugin... plugins) {
+        Map<String, Plugin> pendingPlugins = Maps.newLinkedHashMap();
+        for (Plugin plugin : plugins) {
+            pendingPlugins.put(plugin.getId(), plugin);
+        }
+        return pendingPlugins;
+    }
+
+    private Plugin plugin(String id, String... dependencies) {
+        PluginDescriptor descriptor = new PluginDescriptor();
+        descriptor.setId(id);
+        descriptor.setDependencies(dependencies.length == 0 ? null : dependencies);
+        return new Plugin(descriptor, id);
+    }
+}
@@ -0,0 +1,198 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.Resource;
+
+import org.alien4cloud.tosca.catalog.ArchiveUploadService;
+import org.alien4cloud.tosca.catalog.ParsedArchiveCache;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.model.components.CSARSource;
+import alien4cloud.security.model.Role;
+import alien4cloud.test.utils.SecurityTestUtils;
+import alien4cloud.tosca.parser.ParsingErrorLevel;
+import alien4cloud.tosca.parser.ParsingResult;
+import alien4cloud.tosca.parser.impl.ErrorCode;
+import alien4cloud.utils.AlienConstants;
+import alien4cloud.utils.FileUtil;
+import alien4cloud.utils.MapUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Import generated archives with a large number of types sequentially and concurrently and report the import durations.
+ * Also report the duration of importing again unchanged archives with and without the parsed archive cache.
+ */
+@Slf4j
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:application-context-test.xml")
+@DirtiesContext
+public class ArchiveImportBenchmarkTest {
+    private static final Path BENCHMARK_FOLDER = Paths.get("target/archive-import-benchmark");
+    private static final int ARCHIVE_COUNT = 8;
+    private static final int TYPES_PER_ARCHIVE = 200;
+    private static final int THREADS = 4;
+
+    @Resource(name = "alien-es-dao")
+    private IGenericSearchDAO alienDAO;
+    @Resource
+    private ArchiveUploadService archiveUploadService;
+    @Resource
+    private ParsedArchiveCache parsedArchiveCache;
+
+    @Test
+    public void importArchives() throws Exception {
+        List<Path> sequentialArchives = generateArchives("sequential");
+        List<Path> concurrentArchives = generateArchives("concurrent");
+
+        SecurityTestUtils.setTestAuthentication(Role.ADMIN);
+        long start = System.currentTimeMillis();
+        for (Path archive : sequentialArchives) {
+            upload(archive);
+        }
+        long sequentialDuration = System.currentTimeMillis() - start;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            start = System.currentTimeMillis();
+            List<Future<?>> futures = Lists.newArrayList();
+            for (Path archive : concurrentArchives) {
+                futures.add(executor.submit(() -> {
+                    SecurityTestUtils.setTestAuthentication(Role.ADMIN);
+                    upload(archive);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long concurrentDuration = System.currentTimeMillis() - start;
+
+        log.info("Imported {} archives of {} types in {} ms sequentially and in {} ms with {} threads", ARCHIVE_COUNT, TYPES_PER_ARCHIVE, sequentialDuration,
+                concurrentDuration, THREADS);
+
+        for (int i = 0; i < ARCHIVE_COUNT; i++) {
+            assertIndexed(archiveName("sequential", i));
+            assertIndexed(archiveName("concurrent", i));
+        }
+    }
+
+    @Test
+    public void reimportUnchangedArchives() throws Exception {
+        List<Path> archives = generateArchives("reimport");
+        SecurityTestUtils.setTestAuthentication(Role.ADMIN);
+        for (Path archive : archives) {
+            upload(archive);
+        }
+
+        try {
+            parsedArchiveCache.setEnabled(false);
+            long start = System.currentTimeMillis();
+            for (Path archive : archives) {
+                assertAlreadyIndexed(upload(archive));
+            }
+            long parsingDuration = System.currentTimeMillis() - start;
+
+            parsedArchiveCache.setEnabled(true);
+            start = System.currentTimeMillis();
+            for (Path archive : archives) {
+                ParsingResult<Csar> result = upload(archive);
+                assertAlreadyIndexed(result);
+                Assert.assertNotNull(result.getResult());
+            }
+            long cachedDuration = System.currentTimeMillis() - start;
+
+            log.info("Imported again {} unchanged archives of {} types in {} ms with parsing and in {} ms with the parsed archive cache", ARCHIVE_COUNT,
+                    TYPES_PER_ARCHIVE, parsingDuration, cachedDuration);
+        } finally {
+            parsedArchiveCache.setEnabled(true);
+        }
+
+        for (int i = 0; i < ARCHIVE_COUNT; i++) {
+            assertIndexed(archiveName("reimport", i));
+        }
+    }
+
+    private ParsingResult<Csar> upload(Path archive) throws Exception {
+        ParsingResult<Csar> result = archiveUploadService.upload(archive, CSARSource.OTHER, AlienConstants.GLOBAL_WORKSPACE_ID);
+        Assert.assertFalse("Archive " + archive + " should be imported without errors", result.hasError(ParsingErrorLevel.ERROR));
+        return result;
+    }
+
+    private void assertAlreadyIndexed(ParsingResult<Csar> result) {
+        Assert.assertTrue(result.getContext().getParsingErrors().stream().anyMatch(error -> ErrorCode.CSAR_ALREADY_INDEXED.equals(error.getErrorCode())));
+    }
+
+    private void assertIndexed(String archiveName) {
+        Assert.assertNotNull(alienDAO.findById(Csar.class, Csar.createId(archiveName, "1.0.0")));
+        Assert.assertEquals(TYPES_PER_ARCHIVE, alienDAO.count(NodeType.class, null,
+                MapUtil.newHashMap(new String[] { "archiveName" }, new String[][] { new String[] { archiveName } })));
+    }
+
+    private String archiveName(String prefix, int index) {
+        return "benchmark-" + prefix + "-" + index;
+    }
+
+    private List<Path> generateArchives(String prefix) throws IOException {
+        List<Path> archives = Lists.newArrayList();
+        for (int i = 0; i < ARCHIVE_COUNT; i++) {
+            String archiveName = archiveName(prefix, i);
+            Path archiveDir = BENCHMARK_FOLDER.resolve(archiveName);
+            FileUtil.delete(archiveDir);
+            Files.createDirectories(archiveDir);
+            Files.write(archiveDir.resolve("types.yml"), generateDefinitions(archiveName).getBytes(StandardCharsets.UTF_8));
+            Path archiveZip = BENCHMARK_FOLDER.resolve(archiveName + ".zip");
+            Files.deleteIfExists(archiveZip);
+            FileUtil.zip(archiveDir, archiveZip);
+            archives.add(archiveZip);
+        }
+        return archives;
+    }
+
+    private String generateDefinitions(String archiveName) {
+        String typePrefix = "org.alien4cloud.benchmark." + archiveName.replace('-', '_') + ".nodes.Type";
+        StringBuilder yaml = new StringBuilder();
+        yaml.append("tosca_definitions_version: alien_dsl_1_4_0\n\n");
+        yaml.append("metadata:\n");
+        yaml.append("  template_name: ").append(archiveName).append("\n");
+        yaml.append("  template_version: 1.0.0\n");
+        yaml.append("  template_author: alien4cloud\n\n");
+        yaml.append("description: Generated archive for import benchmark.\n\n");
+        yaml.append("node_types:\n");
+        for (int i = 0; i < TYPES_PER_ARCHIVE; i++) {
+            yaml.append("  ").append(typePrefix).append(i).append(":\n");
+            if (i > 0) {
+                // types derive from the first one to exercise inheritance merge during parsing and indexing.
+                yaml.append("    derived_from: ").append(typePrefix).append(0).append("\n");
+            }
+            yaml.append("    description: Generated type ").append(i).append("\n");
+            yaml.append("    properties:\n");
+            yaml.append("      property_").append(i).append(":\n");
+            yaml.append("        type: string\n");
+            yaml.append("        required: false\n");
+            yaml.append("        default: value_").append(i).append("\n");
+        }
+        return yaml.toString();
+    }
+}
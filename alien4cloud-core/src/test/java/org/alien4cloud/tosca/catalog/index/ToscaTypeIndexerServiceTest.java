@@ -3,6 +3,7 @@ package org.alien4cloud.tosca.catalog.index;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -12,6 +13,9 @@ import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.metaproperty.MPSearchContextBuilderMock;
 import alien4cloud.model.common.Tag;
 import com.google.common.collect.Lists;
+import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
+import org.alien4cloud.tosca.model.types.CapabilityType;
 import org.alien4cloud.tosca.model.types.NodeType;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.Assert;
@@ -112,4 +116,31 @@ public class ToscaTypeIndexerServiceTest {
         hasElementWithTag = (boolean) method.invoke(toscaTypeIndexerService, NodeType.class, "icon", "my_icon");
         Assert.assertTrue(hasElementWithTag);
     }
+
+    @Test
+    public void bulkIndexAndDeleteArchiveElements() {
+        alienDao.delete(AbstractToscaType.class, QueryBuilders.matchAllQuery());
+        List<AbstractInheritableToscaType> elements = Lists.newArrayList();
+        // more elements than a single bulk request
+        for (int i = 0; i < 1200; i++) {
+            elements.add(toscaType(new NodeType(), "node" + i, "bulk-archive"));
+        }
+        elements.add(toscaType(new CapabilityType(), "capability", "bulk-archive"));
+        elements.add(toscaType(new NodeType(), "other", "other-archive"));
+        toscaTypeIndexerService.indexInheritableElements(elements);
+
+        Assert.assertEquals(1201, toscaTypeIndexerService.getArchiveElements("bulk-archive", "1.0.0").size());
+
+        toscaTypeIndexerService.deleteElements("bulk-archive", "1.0.0");
+
+        Assert.assertTrue(toscaTypeIndexerService.getArchiveElements("bulk-archive", "1.0.0").isEmpty());
+        Assert.assertEquals(1, toscaTypeIndexerService.getArchiveElements("other-archive", "1.0.0").size());
+    }
+
+    private AbstractInheritableToscaType toscaType(AbstractInheritableToscaType type, String elementId, String archiveName) {
+        type.setElementId(elementId);
+        type.setArchiveName(archiveName);
+        type.setArchiveVersion("1.0.0");
+        return type;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package org.alien4cloud.tosca.editor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.alien4cloud.tosca.catalog.index.CsarService;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.RenameNodeOperation;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.common.collect.Maps;
+
+import alien4cloud.component.repository.IFileRepository;
+import alien4cloud.topology.TopologyServiceCore;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EditionContextManagerTest {
+    /** Weight of the test topologies: the topology itself and its node templates. */
+    private static final int TOPOLOGY_WEIGHT = 6;
+
+    @Mock
+    private CsarService csarService;
+    @Mock
+    private TopologyServiceCore topologyServiceCore;
+    @Mock
+    private EditorRepositoryService repositoryService;
+    @Mock
+    private IFileRepository artifactRepository;
+    @InjectMocks
+    private EditionContextManager editionContextManager;
+
+    private final ExecutorService otherRequests = Executors.newSingleThreadExecutor();
+
+    @Before
+    public void setUp() throws Exception {
+        Path gitPath = Files.createTempDirectory("edition-context");
+        when(csarService.getOrFail(anyString())).thenAnswer(invocation -> new Csar(((String) invocation.getArguments()[0]).split(":")[0], "1.0.0"));
+        when(topologyServiceCore.getOrFail(anyString())).thenAnswer(invocation -> topology((String) invocation.getArguments()[0]));
+        when(repositoryService.createGitDirectory(any(Csar.class))).thenReturn(gitPath);
+
+        // room for a single unused context
+        editionContextManager.setMaxWeight(TOPOLOGY_WEIGHT);
+        editionContextManager.setup();
+    }
+
+    @After
+    public void tearDown() {
+        otherRequests.shutdownNow();
+        editionContextManager.destroy();
+    }
+
+    private Topology topology(String id) {
+        Topology topology = new Topology();
+        topology.setId(id);
+        topology.setNodeTemplates(Maps.newHashMap());
+        for (int i = 1; i < TOPOLOGY_WEIGHT; i++) {
+            NodeTemplate nodeTemplate = new NodeTemplate();
+            nodeTemplate.setName("node_" + i);
+            topology.getNodeTemplates().put(nodeTemplate.getName(), nodeTemplate);
+        }
+        return topology;
+    }
+
+    private void loadOtherTopologies() throws Exception {
+        otherRequests.submit(() -> {
+            for (int i = 0; i < 10; i++) {
+                editionContextManager.init("other-" + i + ":1.0.0");
+                editionContextManager.destroy();
+            }
+        }).get();
+    }
+
+    @Test
+    public void contextInUseShouldNotBeEvictedWhileOtherContextsAreLoaded() throws Exception {
+        editionContextManager.init("topology:1.0.0");
+        EditionContext context = EditionContextManager.get();
+        // the request adds an operation while other requests load contexts beyond the maximum weight
+        context.getOperations().add(new RenameNodeOperation());
+        loadOtherTopologies();
+        editionContextManager.destroy();
+
+        editionContextManager.init("topology:1.0.0");
+        assertThat(EditionContextManager.get()).isSameAs(context);
+        assertThat(EditionContextManager.get().getOperations()).hasSize(1);
+        assertThat(editionContextManager.getStats().evictionCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void contextWithPendingOperationsShouldNotBeEvictedWhenReleased() throws Exception {
+        editionContextManager.init("topology:1.0.0");
+        EditionContext context = EditionContextManager.get();
+        context.getOperations().add(new RenameNodeOperation());
+        editionContextManager.destroy();
+
+        loadOtherTopologies();
+
+        editionContextManager.init("topology:1.0.0");
+        assertThat(EditionContextManager.get()).isSameAs(context);
+    }
+
+    @Test
+    public void unusedContextWithoutOperationsShouldBeEvicted() throws Exception {
+        editionContextManager.init("topology:1.0.0");
+        EditionContext context = EditionContextManager.get();
+        editionContextManager.destroy();
+
+        loadOtherTopologies();
+
+        editionContextManager.init("topology:1.0.0");
+        assertThat(EditionContextManager.get()).isNotSameAs(context);
+    }
+}
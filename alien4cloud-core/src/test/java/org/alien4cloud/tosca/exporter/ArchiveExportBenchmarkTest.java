@@ -0,0 +1,115 @@
+package org.alien4cloud.tosca.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.definitions.AbstractPropertyValue;
+import org.alien4cloud.tosca.model.definitions.ScalarPropertyValue;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.RelationshipTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Export a large topology to a file through an in-memory string and by streaming the yaml to the file, and report the durations.
+ */
+@Slf4j
+public class ArchiveExportBenchmarkTest {
+    private static final Path BENCHMARK_FOLDER = Paths.get("target/archive-export-benchmark");
+    private static final String DSL_VERSION = "alien_dsl_1_4_0";
+    private static final int NODE_COUNT = 2000;
+    private static final int PROPERTIES_PER_NODE = 10;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 10;
+
+    private final ArchiveExportService exportService = new ArchiveExportService();
+
+    @Test
+    public void exportLargeTopology() throws IOException {
+        Csar csar = new Csar("benchmark-topology", "1.0.0-SNAPSHOT");
+        csar.setTemplateAuthor("alien4cloud");
+        Topology topology = generateTopology(csar);
+        Files.createDirectories(BENCHMARK_FOLDER);
+        Path stringPath = BENCHMARK_FOLDER.resolve("string.yml");
+        Path streamPath = BENCHMARK_FOLDER.resolve("stream.yml");
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            exportThroughString(csar, topology, stringPath);
+            exportThroughStream(csar, topology, streamPath);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            exportThroughString(csar, topology, stringPath);
+        }
+        long stringDuration = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            exportThroughStream(csar, topology, streamPath);
+        }
+        long streamDuration = System.nanoTime() - start;
+
+        log.info("Exported a topology of {} nodes in {} ms through a string and in {} ms by streaming (average of {} iterations)", NODE_COUNT,
+                stringDuration / ITERATIONS / 1000000d, streamDuration / ITERATIONS / 1000000d, ITERATIONS);
+
+        String streamedYaml = new String(Files.readAllBytes(streamPath), StandardCharsets.UTF_8);
+        Assert.assertEquals(new String(Files.readAllBytes(stringPath), StandardCharsets.UTF_8), streamedYaml);
+        Assert.assertTrue(streamedYaml.contains("Node" + (NODE_COUNT - 1) + ":"));
+    }
+
+    private void exportThroughString(Csar csar, Topology topology, Path targetPath) throws IOException {
+        String yaml = exportService.getYaml(csar, topology, false, DSL_VERSION, null);
+        try (BufferedWriter writer = Files.newBufferedWriter(targetPath)) {
+            writer.write(yaml);
+        }
+    }
+
+    private void exportThroughStream(Csar csar, Topology topology, Path targetPath) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(targetPath)) {
+            exportService.writeYaml(csar, topology, false, DSL_VERSION, null, writer);
+        }
+    }
+
+    private Topology generateTopology(Csar csar) {
+        Topology topology = new Topology();
+        topology.setArchiveName(csar.getName());
+        topology.setArchiveVersion(csar.getVersion());
+        topology.setDependencies(Sets.newHashSet());
+        Map<String, NodeTemplate> nodeTemplates = Maps.newLinkedHashMap();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            NodeTemplate nodeTemplate = new NodeTemplate();
+            nodeTemplate.setName("Node" + i);
+            nodeTemplate.setType("org.alien4cloud.benchmark.nodes.Type");
+            Map<String, AbstractPropertyValue> properties = Maps.newLinkedHashMap();
+            for (int j = 0; j < PROPERTIES_PER_NODE; j++) {
+                properties.put("property_" + j, new ScalarPropertyValue("value " + i + " " + j));
+            }
+            nodeTemplate.setProperties(properties);
+            if (i > 0) {
+                RelationshipTemplate relationshipTemplate = new RelationshipTemplate();
+                relationshipTemplate.setTarget("Node0");
+                relationshipTemplate.setType("tosca.relationships.HostedOn");
+                relationshipTemplate.setRequirementName("host");
+                relationshipTemplate.setRequirementType("tosca.capabilities.Container");
+                relationshipTemplate.setTargetedCapabilityName("host");
+                Map<String, RelationshipTemplate> relationships = Maps.newLinkedHashMap();
+                relationships.put("hostedOnNode0", relationshipTemplate);
+                nodeTemplate.setRelationships(relationships);
+            }
+            nodeTemplates.put(nodeTemplate.getName(), nodeTemplate);
+        }
+        topology.setNodeTemplates(nodeTemplates);
+        return topology;
+    }
+}
@@ -0,0 +1,125 @@
+package org.alien4cloud.tosca.topology;
+
+import java.util.HashSet;
+
+import org.alien4cloud.tosca.editor.EditionContext;
+import org.alien4cloud.tosca.editor.exception.EditorIOException;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.RenameNodeOperation;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.component.ICSARRepositorySearchService;
+import alien4cloud.topology.TopologyDeltaDTO;
+import alien4cloud.tosca.context.ToscaContext;
+
+public class TopologyDTOBuilderTest {
+    private final TopologyDTOBuilder dtoBuilder = new TopologyDTOBuilder();
+    private ICSARRepositorySearchService originalCsarRepositorySearchService;
+    private EditionContext context;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+        originalCsarRepositorySearchService = ToscaContext.getCsarRepositorySearchService();
+        ICSARRepositorySearchService mockSearchService = Mockito.mock(ICSARRepositorySearchService.class);
+        Mockito.when(mockSearchService.getElementInDependencies(Matchers.eq(NodeType.class), Matchers.anyString(), Matchers.anySet()))
+                .thenAnswer(invocation -> {
+                    NodeType nodeType = new NodeType();
+                    nodeType.setElementId((String) invocation.getArguments()[1]);
+                    return nodeType;
+                });
+        ToscaContext.setCsarRepositorySearchService(mockSearchService);
+        ToscaContext.init(new HashSet<>());
+
+        Topology topology = new Topology();
+        topology.setNodeTemplates(Maps.newHashMap());
+        topology.getNodeTemplates().put("Compute", nodeTemplate("Compute", "tosca.nodes.Compute"));
+        topology.getNodeTemplates().put("Database", nodeTemplate("Database", "tosca.nodes.Database"));
+        context = new EditionContext();
+        context.setTopology(topology);
+    }
+
+    @After
+    public void cleanup() {
+        ToscaContext.setCsarRepositorySearchService(originalCsarRepositorySearchService);
+        ToscaContext.destroy();
+    }
+
+    private NodeTemplate nodeTemplate(String name, String type) {
+        NodeTemplate nodeTemplate = new NodeTemplate();
+        nodeTemplate.setName(name);
+        nodeTemplate.setType(type);
+        return nodeTemplate;
+    }
+
+    private AbstractEditorOperation applyOperation(String operationId) {
+        RenameNodeOperation operation = new RenameNodeOperation();
+        operation.setId(operationId);
+        context.getOperations().add(operation);
+        context.setLastOperationIndex(context.getOperations().size() - 1);
+        return operation;
+    }
+
+    @Test
+    public void unchangedTopologyShouldGiveAnEmptyDelta() {
+        TopologyFingerprint previous = dtoBuilder.getFingerprint(context);
+        AbstractEditorOperation operation = applyOperation("op1");
+
+        TopologyDeltaDTO delta = dtoBuilder.buildTopologyDeltaDTO(context, previous, operation);
+
+        Assert.assertNull(delta.getBaseOperationId());
+        Assert.assertEquals("op1", delta.getOperationId());
+        Assert.assertTrue(delta.getNodeTemplates().isEmpty());
+        Assert.assertTrue(delta.getRemovedNodeTemplates().isEmpty());
+        Assert.assertTrue(delta.getSections().isEmpty());
+        Assert.assertTrue(delta.getNodeTypes().isEmpty());
+    }
+
+    @Test
+    public void changedTopologyShouldGiveOnlyTheChangedElements() {
+        applyOperation("op1");
+        TopologyFingerprint previous = dtoBuilder.getFingerprint(context);
+
+        context.getTopology().getNodeTemplates().get("Compute").setType("tosca.nodes.Root");
+        context.getTopology().getNodeTemplates().remove("Database");
+        context.getTopology().setDescription("updated description");
+        AbstractEditorOperation operation = applyOperation("op2");
+
+        TopologyDeltaDTO delta = dtoBuilder.buildTopologyDeltaDTO(context, previous, operation);
+
+        Assert.assertEquals("op1", delta.getBaseOperationId());
+        Assert.assertEquals("op2", delta.getOperationId());
+        Assert.assertEquals(Sets.newHashSet("Compute"), delta.getNodeTemplates().keySet());
+        Assert.assertEquals(Sets.newHashSet("Database"), delta.getRemovedNodeTemplates());
+        Assert.assertEquals(Sets.newHashSet("description"), delta.getSections().keySet());
+        Assert.assertEquals("updated description", delta.getSections().get("description"));
+        // only the types of the changed templates are sent
+        Assert.assertEquals(Lists.newArrayList("tosca.nodes.Root"), Lists.newArrayList(delta.getNodeTypes().keySet()));
+    }
+
+    @Test(expected = EditorIOException.class)
+    public void elementThatCannotBeFingerprintedShouldFailTheDelta() {
+        TopologyFingerprint previous = dtoBuilder.getFingerprint(context);
+        context.getTopology().getNodeTemplates().put("Invalid", new NodeTemplate() {
+            @Override
+            public String getName() {
+                throw new IllegalStateException("Element cannot be serialized");
+            }
+        });
+        AbstractEditorOperation operation = applyOperation("op1");
+
+        dtoBuilder.buildTopologyDeltaDTO(context, previous, operation);
+    }
+}
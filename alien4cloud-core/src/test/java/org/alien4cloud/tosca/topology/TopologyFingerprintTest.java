@@ -0,0 +1,49 @@
+package org.alien4cloud.tosca.topology;
+
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+public class TopologyFingerprintTest {
+
+    private NodeTemplate nodeTemplate(String name, String type) {
+        NodeTemplate nodeTemplate = new NodeTemplate();
+        nodeTemplate.setName(name);
+        nodeTemplate.setType(type);
+        return nodeTemplate;
+    }
+
+    private Topology topology() {
+        Topology topology = new Topology();
+        topology.setNodeTemplates(Maps.newHashMap());
+        topology.getNodeTemplates().put("Compute", nodeTemplate("Compute", "tosca.nodes.Compute"));
+        topology.getNodeTemplates().put("Database", nodeTemplate("Database", "tosca.nodes.Database"));
+        return topology;
+    }
+
+    @Test
+    public void sameTopologyShouldHaveSameFingerprint() {
+        TopologyFingerprint first = TopologyFingerprint.compute(topology(), "op1");
+        TopologyFingerprint second = TopologyFingerprint.compute(topology(), "op1");
+        Assert.assertEquals(first.getNodeTemplates(), second.getNodeTemplates());
+        Assert.assertEquals(first.getSections(), second.getSections());
+    }
+
+    @Test
+    public void changedElementsShouldHaveDifferentHashes() {
+        Topology topology = topology();
+        TopologyFingerprint before = TopologyFingerprint.compute(topology, "op1");
+
+        topology.getNodeTemplates().get("Compute").setType("tosca.nodes.Root");
+        topology.setDescription("updated description");
+        TopologyFingerprint after = TopologyFingerprint.compute(topology, "op2");
+
+        Assert.assertNotEquals(before.getNodeTemplates().get("Compute"), after.getNodeTemplates().get("Compute"));
+        Assert.assertEquals(before.getNodeTemplates().get("Database"), after.getNodeTemplates().get("Database"));
+        Assert.assertNotEquals(before.getSections().get("description"), after.getSections().get("description"));
+        Assert.assertEquals(before.getSections().get("inputs"), after.getSections().get("inputs"));
+    }
+}
@@ -1,9 +1,16 @@
 package org.alien4cloud.tosca.variable;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
 
 import javax.inject.Inject;
 
+import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.variable.service.QuickFileStorageService;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
@@ -13,6 +20,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import alien4cloud.application.ApplicationService;
+import alien4cloud.model.application.EnvironmentType;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("classpath:application-context-test.xml")
@@ -35,4 +43,75 @@ public class QuickFileStorageServiceTest {
         Assertions.assertThat(filePath).doesNotExist();
     }
 
+    @Test
+    public void parsedVariablesShouldBeReloadedWhenFileChanges() throws Exception {
+        String applicationId = applicationService.create("admin", "TEST_CACHE", "TEST_CACHE", "", null);
+        saveApplicationVariables(applicationId, "var1: value1\nvar2: value2\n");
+        Properties variables = quickFileStorageService.loadApplicationVariables(applicationId);
+        Assertions.assertThat(variables.getProperty("var1")).isEqualTo("value1");
+
+        // returned variables are copies of the cached ones
+        variables.put("var1", "modified");
+        Assertions.assertThat(quickFileStorageService.loadApplicationVariables(applicationId).getProperty("var1")).isEqualTo("value1");
+
+        saveApplicationVariables(applicationId, "var1: updated\n");
+        variables = quickFileStorageService.loadApplicationVariables(applicationId);
+        Assertions.assertThat(variables.getProperty("var1")).isEqualTo("updated");
+        Assertions.assertThat(variables.getProperty("var2")).isNull();
+
+        applicationService.delete(applicationId);
+    }
+
+    @Test
+    public void mergedVariablesShouldBeOverriddenByEnvironment() throws Exception {
+        String applicationId = applicationService.create("admin", "TEST_MERGE", "TEST_MERGE", "", null);
+        String archiveId = Csar.createId(applicationId, "0.1.0-SNAPSHOT");
+        Path expandedPath = Paths.get("target/alien/csar").resolve(applicationId).resolve("0.1.0-SNAPSHOT").resolve("expanded");
+        saveApplicationVariables(applicationId, "app_var: app\nshared: app\n");
+        write(expandedPath.resolve(quickFileStorageService.getRelativeEnvironmentTypeVariablesFilePath(EnvironmentType.DEVELOPMENT.toString())),
+                "env_type_var: env_type\nshared: env_type\n");
+        write(expandedPath.resolve(quickFileStorageService.getRelativeEnvironmentVariablesFilePath("env")), "shared: env\n");
+
+        Properties variables = quickFileStorageService.loadMergedVariables(applicationId, archiveId, EnvironmentType.DEVELOPMENT, "env");
+        Assertions.assertThat(variables.getProperty("app_var")).isEqualTo("app");
+        Assertions.assertThat(variables.getProperty("env_type_var")).isEqualTo("env_type");
+        Assertions.assertThat(variables.getProperty("shared")).isEqualTo("env");
+
+        write(expandedPath.resolve(quickFileStorageService.getRelativeEnvironmentVariablesFilePath("env")), "other: env\n");
+        variables = quickFileStorageService.loadMergedVariables(applicationId, archiveId, EnvironmentType.DEVELOPMENT, "env");
+        Assertions.assertThat(variables.getProperty("shared")).isEqualTo("env_type");
+
+        applicationService.delete(applicationId);
+    }
+
+    @Test
+    public void invalidatedArchiveFilesShouldBeParsedAgain() throws Exception {
+        String applicationId = applicationService.create("admin", "TEST_INVALIDATE", "TEST_INVALIDATE", "", null);
+        String archiveId = Csar.createId(applicationId, "0.1.0-SNAPSHOT");
+        Path expandedPath = Paths.get("target/alien/csar").resolve(applicationId).resolve("0.1.0-SNAPSHOT").resolve("expanded");
+        Path envVariablesPath = expandedPath.resolve(quickFileStorageService.getRelativeEnvironmentVariablesFilePath("env"));
+        write(envVariablesPath, "shared: env1\n");
+        FileTime lastModifiedTime = Files.getLastModifiedTime(envVariablesPath);
+        Assertions.assertThat(quickFileStorageService.loadEnvironmentVariables(archiveId, "env").getProperty("shared")).isEqualTo("env1");
+
+        // same size and modification date, the change is only seen once the files of the archive are invalidated.
+        write(envVariablesPath, "shared: env2\n");
+        Files.setLastModifiedTime(envVariablesPath, lastModifiedTime);
+        quickFileStorageService.invalidateArchiveFiles(archiveId);
+        Assertions.assertThat(quickFileStorageService.loadEnvironmentVariables(archiveId, "env").getProperty("shared")).isEqualTo("env2");
+
+        applicationService.delete(applicationId);
+    }
+
+    private void saveApplicationVariables(String applicationId, String content) {
+        // creates the variables file directory
+        quickFileStorageService.loadApplicationVariables(applicationId);
+        quickFileStorageService.saveApplicationVariables(applicationId, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void write(Path path, String content) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
\ No newline at end of file
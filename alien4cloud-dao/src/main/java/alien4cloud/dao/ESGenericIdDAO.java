@@ -8,6 +8,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.get.MultiGetItemResponse;
 import org.elasticsearch.action.get.MultiGetResponse;
@@ -16,6 +17,8 @@ import org.elasticsearch.mapping.MappingBuilder;
 
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.model.common.IDatableResource;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 
 /**
@@ -24,11 +27,18 @@ import lombok.SneakyThrows;
  * @author luc boutier
  */
 public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericIdDAO {
+    /**
+     * Consistency used by write operations that don't specify one. Get based operations (findById, exist, findByIds) are always realtime so they see the data
+     * right after the write whatever the consistency.
+     */
+    @Getter
+    @Setter
+    private WriteConsistency defaultWriteConsistency = WriteConsistency.IMMEDIATE;
 
     @Override
     public <T> boolean exist(Class<T> clazz, String id) {
-        return getClient().prepareGet(getIndexForType(clazz), MappingBuilder.indexTypeFromClass(clazz), id).setFields(new String[0]).execute().actionGet()
-                .isExists();
+        return getClient().prepareGet(getIndexForType(clazz), MappingBuilder.indexTypeFromClass(clazz), id).setRealtime(true).setFields(new String[0])
+                .execute().actionGet().isExists();
     }
 
     /**
@@ -48,23 +58,34 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
     }
 
     @Override
-    @SneakyThrows({ IOException.class })
     public <T> void save(T data) {
+        save(data, defaultWriteConsistency);
+    }
+
+    @Override
+    public <T> void save(T[] entities) {
+        save(entities, defaultWriteConsistency);
+    }
+
+    @Override
+    @SneakyThrows({ IOException.class })
+    public <T> void save(T data, WriteConsistency consistency) {
         String indexName = getIndexForType(data.getClass());
         String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
 
         updateDate(data);
         String json = getJsonMapper().writeValueAsString(data);
-        getClient().prepareIndex(indexName, typeName).setOperationThreaded(false).setSource(json).setRefresh(true).execute().actionGet();
+        getClient().prepareIndex(indexName, typeName).setOperationThreaded(false).setSource(json).setRefresh(consistency.isRefresh()).execute()
+                .actionGet();
     }
 
     @Override
     @SneakyThrows({ IOException.class })
-    public <T> void save(T[] entities) {
+    public <T> void save(T[] entities, WriteConsistency consistency) {
         if (entities == null || entities.length == 0) {
             return;
         }
-        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(true);
+        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(consistency.isRefresh());
         for (T data : entities) {
             String indexName = getIndexForType(data.getClass());
             String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
@@ -73,7 +94,20 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
             String json = getJsonMapper().writeValueAsString(data);
             bulkRequestBuilder.add(getClient().prepareIndex(indexName, typeName).setSource(json));
         }
-        bulkRequestBuilder.execute().actionGet();
+        executeBulk(bulkRequestBuilder);
+    }
+
+    /**
+     * Execute a bulk request and fail if any of its actions failed.
+     *
+     * @param bulkRequestBuilder The bulk request to execute.
+     * @throws IndexingServiceException In case at least one action of the bulk request failed.
+     */
+    protected void executeBulk(BulkRequestBuilder bulkRequestBuilder) {
+        BulkResponse bulkResponse = bulkRequestBuilder.execute().actionGet();
+        if (bulkResponse.hasFailures()) {
+            throw new IndexingServiceException(bulkResponse.buildFailureMessage());
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -84,7 +118,7 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
         assertIdNotNullFor(id, "findById");
         String indexName = getIndexForType(clazz);
         String typeName = abstractType ? null : MappingBuilder.indexTypeFromClass(clazz);
-        GetResponse response = getClient().prepareGet(indexName, typeName, id).execute().actionGet();
+        GetResponse response = getClient().prepareGet(indexName, typeName, id).setRealtime(true).execute().actionGet();
 
         if (response == null || !response.isExists()) {
             ESIndexMapper.getLog().debug("Nothing found in index [ {} ], type [ {} ], for Id [ {} ].", indexName, typeName, id);
@@ -105,7 +139,7 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
     public <T> List<T> findByIds(Class<T> clazz, String... ids) {
         String indexName = getIndexForType(clazz);
         String typeName = MappingBuilder.indexTypeFromClass(clazz);
-        MultiGetResponse response = getClient().prepareMultiGet().add(indexName, typeName, ids).execute().actionGet();
+        MultiGetResponse response = getClient().prepareMultiGet().setRealtime(true).add(indexName, typeName, ids).execute().actionGet();
 
         if (response == null || response.getResponses() == null || response.getResponses().length == 0) {
             ESIndexMapper.getLog().debug("Nothing found in index [ {} ], type [ {} ], for Ids [ {} ].", indexName, typeName, Arrays.toString(ids));
@@ -124,10 +158,15 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
 
     @Override
     public void delete(Class<?> clazz, String id) {
+        delete(clazz, id, defaultWriteConsistency);
+    }
+
+    @Override
+    public void delete(Class<?> clazz, String id, WriteConsistency consistency) {
         assertIdNotNullFor(id, "delete");
         String indexName = getIndexForType(clazz);
         String typeName = MappingBuilder.indexTypeFromClass(clazz);
-        getClient().prepareDelete(indexName, typeName, id).setRefresh(true).execute().actionGet();
+        getClient().prepareDelete(indexName, typeName, id).setRefresh(consistency.isRefresh()).execute().actionGet();
     }
 
     private void assertIdNotNullFor(String id, String operation) {
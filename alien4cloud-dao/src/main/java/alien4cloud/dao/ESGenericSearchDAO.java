@@ -4,17 +4,26 @@ import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Resource;
 
 import com.google.common.collect.ObjectArrays;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.count.CountRequestBuilder;
+import org.elasticsearch.action.search.MultiSearchRequestBuilder;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchType;
@@ -40,6 +49,7 @@ import com.google.common.collect.Maps;
 import alien4cloud.dao.model.FacetedSearchFacet;
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.rest.utils.JsonUtil;
 import alien4cloud.utils.ElasticSearchUtil;
 import alien4cloud.utils.MapUtil;
@@ -53,6 +63,9 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGenericSearchDAO {
+    /** Number of elements fetched per page when scrolling over all the results of a query. */
+    public static final int DEFAULT_SCROLL_PAGE_SIZE = 1000;
+
     @Resource
     private ElasticSearchClient esClient;
     @Resource
@@ -80,36 +93,35 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
     @Override
     public void delete(Class<?> clazz, QueryBuilder query) {
         String indexName = getIndexForType(clazz);
-        String typeName = MappingBuilder.indexTypeFromClass(clazz);
-
-        // get all elements and then use a bulk delete to remove data.
-        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setQuery(query).setNoFields()
-                .setFetchSource(false);
-        searchRequestBuilder.setFrom(0).setSize(1000);
-        SearchResponse response = searchRequestBuilder.execute().actionGet();
 
-        while (somethingFound(response)) {
-            BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(true);
-
-            for (int i = 0; i < response.getHits().hits().length; i++) {
-                String id = response.getHits().hits()[i].getId();
-                bulkRequestBuilder.add(getClient().prepareDelete(indexName, typeName, id));
+        // scroll over the ids of matching elements and use bulk deletes to remove data, refresh only once at the end.
+        // the type of every hit is used so elements of all the sub-types of an abstract class can be deleted.
+        boolean deleted = false;
+        SearchRequestBuilder searchRequestBuilder = prepareCustomSearch(clazz, query, null, null).setNoFields().setFetchSource(false);
+        try (Stream<SearchHit> hits = toStream(new ScrollHitIterator(getClient(), searchRequestBuilder, DEFAULT_SCROLL_PAGE_SIZE))) {
+            BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+            for (Iterator<SearchHit> hitIterator = hits.iterator(); hitIterator.hasNext();) {
+                SearchHit hit = hitIterator.next();
+                bulkRequestBuilder.add(getClient().prepareDelete(indexName, hit.getType(), hit.getId()));
+                if (bulkRequestBuilder.numberOfActions() == DEFAULT_SCROLL_PAGE_SIZE) {
+                    executeBulk(bulkRequestBuilder);
+                    bulkRequestBuilder = getClient().prepareBulk();
+                    deleted = true;
+                }
             }
-
-            bulkRequestBuilder.execute().actionGet();
-
-            if (response.getHits().totalHits() == response.getHits().hits().length) {
-                response = null;
-            } else {
-                response = searchRequestBuilder.execute().actionGet();
+            if (bulkRequestBuilder.numberOfActions() > 0) {
+                executeBulk(bulkRequestBuilder);
+                deleted = true;
             }
         }
+        if (deleted) {
+            getClient().admin().indices().prepareRefresh(indexName).execute().actionGet();
+        }
     }
 
-    @SneakyThrows({ IOException.class })
-    private <T> List<T> doCustomFind(Class<T> clazz, QueryBuilder query, FilterBuilder filter, SortBuilder sortBuilder, int size) {
+    private SearchRequestBuilder prepareCustomSearch(Class<?> clazz, QueryBuilder query, FilterBuilder filter, SortBuilder sortBuilder) {
         String indexName = getIndexForType(clazz);
-        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setSize(size);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz));
         if (query != null) {
             searchRequestBuilder.setQuery(query);
         }
@@ -119,7 +131,12 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         if (sortBuilder != null) {
             searchRequestBuilder.addSort(sortBuilder);
         }
-        SearchResponse response = searchRequestBuilder.execute().actionGet();
+        return searchRequestBuilder;
+    }
+
+    @SneakyThrows({ IOException.class })
+    private <T> List<T> doCustomFind(Class<T> clazz, QueryBuilder query, FilterBuilder filter, SortBuilder sortBuilder, int size) {
+        SearchResponse response = prepareCustomSearch(clazz, query, filter, sortBuilder).setSize(size).execute().actionGet();
         if (!somethingFound(response)) {
             return null;
         } else {
@@ -131,6 +148,45 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         }
     }
 
+    /**
+     * Find all elements matching the query using a scroll rather than a single unbounded search request.
+     *
+     * @return The list of matching elements or null if nothing matches (consistent with {@link #doCustomFind(Class, QueryBuilder, FilterBuilder, SortBuilder, int)}).
+     */
+    private <T> List<T> doCustomFindAll(Class<T> clazz, QueryBuilder query, FilterBuilder filter, SortBuilder sortBuilder) {
+        try (Stream<T> stream = stream(clazz, query, filter, sortBuilder, DEFAULT_SCROLL_PAGE_SIZE)) {
+            List<T> hits = stream.collect(Collectors.toList());
+            return hits.isEmpty() ? null : hits;
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, FilterBuilder filter, int pageSize) {
+        return stream(clazz, query, filter, null, pageSize);
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, FilterBuilder filter, SortBuilder sortBuilder, int pageSize) {
+        ScrollHitIterator hitIterator = new ScrollHitIterator(getClient(), prepareCustomSearch(clazz, query, filter, sortBuilder), pageSize);
+        return toStream(hitIterator).map(this::<T> unsafeHitToObject);
+    }
+
+    @Override
+    public Stream<String> streamIds(Class<?> clazz, QueryBuilder query, int pageSize) {
+        SearchRequestBuilder searchRequestBuilder = prepareCustomSearch(clazz, query, null, null).setNoFields().setFetchSource(false);
+        return toStream(new ScrollHitIterator(getClient(), searchRequestBuilder, pageSize)).map(SearchHit::getId);
+    }
+
+    private Stream<SearchHit> toStream(ScrollHitIterator hitIterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(hitIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(hitIterator::close);
+    }
+
+    @SneakyThrows({ IOException.class })
+    private <T> T unsafeHitToObject(SearchHit hit) {
+        return hitToObject(hit);
+    }
+
     @Override
     public <T> T customFind(Class<T> clazz, QueryBuilder query) {
         return customFind(clazz, query, null);
@@ -148,7 +204,7 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
 
     @Override
     public <T> List<T> customFilterAll(Class<T> clazz, FilterBuilder filter) {
-        return doCustomFind(clazz, null, filter, null, Integer.MAX_VALUE);
+        return doCustomFindAll(clazz, null, filter, null);
     }
 
     @Override
@@ -158,7 +214,7 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
 
     @Override
     public <T> List<T> customFindAll(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder) {
-        return doCustomFind(clazz, query, null, sortBuilder, Integer.MAX_VALUE);
+        return doCustomFindAll(clazz, query, null, sortBuilder);
     }
 
     @Override
@@ -176,6 +232,46 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         return toGetMultipleDataResult(Object.class, queryHelperBuilder.execute(from, maxElements), from);
     }
 
+    @Override
+    @SneakyThrows({ IOException.class })
+    public GetMultipleDataResult<Object> multiSearch(int from, int maxElements, IESSearchQueryBuilderHelper<?>... searches) {
+        if (searches.length == 0) {
+            return new GetMultipleDataResult<>(new String[0], new Object[0]);
+        }
+        MultiSearchRequestBuilder multiSearchRequestBuilder = getClient().prepareMultiSearch();
+        for (IESSearchQueryBuilderHelper<?> search : searches) {
+            // every search must return its best from + maxElements hits for the merged page to be exact.
+            multiSearchRequestBuilder.add(search.getSearchRequestBuilder().setFrom(0).setSize(from + maxElements));
+        }
+        MultiSearchResponse multiSearchResponse = multiSearchRequestBuilder.execute().actionGet();
+
+        List<SearchHit> hits = Lists.newArrayList();
+        long totalResults = 0;
+        long queryDuration = 0;
+        for (MultiSearchResponse.Item item : multiSearchResponse.getResponses()) {
+            if (item.isFailure()) {
+                throw new IndexingServiceException("Multi search request failed: " + item.getFailureMessage());
+            }
+            SearchResponse searchResponse = item.getResponse();
+            totalResults += searchResponse.getHits().getTotalHits();
+            // searches are executed concurrently by elasticsearch.
+            queryDuration = Math.max(queryDuration, searchResponse.getTookInMillis());
+            if (somethingFound(searchResponse)) {
+                hits.addAll(Arrays.asList(searchResponse.getHits().getHits()));
+            }
+        }
+        hits.sort(Comparator.comparing(SearchHit::getScore).reversed());
+
+        List<SearchHit> pageHits = hits.subList(Math.min(from, hits.size()), Math.min(from + maxElements, hits.size()));
+        String[] resultTypes = new String[pageHits.size()];
+        Object[] resultData = new Object[pageHits.size()];
+        for (int i = 0; i < pageHits.size(); i++) {
+            resultTypes[i] = pageHits.get(i).getType();
+            resultData[i] = hitToObject(pageHits.get(i));
+        }
+        return new GetMultipleDataResult<>(resultTypes, resultData, queryDuration, totalResults, from, from + resultData.length - 1);
+    }
+
     @Override
     public <T> GetMultipleDataResult<T> search(Class<T> clazz, String searchText, Map<String, String[]> filters, int maxElements) {
         return search(clazz, searchText, filters, 0, maxElements);
@@ -22,6 +22,22 @@ public interface IGenericIdDAO {
      */
     <T> void save(T[] entities);
 
+    /**
+     * Saves an entity into the repository using the given write consistency.
+     * 
+     * @param entity the entity to save
+     * @param consistency Defines if the save must wait for the data to be searchable or not.
+     */
+    <T> void save(T entity, WriteConsistency consistency);
+
+    /**
+     * Bulk save multiple entities into the repository using the given write consistency.
+     * 
+     * @param entities The entities to save.
+     * @param consistency Defines if the save must wait for the data to be searchable or not.
+     */
+    <T> void save(T[] entities, WriteConsistency consistency);
+
     /**
      * Find an instance from the given class.
      * 
@@ -57,4 +73,13 @@ public interface IGenericIdDAO {
      * @param id The id of the object to delete.
      */
     void delete(Class<?> clazz, String id);
+
+    /**
+     * Delete an instance from the given class using the given write consistency.
+     * 
+     * @param clazz The class of the object to delete.
+     * @param id The id of the object to delete.
+     * @param consistency Defines if the delete must wait for the data to be removed from searches or not.
+     */
+    void delete(Class<?> clazz, String id, WriteConsistency consistency);
 }
\ No newline at end of file
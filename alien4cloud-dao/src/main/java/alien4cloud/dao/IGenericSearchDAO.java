@@ -2,6 +2,7 @@ package alien4cloud.dao;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.elasticsearch.client.Client;
 import org.elasticsearch.index.query.FilterBuilder;
@@ -109,6 +110,42 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      */
     <T> List<T> customFindAll(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder);
 
+    /**
+     * Lazily iterate over all the objects of the given class that match the query and filter. Results are fetched page by page using an elasticsearch scroll
+     * and de-serialized only when consumed so memory usage does not depend on the number of matching objects.
+     * Note that the returned stream must be closed in order to release the scroll context on elasticsearch.
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute (null to match all).
+     * @param filter The filter to apply (null for no filter).
+     * @param pageSize The number of elements to fetch on every scroll request.
+     * @return A stream of all the matching elements.
+     */
+    <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, FilterBuilder filter, int pageSize);
+
+    /**
+     * Same as {@link IGenericSearchDAO#stream(Class, QueryBuilder, FilterBuilder, int)} but with sorting.
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute (null to match all).
+     * @param filter The filter to apply (null for no filter).
+     * @param sortBuilder the sort configuration.
+     * @param pageSize The number of elements to fetch on every scroll request.
+     * @return A stream of all the matching elements.
+     */
+    <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, FilterBuilder filter, SortBuilder sortBuilder, int pageSize);
+
+    /**
+     * Lazily iterate over the ids of all the objects of the given class that match the query, the sources of the objects are not fetched.
+     * Note that the returned stream must be closed in order to release the scroll context on elasticsearch.
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute (null to match all).
+     * @param pageSize The number of ids to fetch on every scroll request.
+     * @return A stream of the ids of all the matching elements.
+     */
+    Stream<String> streamIds(Class<?> clazz, QueryBuilder query, int pageSize);
+
     /**
      * Run a query build from a {@link QueryHelper.ISearchQueryBuilderHelper}.
      *
@@ -119,6 +156,16 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      */
     GetMultipleDataResult<Object> search(QueryHelper.ISearchQueryBuilderHelper queryHelperBuilder, int from, int maxElements);
 
+    /**
+     * Run several searches in a single elasticsearch multi-search request and merge their hits by score.
+     *
+     * @param from Offset from the first result you want to fetch in the merged results.
+     * @param maxElements The maximum number of elements to return.
+     * @param searches The prepared searches (see {@link IESQueryBuilderHelper#prepareSearch()}) to run, from and size are managed by this method.
+     * @return A {@link GetMultipleDataResult} that contains the merged hits sorted by score, total results is the sum of the searches total results.
+     */
+    GetMultipleDataResult<Object> multiSearch(int from, int maxElements, IESSearchQueryBuilderHelper<?>... searches);
+
     /**
      * Search for data.
      *
@@ -0,0 +1,88 @@
+package alien4cloud.dao;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Iterates over all the hits of a search request using an elasticsearch scroll. Only a single page of hits is kept in memory at a time, next page is fetched
+ * when the current one has been consumed.
+ *
+ * The scroll context is released on elasticsearch when the last page has been consumed or when the iterator is closed.
+ */
+@Slf4j
+class ScrollHitIterator implements Iterator<SearchHit>, Closeable {
+    /** Keep alive of the scroll context between two page requests. */
+    static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    private final Client client;
+    private String scrollId;
+    private SearchHit[] page;
+    private int index = 0;
+
+    /**
+     * Start the scroll.
+     *
+     * @param client The elasticsearch client.
+     * @param searchRequestBuilder The search request to scroll, scroll keep alive and size are set by the iterator.
+     * @param pageSize The number of hits to fetch per page.
+     */
+    ScrollHitIterator(Client client, SearchRequestBuilder searchRequestBuilder, int pageSize) {
+        this.client = client;
+        SearchResponse response = searchRequestBuilder.setScroll(SCROLL_KEEP_ALIVE).setSize(pageSize).execute().actionGet();
+        processResponse(response);
+    }
+
+    private void processResponse(SearchResponse response) {
+        scrollId = response.getScrollId();
+        page = response.getHits() == null ? null : response.getHits().getHits();
+        index = 0;
+        if (page == null || page.length == 0) {
+            // scroll is finished
+            close();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (page != null && index < page.length) {
+            return true;
+        }
+        if (scrollId == null) {
+            return false;
+        }
+        processResponse(client.prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet());
+        return page != null && index < page.length;
+    }
+
+    @Override
+    public SearchHit next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page[index++];
+    }
+
+    @Override
+    public void close() {
+        page = null;
+        if (scrollId != null) {
+            String toClear = scrollId;
+            scrollId = null;
+            try {
+                client.prepareClearScroll().addScrollId(toClear).execute().actionGet();
+            } catch (RuntimeException e) {
+                // scroll context will anyway expire after the keep alive.
+                log.debug("Failed to clear elasticsearch scroll context.", e);
+            }
+        }
+    }
+}
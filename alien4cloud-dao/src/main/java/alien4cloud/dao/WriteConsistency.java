@@ -0,0 +1,21 @@
+package alien4cloud.dao;
+
+/**
+ * Defines when a write operation performed through a DAO becomes visible to searches.
+ */
+public enum WriteConsistency {
+    /** The write request forces a refresh of the index and returns only once the data is searchable. */
+    IMMEDIATE,
+    /**
+     * The write request returns as soon as the data is indexed and rely on the periodic refresh of the index for searches. Get operations (findById, exist)
+     * are realtime in elasticsearch and still see the data right after the write.
+     */
+    NEAR_REAL_TIME;
+
+    /**
+     * @return true if write requests performed with this consistency must force an index refresh.
+     */
+    public boolean isRefresh() {
+        return this == IMMEDIATE;
+    }
+}
@@ -30,6 +30,8 @@ import alien4cloud.dao.MonitorESDAO;
 import alien4cloud.deployment.DeploymentLoggingService;
 import alien4cloud.model.deployment.Deployment;
 import alien4cloud.paas.IPaaSCallback;
+import alien4cloud.paas.IPaaSEventsSink;
+import alien4cloud.paas.IPaaSEventsStreamProvider;
 import alien4cloud.paas.exception.PluginConfigurationException;
 import alien4cloud.paas.model.AbstractMonitorEvent;
 import alien4cloud.paas.model.DeploymentStatus;
@@ -51,7 +53,7 @@ import alien4cloud.utils.MapUtil;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public abstract class MockPaaSProvider extends AbstractPaaSProvider {
+public abstract class MockPaaSProvider extends AbstractPaaSProvider implements IPaaSEventsStreamProvider {
     public static final String PUBLIC_IP = "ip_address";
     public static final String TOSCA_ID = "tosca_id";
     public static final String TOSCA_NAME = "tosca_name";
@@ -65,6 +67,8 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
     private Map<String, String> paaSDeploymentIdToAlienDeploymentIdMap = Maps.newHashMap();
 
     private final List<AbstractMonitorEvent> toBeDeliveredEvents = Collections.synchronizedList(new ArrayList<AbstractMonitorEvent>());
+    /** Sink in which events are pushed when alien4cloud streams events rather than polling them. */
+    private volatile IPaaSEventsSink eventsSink;
 
     @Inject
     private IToscaTypeSearchService toscaTypeSearchService;
@@ -238,12 +242,12 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
                 event.setDeploymentStatus(status);
                 event.setDate((new Date()).getTime());
                 event.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
-                toBeDeliveredEvents.add(event);
+                deliverEvent(event);
                 PaaSMessageMonitorEvent messageMonitorEvent = new PaaSMessageMonitorEvent();
                 messageMonitorEvent.setDate((new Date()).getTime());
                 messageMonitorEvent.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
                 messageMonitorEvent.setMessage("APPLICATIONS.RUNTIME.EVENTS.MESSAGE_EVENT.STATUS_DEPLOYMENT_CHANGED");
-                toBeDeliveredEvents.add(messageMonitorEvent);
+                deliverEvent(messageMonitorEvent);
             }
         }, 2, TimeUnit.SECONDS);
         return oldDeploymentStatus;
@@ -273,20 +277,20 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
                 event.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
                 event.setRuntimeProperties(cloned.getRuntimeProperties());
                 event.setAttributes(cloned.getAttributes());
-                toBeDeliveredEvents.add(event);
+                deliverEvent(event);
 
                 if (deployment.getSourceName().equals(BLOCKSTORAGE_APPLICATION) && cloned.getState().equalsIgnoreCase("created")) {
                     PaaSInstancePersistentResourceMonitorEvent prme = new PaaSInstancePersistentResourceMonitorEvent(nodeId, instanceId.toString(),
                             MapUtil.newHashMap(new String[] { NormativeBlockStorageConstants.VOLUME_ID }, new Object[] { UUID.randomUUID().toString() }));
                     prme.setDeploymentId(deployment.getId());
-                    toBeDeliveredEvents.add(prme);
+                    deliverEvent(prme);
                 }
 
                 PaaSMessageMonitorEvent messageMonitorEvent = new PaaSMessageMonitorEvent();
                 messageMonitorEvent.setDate((new Date()).getTime());
                 messageMonitorEvent.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
                 messageMonitorEvent.setMessage("APPLICATIONS.RUNTIME.EVENTS.MESSAGE_EVENT.INSTANCE_STATE_CHANGED");
-                toBeDeliveredEvents.add(messageMonitorEvent);
+                deliverEvent(messageMonitorEvent);
             }
         }, delay, TimeUnit.SECONDS);
     }
@@ -301,7 +305,7 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
                 event.setNodeTemplateId(nodeId);
                 event.setDate((new Date()).getTime());
                 event.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
-                toBeDeliveredEvents.add(event);
+                deliverEvent(event);
             }
         }, delay, TimeUnit.SECONDS);
     }
@@ -482,11 +486,57 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
 
     @Override
     public void getEventsSince(Date date, int maxEvents, IPaaSCallback<AbstractMonitorEvent[]> eventsCallback) {
-        AbstractMonitorEvent[] events = toBeDeliveredEvents.toArray(new AbstractMonitorEvent[toBeDeliveredEvents.size()]);
-        toBeDeliveredEvents.clear();
+        AbstractMonitorEvent[] events;
+        synchronized (toBeDeliveredEvents) {
+            events = toBeDeliveredEvents.toArray(new AbstractMonitorEvent[toBeDeliveredEvents.size()]);
+            toBeDeliveredEvents.clear();
+        }
         eventsCallback.onSuccess(events);
     }
 
+    @Override
+    public void startEventsStream(Date since, IPaaSEventsSink sink) {
+        AbstractMonitorEvent[] events;
+        synchronized (toBeDeliveredEvents) {
+            eventsSink = sink;
+            events = toBeDeliveredEvents.toArray(new AbstractMonitorEvent[toBeDeliveredEvents.size()]);
+            toBeDeliveredEvents.clear();
+        }
+        // push the events that were generated before the stream started, the sink may block so do not hold the lock.
+        for (AbstractMonitorEvent event : events) {
+            pushEvent(sink, event);
+        }
+    }
+
+    @Override
+    public void stopEventsStream() {
+        synchronized (toBeDeliveredEvents) {
+            eventsSink = null;
+        }
+    }
+
+    private void deliverEvent(AbstractMonitorEvent event) {
+        IPaaSEventsSink sink;
+        synchronized (toBeDeliveredEvents) {
+            sink = eventsSink;
+            if (sink == null) {
+                toBeDeliveredEvents.add(event);
+                return;
+            }
+        }
+        pushEvent(sink, event);
+    }
+
+    private void pushEvent(IPaaSEventsSink sink, AbstractMonitorEvent event) {
+        try {
+            if (!sink.publish(event, 1, TimeUnit.MINUTES)) {
+                log.warn("Mock event {} has not been accepted by alien4cloud.", event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     protected String doExecuteOperation(NodeOperationExecRequest request) {
         List<String> allowedOperation = Arrays.asList("success", "success_param");
@@ -106,7 +106,7 @@ public class DeploymentTopologyController {
         Topology topology = topologyServiceCore.getOrFail(topologyVersion.getArchiveId());
 
         // This method prepares the deployment and create a Deployment Topology DTO object.
-        DeploymentTopologyDTO dto = deploymentTopologyDTOBuilder.prepareDeployment(topology, application, environment);
+        DeploymentTopologyDTO dto = deploymentTopologyDTOBuilder.getDeploymentTopology(topology, application, environment);
 
         if (dto.getAvailableSubstitutions() != null && dto.getAvailableSubstitutions().getSubstitutionTypes() != null) {
             // Fix for Services with abstract types
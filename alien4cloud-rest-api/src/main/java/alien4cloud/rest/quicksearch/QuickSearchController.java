@@ -1,5 +1,6 @@
 package alien4cloud.rest.quicksearch;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -7,8 +8,9 @@ import javax.annotation.Resource;
 
 import io.swagger.annotations.Api;
 import org.alien4cloud.tosca.model.types.RelationshipType;
-import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -17,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import alien4cloud.dao.ElasticSearchDAO;
+import alien4cloud.dao.IESQueryBuilderHelper;
+import alien4cloud.dao.IESSearchQueryBuilderHelper;
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.dao.model.FetchContext;
 import alien4cloud.dao.model.GetMultipleDataResult;
@@ -28,6 +32,8 @@ import alien4cloud.rest.model.RestResponseBuilder;
 import alien4cloud.security.AuthorizationUtil;
 import alien4cloud.security.model.Role;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.swagger.annotations.ApiOperation;
 
@@ -40,6 +46,8 @@ import io.swagger.annotations.ApiOperation;
 @RequestMapping({"/rest/quicksearch", "/rest/v1/quicksearch", "/rest/latest/quicksearch"})
 @Api
 public class QuickSearchController {
+    private static final float PREFIX_BOOST = 4f;
+
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDAO;
 
@@ -47,40 +55,46 @@ public class QuickSearchController {
     @RequestMapping(method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("isAuthenticated()")
     public RestResponse<GetMultipleDataResult> search(@RequestBody BasicSearchRequest requestObject) {
+        List<IESSearchQueryBuilderHelper<?>> searches = Lists.newArrayList();
 
-        Set<String> authoIndexes = Sets.newHashSet();
-        Set<Class<?>> classes = Sets.newHashSet();
-
-        // First phase : COMPONENTS search, needed role Role.COMPONENTS_BROWSER or Role.ADMIN
+        // COMPONENTS search, needed role Role.COMPONENTS_BROWSER or Role.ADMIN
         if (AuthorizationUtil.hasOneRoleIn(Role.COMPONENTS_BROWSER)) {
-            authoIndexes.add(ElasticSearchDAO.TOSCA_ELEMENT_INDEX);
-            classes.add(NodeType.class);
+            searches.add(prepareQuickSearch(NodeType.class, requestObject.getQuery(), "rawElementId", null));
         }
 
-        GetMultipleDataResult searchResultComponents = searchByType(requestObject, authoIndexes, classes, null, null);
-
-        // Second phase : APPLICATION search (with rights filter) or with the Role.ADMIN
-        authoIndexes.clear();
-        classes.clear();
-        authoIndexes.add(Application.class.getSimpleName().toLowerCase());
-        classes.add(Application.class);
-
-        // Adding filters to get only authorized applications
-        // only filter on users roles on the application if the current user is not an ADMIN
+        // APPLICATION search, only filter on users roles on the application if the current user is not an ADMIN
         FilterBuilder authorizationFilter = AuthorizationUtil.getResourceAuthorizationFilters();
+        searches.add(prepareQuickSearch(Application.class, requestObject.getQuery(), "name", authorizationFilter));
 
-        GetMultipleDataResult<?> searchResultApplications = searchByType(requestObject, authoIndexes, classes, null, authorizationFilter);
-
-        // Final merge result : COMPONENTS + APPLICATIONS
-        GetMultipleDataResult searchResult = new GetMultipleDataResult();
-        searchResult.setQueryDuration(searchResultComponents.getQueryDuration() + searchResultApplications.getQueryDuration());
-        searchResult.setTypes(ArrayUtils.addAll(searchResultComponents.getTypes(), searchResultApplications.getTypes()));
-        searchResult.setData(ArrayUtils.addAll(searchResultComponents.getData(), searchResultApplications.getData()));
-        searchResult.setTotalResults(searchResultComponents.getTotalResults() + searchResultApplications.getTotalResults());
+        // Both searches are sent in a single request and results are merged by score.
+        GetMultipleDataResult searchResult = alienDAO.multiSearch(requestObject.getFrom(), requestObject.getSize(),
+                searches.toArray(new IESSearchQueryBuilderHelper<?>[searches.size()]));
 
         return RestResponseBuilder.<GetMultipleDataResult> builder().data(searchResult).build();
     }
 
+    /**
+     * Prepare a quick search on a type of elements. When the user typed some text, elements with an identifier starting with the text are boosted so
+     * auto-completion gets the expected element first.
+     *
+     * @param clazz The type of elements to search.
+     * @param searchText The text typed by the user.
+     * @param prefixField The not analyzed identifier field to match against the typed text.
+     * @param authorizationFilter The authorization filter to apply to the search, null if none.
+     * @return The prepared search.
+     */
+    private IESSearchQueryBuilderHelper<?> prepareQuickSearch(Class<?> clazz, String searchText, String prefixField, FilterBuilder authorizationFilter) {
+        Map<String, String[]> filters = Maps.newHashMap();
+        IESQueryBuilderHelper<?> queryBuilderHelper = alienDAO.buildSearchQuery(clazz, searchText).setFilters(filters, authorizationFilter);
+        if (StringUtils.isNotBlank(searchText)) {
+            String prefix = searchText.trim();
+            // the prefix query is optional so it only affects the score of elements already matched (and filtered) by the main query.
+            queryBuilderHelper.alterQueryBuilder(
+                    queryBuilder -> QueryBuilders.boolQuery().must(queryBuilder).should(QueryBuilders.prefixQuery(prefixField, prefix).boost(PREFIX_BOOST)));
+        }
+        return queryBuilderHelper.prepareSearch().setFetchContext(FetchContext.QUICK_SEARCH);
+    }
+
     @ApiOperation(value = "Search for relationship types in ALIEN's repository.")
     @RequestMapping(value = "relationship_types", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("isAuthenticated()")
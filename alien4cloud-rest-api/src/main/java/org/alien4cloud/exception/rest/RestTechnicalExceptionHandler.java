@@ -34,6 +34,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import com.google.common.collect.Lists;
 
 import alien4cloud.component.repository.exception.RepositoryTechnicalException;
+import alien4cloud.deployment.exceptions.DeploymentLockTimeoutException;
 import alien4cloud.deployment.exceptions.InvalidDeploymentSetupException;
 import alien4cloud.images.exception.ImageUploadException;
 import alien4cloud.model.common.Usage;
@@ -250,6 +251,15 @@ public class RestTechnicalExceptionHandler {
         return RestResponseBuilder.<Void> builder().error(RestErrorBuilder.builder(RestErrorCode.NOT_FOUND_ERROR).message(e.getMessage()).build()).build();
     }
 
+    @ExceptionHandler(value = DeploymentLockTimeoutException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public RestResponse<Void> deploymentLockTimeoutHandler(DeploymentLockTimeoutException e) {
+        log.warn("Deployment lock timeout", e);
+        return RestResponseBuilder.<Void> builder().error(RestErrorBuilder.builder(RestErrorCode.DEPLOYMENT_LOCK_TIMEOUT).message(e.getMessage()).build())
+                .build();
+    }
+
     @ExceptionHandler(value = VersionConflictException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     @ResponseBody
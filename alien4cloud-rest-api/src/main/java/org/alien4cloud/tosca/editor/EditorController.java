@@ -181,9 +181,9 @@ public class EditorController {
     @ApiIgnore
     @PreAuthorize("isAuthenticated()")
     @RequestMapping(value = "/{topologyId:.+}/history", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
-    public RestResponse<List<SimpleGitHistoryEntry>> history(@PathVariable String topologyId, @RequestParam("from") int from,
-            @RequestParam("count") int count) {
-        List<SimpleGitHistoryEntry> historyEntries = editorService.history(topologyId, from, count);
+    public RestResponse<List<SimpleGitHistoryEntry>> history(@PathVariable String topologyId, @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "before", required = false) String before, @RequestParam("count") int count) {
+        List<SimpleGitHistoryEntry> historyEntries = editorService.history(topologyId, from, before, count);
         return RestResponseBuilder.<List<SimpleGitHistoryEntry>> builder().data(historyEntries).build();
     }
 
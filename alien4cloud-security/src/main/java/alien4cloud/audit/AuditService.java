@@ -2,8 +2,11 @@ package alien4cloud.audit;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.apache.commons.lang3.StringUtils;
@@ -22,19 +25,30 @@ import alien4cloud.audit.model.AuditConfiguration;
 import alien4cloud.audit.model.AuditTrace;
 import alien4cloud.audit.model.Method;
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.exception.NotFoundException;
 import alien4cloud.security.AuthorizationUtil;
+import alien4cloud.utils.BatchingWriter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
 
+/**
+ * Manage the audit configuration and audit traces.
+ *
+ * Audit traces are saved synchronously by default. In asynchronous mode (audit.async.enabled) they are buffered in a bounded {@link BatchingWriter} and bulk
+ * indexed in the background so audited requests do not wait for elasticsearch. Traces that cannot be indexed (buffer full because elasticsearch is slow, or
+ * indexing failure) are written to the AUDIT_LOGS_LOGGER file appender instead.
+ */
 @Component
 @Slf4j
 public class AuditService {
 
     public static final String CONTROLLER_SUFFIX = "Controller";
 
+    @Setter
     @Resource(name = "alien-audit-dao")
     private IGenericSearchDAO alienDAO;
 
@@ -51,6 +65,30 @@ public class AuditService {
     @Value("${logs_audit_appender.enable:false}")
     private boolean isLoggerEnabled;
 
+    /** Consistency of audit traces writes, audit traces are searched only from the audit view so by default we don't refresh the index on every save. */
+    @Value("${audit.write_consistency:NEAR_REAL_TIME}")
+    private WriteConsistency traceWriteConsistency = WriteConsistency.NEAR_REAL_TIME;
+
+    /** When true audit traces are indexed asynchronously, synchronous mode ensures a trace is indexed before the audited request completes. */
+    @Setter
+    @Value("${audit.async.enabled:#{false}}")
+    private boolean asyncEnabled = false;
+    @Setter
+    @Value("${audit.async.buffer_size:#{10000}}")
+    private int bufferSize = 10000;
+    @Setter
+    @Value("${audit.async.batch_size:#{200}}")
+    private int batchSize = 200;
+    @Setter
+    @Value("${audit.async.flush_interval_ms:#{1000}}")
+    private long flushIntervalMs = 1000;
+    @Value("${audit.async.shutdown_timeout_ms:#{30000}}")
+    private long shutdownTimeoutMs = 30000;
+
+    private BatchingWriter<AuditTrace> traceWriter;
+    /** Number of traces written to the audit file logger because they could not be indexed. */
+    private final AtomicLong fallbackCount = new AtomicLong();
+
     private final static String OUTPUT_FORMAT = "%s %s.%s [method=%s][call=%s][response_code=%d][Ipsource=%s][Alien4cloud UI=%s] | %s";
 
     /**
@@ -70,13 +108,61 @@ public class AuditService {
         this.auditConfiguration = auditConfiguration;
     }
 
+    @PostConstruct
+    public void init() {
+        if (!asyncEnabled) {
+            return;
+        }
+        traceWriter = new BatchingWriter<>("audit-traces-flusher", bufferSize, batchSize, flushIntervalMs,
+                batch -> alienDAO.save(batch.toArray(new AuditTrace[batch.size()]), traceWriteConsistency),
+                unwritten -> unwritten.forEach(this::fallbackToLogger));
+        traceWriter.start();
+        log.info("Audit traces are indexed asynchronously, buffer size is {} and batches of {} traces are flushed at most every {} ms", bufferSize,
+                batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Stop the flusher, buffered traces are indexed before the method returns (or written to the audit file logger if the shutdown timeout is reached).
+     */
+    @PreDestroy
+    public void destroy() {
+        if (traceWriter != null) {
+            traceWriter.stop(shutdownTimeoutMs);
+        }
+    }
+
     public void saveAuditTrace(AuditTrace auditTrace) {
         try {
             if (isLoggerEnabled) {
                 audit_logger.info("{}",toLogFormat(auditTrace));
             }
         } finally {
-            alienDAO.save(auditTrace);
+            if (traceWriter != null && traceWriter.isRunning()) {
+                if (!traceWriter.offer(auditTrace)) {
+                    // elasticsearch does not keep up with the audit traces.
+                    fallbackToLogger(auditTrace);
+                }
+            } else {
+                alienDAO.save(auditTrace, traceWriteConsistency);
+            }
+        }
+    }
+
+    /**
+     * @return The number of audit traces that could not be indexed and have been written to the audit file logger only.
+     */
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    private void fallbackToLogger(AuditTrace auditTrace) {
+        long count = fallbackCount.incrementAndGet();
+        if (count == 1 || count % 1000 == 0) {
+            log.warn("{} audit traces could not be indexed and have been written to the audit logger only.", count);
+        }
+        if (!isLoggerEnabled) {
+            // otherwise the trace has already been logged.
+            audit_logger.info("{}", toLogFormat(auditTrace));
         }
     }
 
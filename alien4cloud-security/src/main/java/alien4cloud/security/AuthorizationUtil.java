@@ -2,11 +2,16 @@ package alien4cloud.security;
 
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.FilterBuilders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,8 +23,15 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
+import alien4cloud.security.event.GroupDeletedEvent;
+import alien4cloud.security.event.GroupUpdatedEvent;
+import alien4cloud.security.event.UserDeletedEvent;
 import alien4cloud.security.groups.IAlienGroupDao;
 import alien4cloud.security.model.ApplicationEnvironmentRole;
 import alien4cloud.security.model.ApplicationRole;
@@ -29,6 +41,8 @@ import alien4cloud.security.model.User;
 import alien4cloud.security.spring.Alien4CloudAccessDeniedHandler;
 import alien4cloud.security.spring.FailureAuthenticationEntryPoint;
 import alien4cloud.utils.AlienConstants;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -37,13 +51,26 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Component
 public final class AuthorizationUtil {
+    private static final int AUTHORIZATION_FILTERS_CACHE_SIZE = 10000;
 
     private static IAlienGroupDao alienGroupDao;
     private static Alien4CloudAccessDeniedHandler accessDeniedHandler;
 
+    /** The ALL_USERS group, absent if not created yet. */
+    private static final Cache<String, Optional<Group>> allUsersGroupCache = CacheBuilder.newBuilder().build();
+    /** Authorization filters by user, groups of the user and groups version. */
+    private static final Cache<AuthorizationFilterKey, FilterBuilder> authorizationFiltersCache = CacheBuilder.newBuilder()
+            .maximumSize(AUTHORIZATION_FILTERS_CACHE_SIZE).expireAfterAccess(1, TimeUnit.HOURS).build();
+    /**
+     * Incremented on every group or user change. Being part of the filters key, it prevents a filter computed concurrently with an invalidation from being
+     * served afterward.
+     */
+    private static final AtomicLong groupsVersion = new AtomicLong();
+
     @Autowired
     public void setAlienGroupDao(IAlienGroupDao alienGroupDao) {
         AuthorizationUtil.alienGroupDao = alienGroupDao;
+        invalidateCaches();
     }
 
     @Autowired
@@ -159,14 +186,24 @@ public final class AuthorizationUtil {
             return null;
         }
 
-        FilterBuilder filterBuilder;
         User user = (User) auth.getPrincipal();
-        if (user.getGroups() != null && !user.getGroups().isEmpty()) {
+        Set<String> userGroups = user.getGroups() == null ? ImmutableSet.<String> of() : ImmutableSet.copyOf(user.getGroups());
+        AuthorizationFilterKey key = new AuthorizationFilterKey(auth.getName(), userGroups, groupsVersion.get());
+        try {
+            return authorizationFiltersCache.get(key, () -> buildResourceAuthorizationFilters(key.username, key.groups));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static FilterBuilder buildResourceAuthorizationFilters(String username, Set<String> userGroups) {
+        FilterBuilder filterBuilder;
+        if (!userGroups.isEmpty()) {
             filterBuilder = FilterBuilders.boolFilter()
-                    .should(FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", auth.getName())))
-                    .should(FilterBuilders.nestedFilter("groupRoles", FilterBuilders.inFilter("groupRoles.key", user.getGroups().toArray())));
+                    .should(FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", username)))
+                    .should(FilterBuilders.nestedFilter("groupRoles", FilterBuilders.inFilter("groupRoles.key", userGroups.toArray())));
         } else {
-            filterBuilder = FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", auth.getName()));
+            filterBuilder = FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", username));
         }
         Group group = getAllUsersGroup();
         if (group != null) {
@@ -178,6 +215,30 @@ public final class AuthorizationUtil {
         return filterBuilder;
     }
 
+    /**
+     * Clear the ALL_USERS group and authorization filters caches.
+     */
+    public static void invalidateCaches() {
+        groupsVersion.incrementAndGet();
+        allUsersGroupCache.invalidateAll();
+        authorizationFiltersCache.invalidateAll();
+    }
+
+    @EventListener
+    public void groupUpdatedEventListener(GroupUpdatedEvent event) {
+        invalidateCaches();
+    }
+
+    @EventListener
+    public void groupDeletedEventListener(GroupDeletedEvent event) {
+        invalidateCaches();
+    }
+
+    @EventListener
+    public void userDeletedEventListener(UserDeletedEvent event) {
+        invalidateCaches();
+    }
+
     /**
      * Get current logged in user
      *
@@ -335,17 +396,29 @@ public final class AuthorizationUtil {
     }
 
     /**
-     * Recover the alien's default all user group
+     * Recover the alien's default all user group, the group is cached until a group change.
      *
-     * @return
+     * @return The ALL_USERS group or null if not found. The group is shared and must not be modified.
      */
     private static Group getAllUsersGroup() {
-        Group group = alienGroupDao.findByName(AlienConstants.GROUP_NAME_ALL_USERS);
-        if (group == null) {
-            log.warn("Default all users group [ {} ] not found", AlienConstants.GROUP_NAME_ALL_USERS);
-            return null;
+        try {
+            return allUsersGroupCache.get(AlienConstants.GROUP_NAME_ALL_USERS, () -> {
+                Group group = alienGroupDao.findByName(AlienConstants.GROUP_NAME_ALL_USERS);
+                if (group == null) {
+                    log.warn("Default all users group [ {} ] not found", AlienConstants.GROUP_NAME_ALL_USERS);
+                }
+                return Optional.ofNullable(group);
+            }).orElse(null);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(Exception e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
         }
-        return group;
+        return new IllegalStateException("Failed to load authorization data", e.getCause());
     }
 
     /**
@@ -444,4 +517,12 @@ public final class AuthorizationUtil {
 
         httpSecurity.csrf().disable();
     }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class AuthorizationFilterKey {
+        private final String username;
+        private final Set<String> groups;
+        private final long groupsVersion;
+    }
 }
@@ -0,0 +1,18 @@
+package alien4cloud.security.event;
+
+import alien4cloud.events.AlienEvent;
+import alien4cloud.security.model.Group;
+import lombok.Getter;
+
+/**
+ * Event triggered after a group is created or updated (name, roles or users).
+ */
+@Getter
+public class GroupUpdatedEvent extends AlienEvent {
+    private final Group group;
+
+    public GroupUpdatedEvent(Object source, Group group) {
+        super(source);
+        this.group = group;
+    }
+}
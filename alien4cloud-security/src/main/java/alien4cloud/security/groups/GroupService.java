@@ -23,6 +23,7 @@ import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.exception.InvalidArgumentException;
 import alien4cloud.exception.NotFoundException;
 import alien4cloud.security.event.GroupDeletedEvent;
+import alien4cloud.security.event.GroupUpdatedEvent;
 import alien4cloud.security.event.UserDeletedEvent;
 import alien4cloud.security.groups.rest.UpdateGroupRequest;
 import alien4cloud.security.model.Group;
@@ -57,7 +58,7 @@ public class GroupService {
             // If group name has changed, must check unicity
             checkGroupNameUniqueness(group.getName());
         }
-        alienGroupDao.save(group);
+        saveGroup(group);
     }
 
     public void deleteGroup(String groupId) throws IOException, ClassNotFoundException {
@@ -74,7 +75,7 @@ public class GroupService {
         users.add(user.getUsername());
         group.setUsers(users);
 
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in the user
         userService.addGroupToUser(group, user);
@@ -90,7 +91,7 @@ public class GroupService {
         User user = userService.retrieveUser(username);
 
         group.getUsers().remove(user.getUsername());
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in users objects
         userService.removeGroupFromUser(user, group);
@@ -122,7 +123,7 @@ public class GroupService {
             group.setUsers(usersSet);
         }
 
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         if (CollectionUtils.isNotEmpty(usersList)) {
             for (User user : usersList) {
@@ -140,7 +141,7 @@ public class GroupService {
         rolesSet.add(Role.getStringFormatedRole(role));
         group.setRoles(rolesSet);
 
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in users objects
         if (CollectionUtils.isNotEmpty(group.getUsers())) {
@@ -150,6 +151,11 @@ public class GroupService {
         }
     }
 
+    private void saveGroup(Group group) {
+        alienGroupDao.save(group);
+        publisher.publishEvent(new GroupUpdatedEvent(this, group));
+    }
+
     public Group retrieveGroup(String id) {
         Group group = alienGroupDao.find(id);
         if (group == null) {
@@ -165,7 +171,7 @@ public class GroupService {
         }
 
         group.getRoles().remove(Role.getStringFormatedRole(role));
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in users objects
         if (CollectionUtils.isNotEmpty(group.getUsers())) {
@@ -203,7 +209,7 @@ public class GroupService {
             Group group = retrieveGroup(groupId);
             if (safe(group.getUsers()).contains(user.getUsername())) {
                 group.getUsers().remove(user.getUsername());
-                alienGroupDao.save(group);
+                saveGroup(group);
             }
         }
     }
@@ -0,0 +1,100 @@
+package alien4cloud.audit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import alien4cloud.audit.model.AuditTrace;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WriteConsistency;
+
+public class AuditServiceTest {
+    private IGenericSearchDAO alienDAO;
+    private AuditService auditService;
+
+    @Before
+    public void init() {
+        alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        auditService = new AuditService();
+        auditService.setAlienDAO(alienDAO);
+        auditService.setBatchSize(10);
+        auditService.setFlushIntervalMs(50);
+    }
+
+    private AuditTrace trace(String action) {
+        AuditTrace auditTrace = new AuditTrace();
+        auditTrace.setUserName("user");
+        auditTrace.setAction(action);
+        return auditTrace;
+    }
+
+    @Test
+    public void syncModeShouldIndexTraceBeforeReturning() {
+        auditService.init();
+        AuditTrace auditTrace = trace("sync");
+        auditService.saveAuditTrace(auditTrace);
+
+        Mockito.verify(alienDAO).save(Matchers.same(auditTrace), Matchers.any(WriteConsistency.class));
+        auditService.destroy();
+    }
+
+    @Test
+    public void asyncModeShouldIndexTracesByBatchesBeforeShutdown() {
+        auditService.setAsyncEnabled(true);
+        auditService.init();
+        for (int i = 0; i < 25; i++) {
+            auditService.saveAuditTrace(trace("async"));
+        }
+        auditService.destroy();
+
+        Mockito.verify(alienDAO, Mockito.never()).save(Matchers.any(AuditTrace.class), Matchers.any(WriteConsistency.class));
+        Mockito.verify(alienDAO, Mockito.atLeast(3)).save(Matchers.any(AuditTrace[].class), Matchers.any(WriteConsistency.class));
+        Assert.assertEquals(0, auditService.getFallbackCount());
+    }
+
+    @Test
+    public void asyncModeShouldFallbackToLoggerWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch indexing = new CountDownLatch(1);
+        CountDownLatch elasticsearchAvailable = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            indexing.countDown();
+            elasticsearchAvailable.await();
+            return null;
+        }).when(alienDAO).save(Matchers.any(AuditTrace[].class), Matchers.any(WriteConsistency.class));
+        auditService.setAsyncEnabled(true);
+        auditService.setBufferSize(1);
+        auditService.setBatchSize(1);
+        auditService.init();
+
+        // the first trace is taken by the flusher that waits for elasticsearch, the second one fills the buffer.
+        auditService.saveAuditTrace(trace("indexing"));
+        Assert.assertTrue(indexing.await(5, TimeUnit.SECONDS));
+        auditService.saveAuditTrace(trace("buffered"));
+        auditService.saveAuditTrace(trace("rejected"));
+        Assert.assertEquals(1, auditService.getFallbackCount());
+
+        elasticsearchAvailable.countDown();
+        auditService.destroy();
+        Mockito.verify(alienDAO, Mockito.times(2)).save(Matchers.any(AuditTrace[].class), Matchers.any(WriteConsistency.class));
+        Assert.assertEquals(1, auditService.getFallbackCount());
+    }
+
+    @Test
+    public void asyncModeShouldFallbackToLoggerWhenIndexingFails() {
+        Mockito.doThrow(new RuntimeException("elasticsearch is not available")).when(alienDAO).save(Matchers.any(AuditTrace[].class),
+                Matchers.any(WriteConsistency.class));
+        auditService.setAsyncEnabled(true);
+        auditService.init();
+        for (int i = 0; i < 25; i++) {
+            auditService.saveAuditTrace(trace("failed"));
+        }
+        auditService.destroy();
+
+        Assert.assertEquals(25, auditService.getFallbackCount());
+    }
+}
@@ -0,0 +1,86 @@
+package alien4cloud.security;
+
+import java.lang.reflect.Constructor;
+
+import org.elasticsearch.index.query.FilterBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.google.common.collect.Sets;
+
+import alien4cloud.security.event.GroupUpdatedEvent;
+import alien4cloud.security.groups.IAlienGroupDao;
+import alien4cloud.security.model.Group;
+import alien4cloud.security.model.Role;
+import alien4cloud.security.model.User;
+import alien4cloud.utils.AlienConstants;
+
+public class AuthorizationUtilTest {
+    private IAlienGroupDao groupDao;
+    private AuthorizationUtil authorizationUtil;
+
+    @Before
+    public void init() throws Exception {
+        Group allUsers = new Group(AlienConstants.GROUP_NAME_ALL_USERS);
+        allUsers.setId("all-users-id");
+        groupDao = Mockito.mock(IAlienGroupDao.class);
+        Mockito.when(groupDao.findByName(AlienConstants.GROUP_NAME_ALL_USERS)).thenReturn(allUsers);
+        Constructor<AuthorizationUtil> constructor = AuthorizationUtil.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        authorizationUtil = constructor.newInstance();
+        authorizationUtil.setAlienGroupDao(groupDao);
+    }
+
+    @After
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void login(String username, String... groups) {
+        User user = new User();
+        user.setUsername(username);
+        user.setGroups(Sets.newHashSet(groups));
+        SecurityContextHolder.getContext().setAuthentication(AuthorizationUtil.createAuthenticationToken(user, ""));
+    }
+
+    @Test
+    public void filtersShouldBeComputedOncePerUserAndGroups() {
+        login("user", "group1");
+        FilterBuilder filter = AuthorizationUtil.getResourceAuthorizationFilters();
+        Assert.assertSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+
+        login("user", "group1", "group2");
+        Assert.assertNotSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+        login("other", "group1");
+        Assert.assertNotSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+
+        // the ALL_USERS group is fetched only once, when creating the first authentication token.
+        Mockito.verify(groupDao, Mockito.times(1)).findByName(AlienConstants.GROUP_NAME_ALL_USERS);
+    }
+
+    @Test
+    public void groupChangeShouldInvalidateCaches() {
+        login("user", "group1");
+        FilterBuilder filter = AuthorizationUtil.getResourceAuthorizationFilters();
+
+        authorizationUtil.groupUpdatedEventListener(new GroupUpdatedEvent(this, new Group("group1")));
+
+        Assert.assertNotSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+        Mockito.verify(groupDao, Mockito.times(2)).findByName(AlienConstants.GROUP_NAME_ALL_USERS);
+    }
+
+    @Test
+    public void adminShouldHaveNoFilter() {
+        User user = new User();
+        user.setUsername("admin");
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(user, "", Sets.newHashSet(new SimpleGrantedAuthority(Role.ADMIN.toString()))));
+        Assert.assertNull(AuthorizationUtil.getResourceAuthorizationFilters());
+    }
+}
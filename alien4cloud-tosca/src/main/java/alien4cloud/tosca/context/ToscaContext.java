@@ -22,9 +22,12 @@ import org.alien4cloud.tosca.model.types.RelationshipType;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import alien4cloud.component.ICSARRepositorySearchService;
+import alien4cloud.exception.NotFoundException;
 import alien4cloud.tosca.model.ArchiveRoot;
+import alien4cloud.utils.VersionUtil;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +40,10 @@ public class ToscaContext {
     @Setter
     @Getter
     private static ICSARRepositorySearchService csarRepositorySearchService;
+    /** Process wide cache of released types shared across the thread contexts, null if not available. */
+    @Setter
+    @Getter
+    private static ToscaTypeCache toscaTypeCache;
     private final static ThreadLocal<Context> contextThreadLocal = new ThreadLocal<>();
 
     /**
@@ -290,8 +297,17 @@ public class ToscaContext {
                 }
             }
 
-            T element = required ? csarRepositorySearchService.getRequiredElementInDependencies(elementClass, elementId, dependencies)
-                    : csarRepositorySearchService.getElementInDependencies(elementClass, elementId, dependencies);
+            T element;
+            if (toscaTypeCache == null || !toscaTypeCache.isEnabled()) {
+                element = required ? csarRepositorySearchService.getRequiredElementInDependencies(elementClass, elementId, dependencies)
+                        : csarRepositorySearchService.getElementInDependencies(elementClass, elementId, dependencies);
+            } else {
+                element = findElementInDependencies(elementClass, elementId);
+            }
+            if (element == null && required) {
+                throw new NotFoundException("Element elementId: [" + elementId + "] of type [" + elementClass.getSimpleName()
+                        + "] cannot be found in dependencies " + dependencies);
+            }
             if (element != null) {
                 typeElements.put(elementId, element);
             }
@@ -299,6 +315,43 @@ public class ToscaContext {
             return element;
         }
 
+        /**
+         * Find an element in the context dependencies. Types from released dependencies are fetched through the shared {@link ToscaTypeCache} while
+         * types from SNAPSHOT dependencies are always fetched from the repository.
+         */
+        private <T extends AbstractToscaType> T findElementInDependencies(Class<T> elementClass, String elementId) {
+            if (dependencies == null || dependencies.isEmpty()) {
+                return csarRepositorySearchService.getElementInDependencies(elementClass, elementId, dependencies);
+            }
+            T element = null;
+            Set<CSARDependency> notCacheableDependencies = Sets.newHashSet();
+            for (CSARDependency dependency : dependencies) {
+                if (toscaTypeCache.isCacheable(dependency)) {
+                    T candidate = toscaTypeCache.get(elementClass, elementId, dependency, () -> csarRepositorySearchService
+                            .getElementInDependencies(elementClass, elementId, Sets.newHashSet(dependency))).orElse(null);
+                    element = latest(element, candidate);
+                } else {
+                    notCacheableDependencies.add(dependency);
+                }
+            }
+            if (!notCacheableDependencies.isEmpty()) {
+                element = latest(element, csarRepositorySearchService.getElementInDependencies(elementClass, elementId, notCacheableDependencies));
+            }
+            return element;
+        }
+
+        /** Keep the element from the most recent archive version, consistently with the repository search when an element is in multiple dependencies. */
+        private <T extends AbstractToscaType> T latest(T current, T candidate) {
+            if (current == null) {
+                return candidate;
+            }
+            if (candidate == null) {
+                return current;
+            }
+            return VersionUtil.parseVersion(candidate.getArchiveVersion()).compareTo(VersionUtil.parseVersion(current.getArchiveVersion())) > 0 ? candidate
+                    : current;
+        }
+
         public <T extends AbstractToscaType> Optional<AbstractToscaType> getElement(Class<T> elementClass, Predicate<AbstractToscaType> filter) {
             String elementType = elementClass.getSimpleName();
             Map<String, AbstractToscaType> typeElements = toscaTypesCache.get(elementType);
@@ -0,0 +1,141 @@
+package alien4cloud.tosca.context;
+
+import static alien4cloud.utils.AlienUtils.safe;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import alien4cloud.utils.VersionUtil;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process wide cache of TOSCA types that belong to released (non SNAPSHOT) archives. Released archives are immutable so their types can be shared across
+ * requests and threads, the cache sits under the thread local {@link ToscaContext.Context} caches.
+ *
+ * Cached types are shared instances and must be considered as read-only. Absence of a type in an archive is cached too so lookups of a type in the
+ * dependencies that don't define it does not trigger requests.
+ */
+@Slf4j
+@Component
+public class ToscaTypeCache {
+    @Getter
+    @Value("${tosca.types_cache.enabled:#{true}}")
+    private boolean enabled = true;
+    /** Maximum weight of the cache, a type weight is roughly the number of definitions (properties, capabilities etc.) it holds. */
+    @Value("${tosca.types_cache.max_weight:#{200000}}")
+    private long maxWeight = 200000;
+
+    private Cache<TypeKey, Optional<AbstractToscaType>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder().maximumWeight(maxWeight).weigher(new Weigher<TypeKey, Optional<AbstractToscaType>>() {
+            @Override
+            public int weigh(TypeKey key, Optional<AbstractToscaType> value) {
+                return value.isPresent() ? weight(value.get()) : 1;
+            }
+        }).recordStats().build();
+        log.info("Shared TOSCA types cache is {} with a maximum weight of {}", enabled ? "enabled" : "disabled", maxWeight);
+    }
+
+    /**
+     * Check if the types of the given dependency can be shared through this cache.
+     *
+     * @param dependency The dependency.
+     * @return True if the cache is enabled and the dependency is a released version.
+     */
+    public boolean isCacheable(CSARDependency dependency) {
+        return enabled && dependency.getVersion() != null && !VersionUtil.isSnapshot(dependency.getVersion());
+    }
+
+    /**
+     * Get a type defined in the given archive from the cache or load it.
+     *
+     * @param elementClass The class of the element.
+     * @param elementId The id of the element.
+     * @param dependency The archive that may define the type.
+     * @param loader Loader used to fetch the type from the repository in case of cache miss, returns null if the type is not defined in the archive.
+     * @return An optional that contains the type if defined in the archive.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractToscaType> Optional<T> get(Class<T> elementClass, String elementId, CSARDependency dependency, Supplier<T> loader) {
+        TypeKey key = new TypeKey(Csar.createId(dependency.getName(), dependency.getVersion()), elementClass.getSimpleName(), elementId);
+        try {
+            return (Optional<T>) cache.get(key, () -> Optional.ofNullable(loader.get()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to load type " + elementId + " from archive " + dependency, e.getCause());
+        }
+    }
+
+    /**
+     * Remove all types of the given archive from the cache.
+     *
+     * @param archiveId The id of the archive (see {@link Csar#createId(String, String)}).
+     */
+    public void invalidateArchive(String archiveId) {
+        cache.asMap().keySet().removeIf(key -> key.archiveId.equals(archiveId));
+    }
+
+    /**
+     * Remove all types from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return The statistics (hits, misses, load time, evictions) of the cache.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static int weight(AbstractToscaType type) {
+        int weight = 1;
+        if (type instanceof AbstractInheritableToscaType) {
+            AbstractInheritableToscaType inheritableType = (AbstractInheritableToscaType) type;
+            weight += safe(inheritableType.getDerivedFrom()).size() + safe(inheritableType.getProperties()).size();
+        }
+        if (type instanceof NodeType) {
+            NodeType nodeType = (NodeType) type;
+            weight += safe(nodeType.getCapabilities()).size() + safe(nodeType.getRequirements()).size() + safe(nodeType.getAttributes()).size()
+                    + safe(nodeType.getInterfaces()).size();
+        }
+        return weight;
+    }
+
+    @EqualsAndHashCode
+    private static final class TypeKey {
+        private final String archiveId;
+        private final String elementType;
+        private final String elementId;
+
+        private TypeKey(String archiveId, String elementType, String elementId) {
+            this.archiveId = archiveId;
+            this.elementType = elementType;
+            this.elementId = elementId;
+        }
+    }
+}
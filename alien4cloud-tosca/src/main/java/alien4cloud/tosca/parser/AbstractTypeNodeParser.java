@@ -44,7 +44,7 @@ public abstract class AbstractTypeNodeParser {
         if (!propertyName.equals("void")) {
             // property named 'void' means : process the parsing but do not set anything
             try {
-                realTarget.setPropertyValue(propertyName, value);
+                BeanPropertyAccessor.setPropertyValue(realTarget, propertyName, value);
             } catch (ConversionNotSupportedException e) {
                 context.getParsingErrors().add(new ParsingError(ParsingErrorLevel.ERROR, ErrorCode.SYNTAX_ERROR, "Invalid yaml type for property",
                         valueNode.getStartMark(), "", valueNode.getEndMark(), toscaType));
@@ -59,8 +59,8 @@ public abstract class AbstractTypeNodeParser {
             KeyValueMappingTarget kvmt = (KeyValueMappingTarget) mappingTarget;
             BeanWrapper keyBeanWrapper = realTarget;
             try {
-                if (!(keyBeanWrapper.getPropertyValue(kvmt.getKeyPath()) != null && propertyName.equals(key))) {
-                    keyBeanWrapper.setPropertyValue(kvmt.getKeyPath(), key);
+                if (!(BeanPropertyAccessor.getPropertyValue(keyBeanWrapper, kvmt.getKeyPath()) != null && propertyName.equals(key))) {
+                    BeanPropertyAccessor.setPropertyValue(keyBeanWrapper, kvmt.getKeyPath(), key);
                 }
             } catch (ConversionNotSupportedException e) {
                 context.getParsingErrors().add(new ParsingError(ParsingErrorLevel.ERROR, ErrorCode.SYNTAX_ERROR, "Invalid yaml type for property",
@@ -95,7 +95,7 @@ public abstract class AbstractTypeNodeParser {
             nextPath = path.substring(1);
         } else {
             String wrapperCandidateName = path.substring(0, path.indexOf("."));
-            Object wrapperCandidate = current.getPropertyValue(wrapperCandidateName);
+            Object wrapperCandidate = BeanPropertyAccessor.getPropertyValue(current, wrapperCandidateName);
             base = new BeanWrapperImpl(wrapperCandidate);
             nextPath = path.substring(path.indexOf(".") + 1);
         }
@@ -0,0 +1,170 @@
+package alien4cloud.tosca.parser;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.util.ClassUtils;
+
+import com.google.common.collect.Maps;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accessor to a simple (not nested) property of a bean, compiled once per bean class and property name into method handles.
+ *
+ * Setting a value through a {@link BeanWrapper} parses the property path, looks up the property and goes through the type conversion system on every call.
+ * The parsers set a lot of values when an archive is imported so they use the compiled accessors and fallback to the {@link BeanWrapper} only when the
+ * value has to be converted or the property cannot be accessed through a public getter or setter (the wrapper reports the error).
+ */
+@Slf4j
+public final class BeanPropertyAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    /** Accessors by property name for every class, released with the class. */
+    private static final ClassValue<Map<String, Optional<BeanPropertyAccessor>>> ACCESSORS = new ClassValue<Map<String, Optional<BeanPropertyAccessor>>>() {
+        @Override
+        protected Map<String, Optional<BeanPropertyAccessor>> computeValue(Class<?> type) {
+            return Maps.newConcurrentMap();
+        }
+    };
+
+    /** Type of the property, primitive types are replaced by their wrapper. */
+    private final Class<?> propertyType;
+    private final boolean primitive;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private BeanPropertyAccessor(PropertyDescriptor propertyDescriptor, MethodHandle getter, MethodHandle setter) {
+        this.propertyType = ClassUtils.resolvePrimitiveIfNecessary(propertyDescriptor.getPropertyType());
+        this.primitive = propertyDescriptor.getPropertyType().isPrimitive();
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Get the compiled accessor of a bean property.
+     *
+     * @param beanClass The class of the bean.
+     * @param propertyName The name of the property.
+     * @return The accessor or null if the property is nested, indexed or has no public getter nor setter.
+     */
+    public static BeanPropertyAccessor get(Class<?> beanClass, String propertyName) {
+        return ACCESSORS.get(beanClass).computeIfAbsent(propertyName, name -> Optional.ofNullable(compile(beanClass, name))).orElse(null);
+    }
+
+    private static BeanPropertyAccessor compile(Class<?> beanClass, String propertyName) {
+        if (propertyName.indexOf('.') >= 0 || propertyName.indexOf('[') >= 0) {
+            return null;
+        }
+        PropertyDescriptor propertyDescriptor = BeanUtils.getPropertyDescriptor(beanClass, propertyName);
+        if (propertyDescriptor == null || propertyDescriptor.getPropertyType() == null) {
+            return null;
+        }
+        MethodHandle getter = unreflect(propertyDescriptor.getReadMethod(), GETTER_TYPE);
+        MethodHandle setter = unreflect(propertyDescriptor.getWriteMethod(), SETTER_TYPE);
+        if (getter == null && setter == null) {
+            return null;
+        }
+        return new BeanPropertyAccessor(propertyDescriptor, getter, setter);
+    }
+
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        if (method == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            log.debug("Method {} is not accessible, the bean wrapper will be used.", method);
+            return null;
+        }
+    }
+
+    /**
+     * Set the value of a property of the object wrapped by the given bean wrapper.
+     *
+     * @param beanWrapper The wrapper of the bean, used only if the value requires conversion.
+     * @param propertyName The name of the property (may be a nested path).
+     * @param value The value to set.
+     */
+    public static void setPropertyValue(BeanWrapper beanWrapper, String propertyName, Object value) {
+        BeanPropertyAccessor accessor = get(beanWrapper.getWrappedClass(), propertyName);
+        if (accessor == null || !accessor.setValue(beanWrapper.getWrappedInstance(), value)) {
+            beanWrapper.setPropertyValue(propertyName, value);
+        }
+    }
+
+    /**
+     * Set the value of a property of a bean.
+     *
+     * @param bean The bean.
+     * @param propertyName The name of the property (may be a nested path).
+     * @param value The value to set.
+     */
+    public static void setPropertyValue(Object bean, String propertyName, Object value) {
+        BeanPropertyAccessor accessor = get(bean.getClass(), propertyName);
+        if (accessor == null || !accessor.setValue(bean, value)) {
+            new BeanWrapperImpl(bean).setPropertyValue(propertyName, value);
+        }
+    }
+
+    /**
+     * Get the value of a property of the object wrapped by the given bean wrapper.
+     *
+     * @param beanWrapper The wrapper of the bean, used only if the property cannot be read directly.
+     * @param propertyName The name of the property (may be a nested path).
+     * @return The value of the property.
+     */
+    public static Object getPropertyValue(BeanWrapper beanWrapper, String propertyName) {
+        BeanPropertyAccessor accessor = get(beanWrapper.getWrappedClass(), propertyName);
+        if (accessor == null || accessor.getter == null) {
+            return beanWrapper.getPropertyValue(propertyName);
+        }
+        return accessor.getValue(beanWrapper.getWrappedInstance());
+    }
+
+    /**
+     * Set the value of the property if it does not require any conversion.
+     *
+     * @param bean The bean.
+     * @param value The value to set.
+     * @return true if the value has been set, false if it has to be converted or if the property has no setter.
+     */
+    public boolean setValue(Object bean, Object value) {
+        if (setter == null || (value == null ? primitive : !propertyType.isInstance(value))) {
+            return false;
+        }
+        try {
+            setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ParsingTechnicalException("Unexpected error while setting property value.", e);
+        }
+        return true;
+    }
+
+    /**
+     * Get the value of the property.
+     *
+     * @param bean The bean.
+     * @return The value of the property.
+     */
+    public Object getValue(Object bean) {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ParsingTechnicalException("Unexpected error while getting property value.", e);
+        }
+    }
+}
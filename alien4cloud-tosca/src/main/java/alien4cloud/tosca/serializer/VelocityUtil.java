@@ -2,8 +2,8 @@ package alien4cloud.tosca.serializer;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -20,6 +20,8 @@ import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
 public class VelocityUtil {
 
     private static final VelocityEngine VELOCITY_ENGINE;
+    /** Context of the serializer helpers, never modified once initialized so it can be read concurrently. */
+    private static final VelocityContext HELPERS_CONTEXT;
 
     static {
         // ThreadSafe so can be shared
@@ -31,18 +33,25 @@ public class VelocityUtil {
         VELOCITY_ENGINE.setProperty("classpath.resource.loader.cache", true);
         VELOCITY_ENGINE.setProperty("runtime.log.logsystem.class", "org.apache.velocity.runtime.log.NullLogSystem");
         VELOCITY_ENGINE.init();
+
+        HELPERS_CONTEXT = new VelocityContext();
+        HELPERS_CONTEXT.put("utils", new ToscaSerializerUtils());
+        HELPERS_CONTEXT.put("propertyUtils", new ToscaPropertySerializerUtils());
+        HELPERS_CONTEXT.put("importsUtils", new ToscaImportsUtils());
     }
 
+    /**
+     * Render a template to a writer, the writer is closed once the template has been rendered.
+     *
+     * @param path The classpath location of the template.
+     * @param outputWriter The writer to which to stream the rendered template.
+     * @param properties The properties available to the template, the default serializer helpers can be overridden through the utils, propertyUtils and
+     *            importsUtils keys.
+     */
     public static void generate(String path, Writer outputWriter, Map<String, ?> properties) throws IOException {
         Template template = VELOCITY_ENGINE.getTemplate(path, "UTF-8");
-        VelocityContext context = new VelocityContext();
-
-        for (Entry<String, ?> contextEntry : properties.entrySet()) {
-            context.put(contextEntry.getKey(), contextEntry.getValue());
-        }
-        putIfAbsent(context, "utils", new ToscaSerializerUtils());
-        putIfAbsent(context, "propertyUtils", new ToscaPropertySerializerUtils());
-        putIfAbsent(context, "importsUtils", new ToscaImportsUtils());
+        // helpers are stateless, they are shared by all the renderings through the chained context.
+        VelocityContext context = new VelocityContext(new HashMap<>(properties), HELPERS_CONTEXT);
 
         try {
             template.merge(context, outputWriter);
@@ -50,10 +59,4 @@ public class VelocityUtil {
             outputWriter.close();
         }
     }
-
-    private static void putIfAbsent(VelocityContext context, String key, Object value) {
-        if (!context.containsKey(key)) {
-            context.put(key, value);
-        }
-    }
 }
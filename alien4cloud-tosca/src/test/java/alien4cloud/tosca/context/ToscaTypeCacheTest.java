@@ -0,0 +1,81 @@
+package alien4cloud.tosca.context;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ToscaTypeCacheTest {
+    private ToscaTypeCache cache;
+
+    @Before
+    public void init() {
+        cache = new ToscaTypeCache();
+        cache.init();
+    }
+
+    private NodeType nodeType(String elementId, String archiveName, String archiveVersion) {
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId(elementId);
+        nodeType.setArchiveName(archiveName);
+        nodeType.setArchiveVersion(archiveVersion);
+        return nodeType;
+    }
+
+    @Test
+    public void snapshotDependenciesShouldNotBeCacheable() {
+        Assert.assertTrue(cache.isCacheable(new CSARDependency("tosca-normative-types", "1.0.0")));
+        Assert.assertFalse(cache.isCacheable(new CSARDependency("my-types", "1.0.0-SNAPSHOT")));
+    }
+
+    @Test
+    public void loaderShouldBeCalledOnlyOnceForPresentAndAbsentTypes() {
+        CSARDependency dependency = new CSARDependency("tosca-normative-types", "1.0.0");
+        AtomicInteger loads = new AtomicInteger();
+        NodeType compute = nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertSame(compute, cache.get(NodeType.class, "tosca.nodes.Compute", dependency, () -> {
+                loads.incrementAndGet();
+                return compute;
+            }).get());
+            Assert.assertFalse(cache.get(NodeType.class, "unknown.Type", dependency, () -> {
+                loads.incrementAndGet();
+                return null;
+            }).isPresent());
+        }
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateArchiveShouldOnlyEvictTypesOfTheArchive() {
+        CSARDependency normative = new CSARDependency("tosca-normative-types", "1.0.0");
+        CSARDependency other = new CSARDependency("other-types", "1.0.0");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(NodeType.class, "tosca.nodes.Compute", normative, () -> {
+            loads.incrementAndGet();
+            return nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        });
+        cache.get(NodeType.class, "other.nodes.Type", other, () -> {
+            loads.incrementAndGet();
+            return nodeType("other.nodes.Type", "other-types", "1.0.0");
+        });
+
+        cache.invalidateArchive(Csar.createId("tosca-normative-types", "1.0.0"));
+
+        cache.get(NodeType.class, "tosca.nodes.Compute", normative, () -> {
+            loads.incrementAndGet();
+            return nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        });
+        cache.get(NodeType.class, "other.nodes.Type", other, () -> {
+            loads.incrementAndGet();
+            return nodeType("other.nodes.Type", "other-types", "1.0.0");
+        });
+        Assert.assertEquals(3, loads.get());
+    }
+}
@@ -0,0 +1,43 @@
+package alien4cloud.tosca.parser;
+
+import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.NotWritablePropertyException;
+
+public class BeanPropertyAccessorTest {
+
+    @Test
+    public void valueShouldBeSetWithoutConversion() {
+        NodeType nodeType = new NodeType();
+        BeanPropertyAccessor accessor = BeanPropertyAccessor.get(NodeType.class, "elementId");
+        Assert.assertNotNull(accessor);
+        Assert.assertSame(accessor, BeanPropertyAccessor.get(NodeType.class, "elementId"));
+        Assert.assertTrue(accessor.setValue(nodeType, "tosca.nodes.Root"));
+        Assert.assertEquals("tosca.nodes.Root", nodeType.getElementId());
+        Assert.assertEquals("tosca.nodes.Root", accessor.getValue(nodeType));
+        // primitive properties cannot be set to null
+        Assert.assertFalse(BeanPropertyAccessor.get(NodeType.class, "abstract").setValue(nodeType, null));
+    }
+
+    @Test
+    public void beanWrapperShouldBeUsedWhenConversionIsRequired() {
+        NodeType nodeType = new NodeType();
+        BeanWrapper beanWrapper = new BeanWrapperImpl(nodeType);
+        BeanPropertyAccessor.setPropertyValue(beanWrapper, "abstract", "true");
+        Assert.assertTrue(nodeType.isAbstract());
+
+        PropertyDefinition propertyDefinition = new PropertyDefinition();
+        BeanPropertyAccessor.setPropertyValue(propertyDefinition, "required", Boolean.FALSE);
+        Assert.assertFalse(propertyDefinition.isRequired());
+    }
+
+    @Test(expected = NotWritablePropertyException.class)
+    public void unknownPropertyShouldBeReportedByBeanWrapper() {
+        Assert.assertNull(BeanPropertyAccessor.get(NodeType.class, "unknown"));
+        BeanPropertyAccessor.setPropertyValue(new BeanWrapperImpl(new NodeType()), "unknown", "value");
+    }
+}
@@ -0,0 +1,73 @@
+package alien4cloud.tosca.parser;
+
+import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Set the properties the parsers map the most through plain bean wrappers and through the compiled property accessors and report the durations.
+ */
+@Slf4j
+public class ToscaParserBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 10000;
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void setPropertyValues() {
+        NodeType beanWrapperNodeType = new NodeType();
+        PropertyDefinition beanWrapperPropertyDefinition = new PropertyDefinition();
+        setWithBeanWrapper(beanWrapperNodeType, beanWrapperPropertyDefinition);
+        NodeType accessorsNodeType = new NodeType();
+        PropertyDefinition accessorsPropertyDefinition = new PropertyDefinition();
+        setWithAccessors(accessorsNodeType, accessorsPropertyDefinition);
+
+        Assert.assertEquals(beanWrapperNodeType.getElementId(), accessorsNodeType.getElementId());
+        Assert.assertEquals(beanWrapperNodeType.getDescription(), accessorsNodeType.getDescription());
+        Assert.assertEquals(beanWrapperNodeType.isAbstract(), accessorsNodeType.isAbstract());
+        Assert.assertEquals(beanWrapperPropertyDefinition.getType(), accessorsPropertyDefinition.getType());
+        Assert.assertEquals(beanWrapperPropertyDefinition.isRequired(), accessorsPropertyDefinition.isRequired());
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            setWithBeanWrapper(new NodeType(), new PropertyDefinition());
+            setWithAccessors(new NodeType(), new PropertyDefinition());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            setWithBeanWrapper(new NodeType(), new PropertyDefinition());
+        }
+        long beanWrapperDuration = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            setWithAccessors(new NodeType(), new PropertyDefinition());
+        }
+        long accessorsDuration = System.nanoTime() - start;
+
+        log.info("Set property values in {} ms with bean wrappers and in {} ms with compiled accessors ({} iterations)", beanWrapperDuration / 1000000d,
+                accessorsDuration / 1000000d, ITERATIONS);
+    }
+
+    private void setWithBeanWrapper(NodeType nodeType, PropertyDefinition propertyDefinition) {
+        BeanWrapper nodeTypeWrapper = new BeanWrapperImpl(nodeType);
+        nodeTypeWrapper.setPropertyValue("elementId", "tosca.nodes.Compute");
+        nodeTypeWrapper.setPropertyValue("description", "A compute node");
+        nodeTypeWrapper.setPropertyValue("abstract", "true");
+        BeanWrapper propertyDefinitionWrapper = new BeanWrapperImpl(propertyDefinition);
+        propertyDefinitionWrapper.setPropertyValue("type", "string");
+        propertyDefinitionWrapper.setPropertyValue("required", Boolean.FALSE);
+    }
+
+    private void setWithAccessors(NodeType nodeType, PropertyDefinition propertyDefinition) {
+        BeanWrapper nodeTypeWrapper = new BeanWrapperImpl(nodeType);
+        BeanPropertyAccessor.setPropertyValue(nodeTypeWrapper, "elementId", "tosca.nodes.Compute");
+        BeanPropertyAccessor.setPropertyValue(nodeTypeWrapper, "description", "A compute node");
+        BeanPropertyAccessor.setPropertyValue(nodeTypeWrapper, "abstract", "true");
+        BeanWrapper propertyDefinitionWrapper = new BeanWrapperImpl(propertyDefinition);
+        BeanPropertyAccessor.setPropertyValue(propertyDefinitionWrapper, "type", "string");
+        BeanPropertyAccessor.setPropertyValue(propertyDefinitionWrapper, "required", Boolean.FALSE);
+    }
+}